@@ -0,0 +1,75 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import db.DB;
+import model.dao.DepartmentDao;
+import model.dao.SellerDao;
+import model.dao.impl.DaoFactory;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Compara linhas/segundo do insert linha a linha com o insertAll em lote.
+// Uso: BatchInsertBenchmark [linhas] (padrão 10000). Usa o banco do db.properties
+// e apaga tudo o que inseriu no final.
+public class BatchInsertBenchmark {
+
+	public static void main(String[] args) {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+		SellerDao sellerDao = DaoFactory.createSellerDao();
+		DepartmentDao departmentDao = DaoFactory.createDepartmentDao();
+
+		Department dep = new Department(null, "Benchmark");
+		departmentDao.insert(dep);
+
+		try {
+			// Aquecimento para o JIT e o pool não entrarem na medição
+			run("warm-up per-row", sellerDao, newSellers("warm-row", rows / 10, dep), false);
+			run("warm-up batch", sellerDao, newSellers("warm-batch", rows / 10, dep), true);
+
+			run("per-row insert", sellerDao, newSellers("row", rows, dep), false);
+			run("insertAll (batch.size=" + DB.getBatchSize() + ")", sellerDao, newSellers("batch", rows, dep), true);
+
+		} finally {
+			departmentDao.deleteById(dep.getId());
+			DB.closeConnection();
+		}
+	}
+
+	private static void run(String name, SellerDao dao, List<Seller> sellers, boolean batch) {
+		long start = System.nanoTime();
+
+		if (batch) {
+			dao.insertAll(sellers);
+		} else {
+			for (Seller s : sellers) {
+				dao.insert(s);
+			}
+		}
+
+		long elapsed = System.nanoTime() - start;
+		double rowsPerSec = sellers.size() / (elapsed / 1_000_000_000.0);
+		System.out.printf("%-32s %8d rows %10.1f ms %12.0f rows/s%n",
+				name, sellers.size(), elapsed / 1_000_000.0, rowsPerSec);
+
+		List<Integer> ids = new ArrayList<>(sellers.size());
+		for (Seller s : sellers) {
+			ids.add(s.getId());
+		}
+		dao.deleteByIds(ids);
+	}
+
+	private static List<Seller> newSellers(String prefix, int count, Department dep) {
+		List<Seller> list = new ArrayList<>(count);
+		long run = System.currentTimeMillis();
+		for (int i = 0; i < count; i++) {
+			list.add(new Seller(null, "Seller " + i, prefix + "-" + run + "-" + i + "@bench.local",
+					LocalDate.of(1990, 1, 1).plusDays(i % 10_000), 1000.0 + i % 5000, dep));
+		}
+		return list;
+	}
+}
@@ -0,0 +1,156 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Mini-harness de benchmark: roda uma operação em N threads por um tempo fixo
+// (com aquecimento antes) e imprime vazão, percentis de latência e bytes alocados.
+// Alocação = ThreadMXBean.getCurrentThreadAllocatedBytes das threads do benchmark em volta de cada
+// chamada: inclui o que o driver (e o H2 embutido, que roda na mesma thread) aloca, e não conta o
+// que outras threads alocam. Não é o -prof gc do JMH (sem fork, sem controle do JIT): serve para
+// comparar cenários no mesmo run, não como número absoluto.
+public class BenchmarkRunner {
+
+	// Operação medida; cada chamada é uma amostra de latência.
+	// Devolve false quando não há mais trabalho (a thread para antes do tempo).
+	public interface Operation {
+		boolean run(ThreadLocalRandom random) throws Exception;
+	}
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	// Máximo de amostras de latência guardadas por thread (as demais só contam na vazão)
+	private static final int MAX_SAMPLES = 1 << 20;
+
+	private final long warmupMillis;
+	private final long measureMillis;
+
+	public BenchmarkRunner(long warmupMillis, long measureMillis) {
+		this.warmupMillis = warmupMillis;
+		this.measureMillis = measureMillis;
+	}
+
+	public static void printHeader() {
+		System.out.printf("%-22s %7s %12s %10s %10s %10s %10s %12s %10s%n",
+				"benchmark", "threads", "ops/s", "p50 us", "p99 us", "p99.9 us", "max us", "alloc MB/s", "B/op");
+	}
+
+	public void run(String name, int threads, Operation op) throws InterruptedException {
+		run(name, threads, op, () -> {
+		});
+	}
+
+	// beforeMeasure roda entre o aquecimento e a medição, fora do tempo medido
+	// (ex.: repor as linhas que o aquecimento consumiu)
+	public void run(String name, int threads, Operation op, Runnable beforeMeasure) throws InterruptedException {
+		execute(threads, warmupMillis, op);
+		beforeMeasure.run();
+		Result r = execute(threads, measureMillis, op);
+
+		long[] all = r.samples;
+		Arrays.sort(all);
+		double seconds = r.elapsedNanos / 1_000_000_000.0;
+
+		System.out.printf("%-22s %7d %12.0f %10.1f %10.1f %10.1f %10.1f %12.1f %10.0f%n",
+				name, threads, r.ops / seconds,
+				percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999),
+				all.length == 0 ? 0.0 : all[all.length - 1] / 1000.0,
+				r.allocatedBytes / seconds / (1024 * 1024),
+				r.ops == 0 ? 0.0 : (double) r.allocatedBytes / r.ops);
+	}
+
+	private static final class Result {
+		long ops;
+		long elapsedNanos;
+		long allocatedBytes;
+		long[] samples;
+	}
+
+	private Result execute(int threads, long millis, Operation op) throws InterruptedException {
+		AtomicLong ops = new AtomicLong();
+		AtomicLong allocated = new AtomicLong();
+		long[][] samples = new long[threads][];
+		int[] sampleCounts = new int[threads];
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(threads);
+		Throwable[] failure = new Throwable[1];
+
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final int index = t;
+			workers[t] = new Thread(() -> {
+				long[] local = new long[MAX_SAMPLES];
+				int count = 0;
+				long localOps = 0;
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				try {
+					start.await();
+					long allocBefore = THREADS.getCurrentThreadAllocatedBytes();
+					long deadline = System.nanoTime() + millis * 1_000_000;
+					long now;
+					while ((now = System.nanoTime()) < deadline) {
+						if (!op.run(random)) {
+							break;
+						}
+						long latency = System.nanoTime() - now;
+						if (count < local.length) {
+							local[count++] = latency;
+						}
+						localOps++;
+					}
+					allocated.addAndGet(THREADS.getCurrentThreadAllocatedBytes() - allocBefore);
+				} catch (Throwable e) {
+					synchronized (failure) {
+						failure[0] = e;
+					}
+				} finally {
+					samples[index] = local;
+					sampleCounts[index] = count;
+					ops.addAndGet(localOps);
+					done.countDown();
+				}
+			}, "bench-" + t);
+			workers[t].start();
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		done.await();
+		long elapsed = System.nanoTime() - begin;
+
+		if (failure[0] != null) {
+			throw new IllegalStateException("Benchmark operation failed", failure[0]);
+		}
+
+		int total = 0;
+		for (int c : sampleCounts) {
+			total += c;
+		}
+		long[] merged = new long[total];
+		int pos = 0;
+		for (int t = 0; t < threads; t++) {
+			System.arraycopy(samples[t], 0, merged, pos, sampleCounts[t]);
+			pos += sampleCounts[t];
+		}
+
+		Result r = new Result();
+		r.ops = ops.get();
+		r.elapsedNanos = elapsed;
+		r.allocatedBytes = allocated.get();
+		r.samples = merged;
+		return r;
+	}
+
+	// Percentil em microssegundos de amostras já ordenadas (em nanossegundos)
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0.0;
+		}
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+		return sorted[Math.max(index, 0)] / 1000.0;
+	}
+}
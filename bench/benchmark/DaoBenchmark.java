@@ -0,0 +1,149 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import db.DB;
+import model.dao.SellerDao;
+import model.dao.impl.DaoFactory;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Benchmark do SellerDaoJDBC contra um banco embutido (H2 em modo MySQL).
+// Configuração por system properties:
+//   -Dbench.url=...            URL JDBC (padrão: H2 em memória)
+//   -Dbench.sellers=10000      linhas em seller
+//   -Dbench.departments=20     linhas em department
+//   -Dbench.threads=1,2,4,8    quantidades de threads
+//   -Dbench.warmupMillis=2000  aquecimento por cenário
+//   -Dbench.measureMillis=5000 medição por cenário
+//   -Dbench.deleteRows=200000  linhas extras inseridas (fora da medição) antes do aquecimento e de novo antes
+//                              da medição de cada cenário de delete; se acabarem durante a medição, o
+//                              benchmark falha (a vazão sairia errada): aumente o valor
+//   -Dbench.replicas=0         réplicas de leitura embutidas (find* vão para elas, escritas para o primário)
+// Exemplo: java -cp bin:h2.jar -Dbench.sellers=100000 benchmark.DaoBenchmark
+public class DaoBenchmark {
+
+	public static void main(String[] args) throws InterruptedException {
+
+		String url = System.getProperty("bench.url", EmbeddedDatabase.DEFAULT_URL);
+		int sellers = Integer.getInteger("bench.sellers", 10_000);
+		int departments = Integer.getInteger("bench.departments", 20);
+		int[] threadCounts = parseThreads(System.getProperty("bench.threads", "1,2,4,8"));
+		long warmup = Long.getLong("bench.warmupMillis", 2_000);
+		long measure = Long.getLong("bench.measureMillis", 5_000);
+		int deleteRows = Integer.getInteger("bench.deleteRows", 200_000);
+		int replicas = Integer.getInteger("bench.replicas", 0);
+
+		int maxThreads = 1;
+		for (int t : threadCounts) {
+			maxThreads = Math.max(maxThreads, t);
+		}
+
+		System.out.println("Seeding " + sellers + " sellers / " + departments + " departments into " + url);
+		List<Department> deps;
+		if (replicas > 0) {
+			List<String> replicaUrls = new ArrayList<>();
+			for (int i = 0; i < replicas; i++) {
+				replicaUrls.add(EmbeddedDatabase.replicaUrl(i));
+			}
+			System.out.println("Read replicas: " + replicaUrls);
+			deps = EmbeddedDatabase.startReplicated(url, replicaUrls, departments, sellers, maxThreads);
+		} else {
+			deps = EmbeddedDatabase.start(url, departments, sellers, maxThreads);
+		}
+
+		SellerDao dao = DaoFactory.createSellerDao();
+		BenchmarkRunner runner = new BenchmarkRunner(warmup, measure);
+
+		// Ids inseridos pelo benchmark de insert, consumidos pelo de delete
+		ConcurrentLinkedQueue<Integer> inserted = new ConcurrentLinkedQueue<>();
+		AtomicLong emailSequence = new AtomicLong();
+
+		BenchmarkRunner.printHeader();
+		try {
+			for (int threads : threadCounts) {
+				runner.run("findById", threads, r -> dao.findById(1 + r.nextInt(sellers)) != null);
+			}
+			for (int threads : threadCounts) {
+				runner.run("findAll", threads, r -> !dao.findAll().isEmpty());
+			}
+			for (int threads : threadCounts) {
+				runner.run("findByDepartment", threads, r -> !dao.findByDepartment(deps.get(r.nextInt(deps.size()))).isEmpty());
+			}
+			// Mesma consulta pelo cache de resultados (nenhuma escrita durante a medição)
+			SellerDao cached = DaoFactory.createQueryCachingSellerDao();
+			for (int threads : threadCounts) {
+				runner.run("findByDept (cached)", threads,
+						r -> !cached.findByDepartment(deps.get(r.nextInt(deps.size()))).isEmpty());
+			}
+			for (int threads : threadCounts) {
+				runner.run("update", threads, r -> {
+					Seller s = EmbeddedDatabase.newSeller("upd", r.nextInt(sellers), deps.get(r.nextInt(deps.size())));
+					s.setId(1 + r.nextInt(sellers));
+					s.setEmail("seed-" + (s.getId() - 1) + "@bench.local");
+					dao.update(s);
+					return true;
+				});
+			}
+			for (int threads : threadCounts) {
+				runner.run("insert", threads, r -> {
+					Seller s = EmbeddedDatabase.newSeller("ins", emailSequence.incrementAndGet(),
+							deps.get(r.nextInt(deps.size())));
+					dao.insert(s);
+					inserted.add(s.getId());
+					return true;
+				});
+			}
+			AtomicBoolean measuring = new AtomicBoolean();
+			for (int threads : threadCounts) {
+				measuring.set(false);
+				refill(dao, inserted, deleteRows, emailSequence, deps);
+				runner.run("delete", threads, r -> {
+					// Só deleta o que o benchmark (insert e refill) criou
+					Integer id = inserted.poll();
+					if (id == null) {
+						if (measuring.get()) {
+							throw new IllegalStateException("Ran out of rows to delete during the measurement; "
+									+ "increase bench.deleteRows (now " + deleteRows + ")");
+						}
+						// No aquecimento só encerra a thread: a medição começa com a fila cheia de novo
+						return false;
+					}
+					dao.deleteById(id);
+					return true;
+				}, () -> {
+					refill(dao, inserted, deleteRows, emailSequence, deps);
+					measuring.set(true);
+				});
+			}
+		} finally {
+			DB.closeConnection();
+		}
+	}
+
+	// Acrescenta rows linhas para o cenário de delete consumir
+	private static void refill(SellerDao dao, ConcurrentLinkedQueue<Integer> queue, int rows,
+			AtomicLong emailSequence, List<Department> deps) {
+		List<Seller> list = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			list.add(EmbeddedDatabase.newSeller("del", emailSequence.incrementAndGet(), deps.get(i % deps.size())));
+		}
+		dao.insertAll(list);
+		for (Seller s : list) {
+			queue.add(s.getId());
+		}
+	}
+
+	private static int[] parseThreads(String value) {
+		String[] parts = value.split(",");
+		int[] result = new int[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			result[i] = Integer.parseInt(parts[i].trim());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,128 @@
+package benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import db.DB;
+import db.DBException;
+import model.dao.DepartmentDao;
+import model.dao.SellerDao;
+import model.dao.impl.DaoFactory;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Sobe um banco embutido compatível com MySQL (H2 em MODE=MySQL, por padrão em memória),
+// cria as tabelas seller/department e popula com o tamanho pedido.
+// O driver do H2 só precisa estar no classpath na hora de rodar.
+public class EmbeddedDatabase {
+
+	public static final String DEFAULT_URL =
+			"jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	private static final String[] SCHEMA = {
+			"DROP TABLE IF EXISTS seller",
+			"DROP TABLE IF EXISTS department",
+			"CREATE TABLE department ("
+					+ "Id INT PRIMARY KEY AUTO_INCREMENT, "
+					+ "Name VARCHAR(60) NOT NULL, "
+					+ "Version INT NOT NULL DEFAULT 0)",
+			"CREATE TABLE seller ("
+					+ "Id INT PRIMARY KEY AUTO_INCREMENT, "
+					+ "Name VARCHAR(60) NOT NULL, "
+					+ "Email VARCHAR(100) NOT NULL UNIQUE, "
+					+ "BirthDate DATE NOT NULL, "
+					+ "BaseSalary DOUBLE NOT NULL, "
+					+ "DepartmentId INT, "
+					+ "Version INT NOT NULL DEFAULT 0, "
+					+ "FOREIGN KEY (DepartmentId) REFERENCES department(Id))",
+			"CREATE INDEX idx_department_name_id ON department (Name, Id)",
+			"CREATE INDEX idx_seller_name_id ON seller (Name, Id)",
+			"CREATE INDEX idx_seller_department_name_id ON seller (DepartmentId, Name, Id)" };
+
+	private EmbeddedDatabase() {
+	}
+
+	// Aponta o DB para o banco embutido (url), recria o schema e insere os dados.
+	// Devolve os departamentos criados.
+	public static List<Department> start(String url, int departments, int sellers, int poolSize) {
+		Properties props = new Properties();
+		props.setProperty("dburl", url);
+		props.setProperty("user", "sa");
+		props.setProperty("password", "");
+		props.setProperty("pool.minSize", "1");
+		props.setProperty("pool.maxSize", String.valueOf(poolSize));
+		DB.configure(props);
+
+		createSchema();
+		return seed(departments, sellers);
+	}
+
+	// Sobe o primário e cada réplica como bancos embutidos separados, todos com os mesmos dados,
+	// e configura o DB com replica.urls. Não há replicação entre eles: o que for escrito depois
+	// só aparece no primário, o que deixa visível para onde cada leitura foi.
+	public static List<Department> startReplicated(String url, List<String> replicaUrls, int departments,
+			int sellers, int poolSize) {
+		for (String replicaUrl : replicaUrls) {
+			start(replicaUrl, departments, sellers, poolSize);
+		}
+		List<Department> deps = start(url, departments, sellers, poolSize);
+
+		Properties props = new Properties();
+		props.putAll(DB.getProperties());
+		props.setProperty("replica.urls", String.join(",", replicaUrls));
+		DB.configure(props);
+		return deps;
+	}
+
+	// URL em memória para a réplica n, no mesmo modo do DEFAULT_URL
+	public static String replicaUrl(int n) {
+		return DEFAULT_URL.replace("mem:bench", "mem:bench-replica" + n);
+	}
+
+	private static void createSchema() {
+		Connection conn = DB.getConnection();
+		try (Statement st = conn.createStatement()) {
+			for (String sql : SCHEMA) {
+				st.execute(sql);
+			}
+		} catch (SQLException e) {
+			throw new DBException(e.getMessage());
+		} finally {
+			DB.closeConnection(conn);
+		}
+	}
+
+	private static List<Department> seed(int departmentCount, int sellerCount) {
+		DepartmentDao departmentDao = DaoFactory.createDepartmentDao();
+		SellerDao sellerDao = DaoFactory.createSellerDao();
+
+		List<Department> departments = new ArrayList<>(departmentCount);
+		for (int i = 0; i < departmentCount; i++) {
+			departments.add(new Department(null, "Department " + i));
+		}
+		departmentDao.insertAll(departments);
+
+		List<Seller> sellers = new ArrayList<>(Math.min(sellerCount, 10_000));
+		for (int i = 0; i < sellerCount; i++) {
+			sellers.add(newSeller("seed", i, departments.get(i % departmentCount)));
+			if (sellers.size() == 10_000) {
+				sellerDao.insertAll(sellers);
+				sellers.clear();
+			}
+		}
+		sellerDao.insertAll(sellers);
+
+		return departments;
+	}
+
+	// Seller com e-mail único derivado de prefix + n
+	public static Seller newSeller(String prefix, long n, Department dep) {
+		return new Seller(null, "Seller " + n, prefix + "-" + n + "@bench.local",
+				LocalDate.of(1960, 1, 1).plusDays(n % 15_000), 1000.0 + n % 9000, dep);
+	}
+}
@@ -0,0 +1,64 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import db.DB;
+import model.dao.export.ExportResult;
+import model.dao.export.SellerColumnarFile;
+import model.dao.export.SellerExporter;
+import model.dao.report.SellerColumns;
+
+// Mede a exportação paralela da tabela seller (CSV e colunar) com 1, 2, 4, ... partições,
+// até bench.maxPartitions; cada partição usa uma conexão do pool.
+// Configuração por system properties:
+//   -Dbench.url=...             URL JDBC (padrão: H2 em memória)
+//   -Dbench.sellers=1000000     linhas em seller
+//   -Dbench.departments=20      linhas em department
+//   -Dbench.maxPartitions=8     maior quantidade de partições testada
+//   -Dbench.dir=...             pasta dos arquivos gerados (padrão: pasta temporária)
+// Exemplo: java -cp bin:h2.jar -Dbench.sellers=2000000 benchmark.ExportBenchmark
+public class ExportBenchmark {
+
+	public static void main(String[] args) throws IOException {
+
+		String url = System.getProperty("bench.url", EmbeddedDatabase.DEFAULT_URL);
+		int sellers = Integer.getInteger("bench.sellers", 1_000_000);
+		int departments = Integer.getInteger("bench.departments", 20);
+		int maxPartitions = Integer.getInteger("bench.maxPartitions", 8);
+		String dirProperty = System.getProperty("bench.dir");
+		Path dir = dirProperty != null ? Path.of(dirProperty) : Files.createTempDirectory("seller-export");
+
+		System.out.println("Seeding " + sellers + " sellers / " + departments + " departments into " + url);
+		EmbeddedDatabase.start(url, departments, sellers, maxPartitions);
+
+		try {
+			for (SellerExporter.Format format : SellerExporter.Format.values()) {
+				Path target = dir.resolve(format == SellerExporter.Format.CSV ? "seller.csv" : "seller.col");
+				// Aquecimento
+				exporter(format, maxPartitions).export(target);
+				for (int partitions = 1; partitions <= maxPartitions; partitions *= 2) {
+					ExportResult result = exporter(format, partitions).export(target);
+					System.out.printf("%-9s %2d partitions %10d rows %8.1f MB %8d ms %10.0f rows/s%n", format,
+							result.getPartitions(), result.getRows(), result.getBytes() / 1e6,
+							result.getElapsedMillis(),
+							result.getRows() * 1000.0 / Math.max(result.getElapsedMillis(), 1));
+				}
+				if (format == SellerExporter.Format.COLUMNAR) {
+					long start = System.nanoTime();
+					SellerColumns columns = SellerColumnarFile.read(target);
+					System.out.printf("%-9s read back %10d rows %8.1f ms (sum salary %.2f)%n", format, columns.size(),
+							(System.nanoTime() - start) / 1e6, columns.sumSalaries());
+				}
+				Files.delete(target);
+			}
+		} finally {
+			DB.closeConnection();
+		}
+	}
+
+	private static SellerExporter exporter(SellerExporter.Format format, int partitions) {
+		return new SellerExporter(format, partitions, 10_000, 1 << 20, 65_536);
+	}
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import db.DB;
+import db.DBException;
+import model.dao.export.SellerExporter;
+import model.dao.impl.DaoFactory;
+import model.dao.importer.ImportStats;
+import model.dao.importer.SellerImporter;
+
+// Mede a importação em massa (SellerImporter) com 1, 2, 4, ... writers, até bench.maxWriters.
+// O CSV é gerado exportando a tabela populada; antes de cada rodada a tabela seller é esvaziada.
+// Configuração por system properties:
+//   -Dbench.url=...             URL JDBC (padrão: H2 em memória)
+//   -Dbench.sellers=500000      linhas do arquivo
+//   -Dbench.departments=20      linhas em department
+//   -Dbench.maxWriters=8        maior quantidade de writers testada
+//   -Dbench.batchRows=1000      linhas por INSERT
+// Exemplo: java -cp bin:h2.jar -Dbench.sellers=1000000 benchmark.ImportBenchmark
+public class ImportBenchmark {
+
+	public static void main(String[] args) throws IOException {
+
+		String url = System.getProperty("bench.url", EmbeddedDatabase.DEFAULT_URL);
+		int sellers = Integer.getInteger("bench.sellers", 500_000);
+		int departments = Integer.getInteger("bench.departments", 20);
+		int maxWriters = Integer.getInteger("bench.maxWriters", 8);
+		int batchRows = Integer.getInteger("bench.batchRows", 1000);
+
+		System.out.println("Seeding " + sellers + " sellers / " + departments + " departments into " + url);
+		EmbeddedDatabase.start(url, departments, sellers, maxWriters + 1);
+
+		Path file = Files.createTempFile("seller-import", ".csv");
+		try {
+			new SellerExporter(SellerExporter.Format.CSV, maxWriters, 10_000, 1 << 20, 65_536).export(file);
+			System.out.printf("CSV: %.1f MB%n", Files.size(file) / 1e6);
+
+			for (int writers = 1; writers <= maxWriters; writers *= 2) {
+				deleteSellers();
+				SellerImporter importer = new SellerImporter(DaoFactory.createDepartmentDao(),
+						DaoFactory.getChangeFeed(), writers, batchRows, 8, 0);
+				ImportStats stats = importer.importFile(file);
+				System.out.printf("%2d writers %10d rows %8d ms %10.0f rows/s  max queue: validation %d, write %d%n",
+						writers, stats.getRowsInserted(), stats.getElapsedMillis(), stats.getRowsPerSecond(),
+						stats.getMaxValidationQueueDepth(), stats.getMaxWriteQueueDepth());
+			}
+		} finally {
+			Files.deleteIfExists(file);
+			DB.closeConnection();
+		}
+	}
+
+	private static void deleteSellers() {
+		Connection conn = DB.getConnection();
+		try (Statement st = conn.createStatement()) {
+			st.execute("DELETE FROM seller");
+		} catch (SQLException e) {
+			throw new DBException(e.getMessage());
+		} finally {
+			DB.closeConnection(conn);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import db.DB;
+import model.dao.impl.DepartmentRegistry;
+import model.dao.impl.SellerRowMapper;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Mede o custo por linha do mapeamento ResultSet -> Seller:
+//   "by label"  = jeito antigo (seller.* + rs.getXxx("Coluna") + setters)
+//   "by index"  = SellerRowMapper (colunas explícitas, índices resolvidos uma vez)
+// A consulta roda uma vez com ResultSet rolável e cada rodada só percorre as linhas de novo,
+// assim o tempo medido é o do mapeamento e não o do banco. bytes/row é o que a thread alocou no
+// laço (ThreadMXBean), incluindo os getXxx do driver: compara os dois jeitos, mas não isola o
+// mapeamento nem substitui um benchmark JMH com -prof gc.
+// Uso: RowMapperBenchmark [rodadas] (padrão 200). Usa o banco do db.properties.
+public class RowMapperBenchmark {
+
+	private static final String LEGACY_SQL = "SELECT seller.*, department.Name as DepName "
+			+ "FROM seller INNER JOIN department ON seller.DepartmentId = department.Id";
+
+	private static final String INDEXED_SQL = "SELECT " + SellerRowMapper.COLUMNS + " "
+			+ "FROM seller INNER JOIN department ON seller.DepartmentId = department.Id";
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	// Evita que o JIT elimine o mapeamento como código morto
+	private static long blackhole;
+
+	public static void main(String[] args) throws SQLException {
+
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+		Connection conn = DB.getConnection();
+		try {
+			// Aquecimento
+			measure("warm-up by label", conn, LEGACY_SQL, false, rounds / 4);
+			measure("warm-up by index", conn, INDEXED_SQL, true, rounds / 4);
+
+			measure("by label (seller.*)", conn, LEGACY_SQL, false, rounds);
+			measure("by index (SellerRowMapper)", conn, INDEXED_SQL, true, rounds);
+		} finally {
+			DB.closeConnection(conn);
+			DB.closeConnection();
+		}
+		System.out.println("(checksum " + blackhole + ")");
+	}
+
+	private static void measure(String name, Connection conn, String sql, boolean indexed, int rounds)
+			throws SQLException {
+		try (PreparedStatement st = conn.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE,
+				ResultSet.CONCUR_READ_ONLY); ResultSet rs = st.executeQuery()) {
+
+			long rows = 0;
+			long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+			long start = System.nanoTime();
+
+			for (int r = 0; r < rounds; r++) {
+				rs.beforeFirst();
+				SellerRowMapper mapper = indexed ? new SellerRowMapper(rs, DepartmentRegistry.snapshot()) : null;
+				while (rs.next()) {
+					Seller s = indexed ? mapper.map(rs) : mapByLabel(rs);
+					blackhole += s.getId();
+					rows++;
+				}
+			}
+
+			long elapsed = System.nanoTime() - start;
+			long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+			System.out.printf("%-30s %10d rows %10.1f ns/row %10.1f bytes/row%n",
+					name, rows, (double) elapsed / Math.max(rows, 1), (double) allocated / Math.max(rows, 1));
+		}
+	}
+
+	// Cópia do mapeamento antigo do SellerDaoJDBC (instantiateSeller + instantiateDepartment)
+	private static Seller mapByLabel(ResultSet rs) throws SQLException {
+		Department dep = new Department();
+		dep.setId(rs.getInt("DepartmentId"));
+		dep.setName(rs.getString("DepName"));
+
+		Seller obj = new Seller();
+		obj.setId(rs.getInt("Id"));
+		obj.setName(rs.getString("Name"));
+		obj.setEmail(rs.getString("Email"));
+		obj.setBaseSalary(rs.getDouble("BaseSalary"));
+		obj.setBirthDate(rs.getDate("BirthDate").toLocalDate());
+		obj.setDepartment(dep);
+		return obj;
+	}
+}
@@ -0,0 +1,113 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+
+import db.DB;
+import model.dao.impl.DaoFactory;
+import model.dao.report.SellerColumns;
+import model.entities.Seller;
+
+// Compara o retrato em colunas (SellerColumns) com a lista de Sellers do findAll():
+// bytes alocados pela thread na carga (ThreadMXBean, inclusive pelo driver; não é a memória que fica
+// ocupada) e tempo das mesmas agregações (soma, filtro por faixa).
+// Configuração por system properties:
+//   -Dbench.url=...             URL JDBC (padrão: H2 em memória)
+//   -Dbench.sellers=1000000     linhas em seller
+//   -Dbench.departments=20      linhas em department
+//   -Dbench.rounds=50           repetições de cada agregação
+// Exemplo: java -cp bin:h2.jar -Dbench.sellers=2000000 benchmark.SellerColumnsBenchmark
+public class SellerColumnsBenchmark {
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private static final LocalDate FROM = LocalDate.of(1980, 1, 1);
+	private static final LocalDate TO = LocalDate.of(1990, 1, 1);
+
+	// Evita que o JIT elimine as agregações como código morto
+	private static double blackhole;
+
+	public static void main(String[] args) {
+
+		String url = System.getProperty("bench.url", EmbeddedDatabase.DEFAULT_URL);
+		int sellers = Integer.getInteger("bench.sellers", 1_000_000);
+		int departments = Integer.getInteger("bench.departments", 20);
+		int rounds = Integer.getInteger("bench.rounds", 50);
+
+		System.out.println("Seeding " + sellers + " sellers / " + departments + " departments into " + url);
+		EmbeddedDatabase.start(url, departments, sellers, 2);
+
+		try {
+			long before = THREADS.getCurrentThreadAllocatedBytes();
+			long start = System.nanoTime();
+			List<Seller> list = DaoFactory.createSellerDao().findAll();
+			printLoad("findAll()", list.size(), System.nanoTime() - start,
+					THREADS.getCurrentThreadAllocatedBytes() - before);
+
+			before = THREADS.getCurrentThreadAllocatedBytes();
+			start = System.nanoTime();
+			SellerColumns columns = DaoFactory.createReportDao().loadSellerColumns();
+			printLoad("loadSellerColumns()", columns.size(), System.nanoTime() - start,
+					THREADS.getCurrentThreadAllocatedBytes() - before);
+			System.out.printf("%-30s %10.1f bytes/row retained (estimate)%n", "SellerColumns",
+					(double) columns.estimatedBytes() / Math.max(columns.size(), 1));
+
+			System.out.println();
+			for (int pass = 0; pass < 2; pass++) {
+				// Primeira passada é aquecimento
+				boolean print = pass == 1;
+				measure(print, "sum salary: List<Seller>", rounds, () -> sumList(list));
+				measure(print, "sum salary: columns", rounds, columns::sumSalaries);
+				measure(print, "sum salary: columns parallel", rounds, columns::parallelSumSalaries);
+				measure(print, "born 1980s: List<Seller>", rounds, () -> sumBornBetween(list));
+				measure(print, "born 1980s: columns", rounds, () -> columns.sumSalaryBornBetween(FROM, TO));
+				measure(print, "born 1980s: columns parallel", rounds,
+						() -> columns.parallelSumSalaryBornBetween(FROM, TO));
+			}
+		} finally {
+			DB.closeConnection();
+		}
+		System.out.println("(checksum " + blackhole + ")");
+	}
+
+	private interface Aggregation {
+		double run();
+	}
+
+	private static void measure(boolean print, String name, int rounds, Aggregation aggregation) {
+		long start = System.nanoTime();
+		for (int r = 0; r < rounds; r++) {
+			blackhole += aggregation.run();
+		}
+		long elapsed = System.nanoTime() - start;
+		if (print) {
+			System.out.printf("%-30s %10.3f ms/scan%n", name, elapsed / 1e6 / rounds);
+		}
+	}
+
+	private static void printLoad(String name, int rows, long nanos, long allocated) {
+		System.out.printf("%-30s %10d rows %10.1f ms %10.1f bytes/row allocated%n",
+				name, rows, nanos / 1e6, (double) allocated / Math.max(rows, 1));
+	}
+
+	private static double sumList(List<Seller> list) {
+		double sum = 0;
+		for (Seller s : list) {
+			sum += s.getBaseSalary();
+		}
+		return sum;
+	}
+
+	private static double sumBornBetween(List<Seller> list) {
+		double sum = 0;
+		for (Seller s : list) {
+			LocalDate d = s.getBirthDate();
+			if (!d.isBefore(FROM) && d.isBefore(TO)) {
+				sum += s.getBaseSalary();
+			}
+		}
+		return sum;
+	}
+}
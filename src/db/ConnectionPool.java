@@ -0,0 +1,366 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pool de conexões limitado e thread-safe.
+// Cada thread empresta uma conexão (borrow), usa e devolve (release),
+// assim várias operações rodam em paralelo em sessões diferentes do banco.
+public class ConnectionPool {
+
+	// Guarda a conexão física e os instantes usados para expirar ela
+	private static class PooledConnection {
+		final Connection conn;
+		final StatementCache statements;
+		final long createdAt;
+		volatile long lastUsedAt;
+		// true enquanto está emprestada; impede que a mesma conexão seja devolvida duas vezes
+		final AtomicBoolean inUse = new AtomicBoolean();
+
+		PooledConnection(Connection conn, int statementCacheSize) {
+			this.conn = conn;
+			this.statements = new StatementCache(statementCacheSize);
+			this.createdAt = System.currentTimeMillis();
+			this.lastUsedAt = createdAt;
+		}
+	}
+
+	private final String url;
+	private final Properties connectionProps;
+
+	private final int minSize;
+	private final int maxSize;
+	private final long borrowTimeoutMillis;
+	private final boolean validateOnBorrow;
+	private final int validationTimeoutSeconds;
+	private final long idleTimeoutMillis;
+	private final long maxLifetimeMillis;
+	private final int statementCacheSize;
+
+	// Cada permissão representa uma conexão emprestada: nunca passamos de maxSize
+	private final Semaphore permits;
+	// Conexões livres; usamos como pilha (LIFO) para reaproveitar as mais "quentes"
+	private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+	// Todas as conexões abertas pelo pool (livres + emprestadas)
+	private final ConcurrentHashMap<Connection, PooledConnection> all = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService housekeeper;
+	private volatile boolean closed;
+
+	// Tempo total (nanos) gasto pelas threads para conseguir uma conexão (espera + validação/abertura)
+	private final LongAdder borrowNanos = new LongAdder();
+	// O mesmo tempo acumulado por thread (em todos os pools), lido pelas métricas dos DAOs
+	private static final ThreadLocal<long[]> THREAD_BORROW_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+	// Cria o pool a partir das propriedades do db.properties (chaves pool.*)
+	public ConnectionPool(Properties props) {
+		this(props, props.getProperty("dburl"));
+	}
+
+	// Pool para outra URL (ex.: uma réplica) com o mesmo usuário e as mesmas chaves pool.*
+	public ConnectionPool(Properties props, String url) {
+		this.url = url;
+		if (url == null) {
+			throw new DBException("Property dburl not found");
+		}
+
+		// Só repassamos ao driver o que é dele (usuário e senha)
+		this.connectionProps = new Properties();
+		copyIfPresent(props, connectionProps, "user");
+		copyIfPresent(props, connectionProps, "password");
+
+		this.minSize = intProperty(props, "pool.minSize", 2);
+		this.maxSize = intProperty(props, "pool.maxSize", 10);
+		this.borrowTimeoutMillis = longProperty(props, "pool.borrowTimeoutMillis", 30_000);
+		this.validateOnBorrow = Boolean.parseBoolean(props.getProperty("pool.validateOnBorrow", "true"));
+		this.validationTimeoutSeconds = intProperty(props, "pool.validationTimeoutSeconds", 2);
+		this.idleTimeoutMillis = longProperty(props, "pool.idleTimeoutMillis", 600_000);
+		this.maxLifetimeMillis = longProperty(props, "pool.maxLifetimeMillis", 1_800_000);
+		this.statementCacheSize = intProperty(props, "statementCache.size", 32);
+		long housekeepingMillis = longProperty(props, "pool.housekeepingMillis", 30_000);
+
+		if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+			throw new DBException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+		}
+
+		this.permits = new Semaphore(maxSize, true);
+
+		// Thread em segundo plano que remove conexões ociosas/velhas e mantém o mínimo
+		this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "db-pool-housekeeper");
+			t.setDaemon(true);
+			return t;
+		});
+		housekeeper.scheduleWithFixedDelay(this::housekeep, housekeepingMillis, housekeepingMillis,
+				TimeUnit.MILLISECONDS);
+
+		fillToMinimum();
+	}
+
+	// Empresta uma conexão; espera no máximo pool.borrowTimeoutMillis
+	public Connection borrow() {
+		if (closed) {
+			throw new DBException("Connection pool is closed");
+		}
+
+		long start = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new PoolTimeoutException("Timeout waiting for a database connection (pool.maxSize=" + maxSize + ")");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBException("Interrupted waiting for a database connection");
+		}
+
+		Connection conn = take(validateOnBorrow);
+		long waited = System.nanoTime() - start;
+		borrowNanos.add(waited);
+		THREAD_BORROW_NANOS.get()[0] += waited;
+		return conn;
+	}
+
+	// Verifica se o banco responde (health check), usando uma conexão do próprio pool
+	public boolean ping() {
+		if (closed) {
+			return false;
+		}
+		if (!permits.tryAcquire()) {
+			// Todas as conexões estão emprestadas: o banco está atendendo
+			return true;
+		}
+		try {
+			release(take(true));
+			return true;
+		} catch (DBException e) {
+			return false;
+		}
+	}
+
+	// Devolve a conexão ao pool (ou fecha, se ela não servir mais)
+	public void release(Connection conn) {
+		PooledConnection pc = all.get(conn);
+		if (pc == null) {
+			throw new DBException("Connection does not belong to this pool");
+		}
+		// Segunda devolução: entraria de novo na fila de livres e a permissão seria liberada duas vezes
+		if (!pc.inUse.compareAndSet(true, false)) {
+			throw new DBException("Connection was already released to the pool");
+		}
+
+		try {
+			boolean reusable = !closed && resetState(pc);
+			if (reusable && !isExpired(pc, System.currentTimeMillis())) {
+				pc.lastUsedAt = System.currentTimeMillis();
+				idle.offerFirst(pc);
+			} else {
+				discard(pc);
+			}
+		} finally {
+			permits.release();
+		}
+	}
+
+	// Prepara o SQL usando o cache de statements da conexão
+	public PreparedStatement prepareStatement(Connection conn, String sql, int autoGeneratedKeys)
+			throws SQLException {
+		PooledConnection pc = all.get(conn);
+		if (pc == null) {
+			return conn.prepareStatement(sql, autoGeneratedKeys);
+		}
+		return pc.statements.prepare(conn, sql, autoGeneratedKeys);
+	}
+
+	// Indica se o statement está no cache de alguma conexão do pool
+	public boolean isCached(Statement st) {
+		try {
+			PooledConnection pc = all.get(st.getConnection());
+			return pc != null && pc.statements.contains(st);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	// Indica se a conexão foi aberta por este pool
+	public boolean owns(Connection conn) {
+		return conn != null && all.containsKey(conn);
+	}
+
+	// Fecha todas as conexões livres e impede novos empréstimos;
+	// as emprestadas são fechadas quando forem devolvidas
+	public void close() {
+		closed = true;
+		housekeeper.shutdownNow();
+		PooledConnection pc;
+		while ((pc = idle.pollFirst()) != null) {
+			discard(pc);
+		}
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int getTotalConnections() {
+		return all.size();
+	}
+
+	public int getIdleConnections() {
+		return idle.size();
+	}
+
+	public int getActiveConnections() {
+		return maxSize - permits.availablePermits();
+	}
+
+	public int getWaitingThreads() {
+		return permits.getQueueLength();
+	}
+
+	public long getTotalBorrowNanos() {
+		return borrowNanos.sum();
+	}
+
+	// Tempo acumulado que a thread atual já gastou esperando conexões; a diferença
+	// entre duas leituras é a espera de quem rodou no meio
+	public static long getThreadBorrowNanos() {
+		return THREAD_BORROW_NANOS.get()[0];
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	// Pega uma conexão livre (ou abre uma nova) para quem já tem a permissão;
+	// se falhar, devolve a permissão
+	private Connection take(boolean validate) {
+		try {
+			PooledConnection pc;
+			while ((pc = idle.pollFirst()) != null) {
+				if (isUsable(pc, validate)) {
+					pc.lastUsedAt = System.currentTimeMillis();
+					pc.inUse.set(true);
+					return pc.conn;
+				}
+				// Conexão quebrada ou expirada: descarta e tenta a próxima
+				discard(pc);
+			}
+			PooledConnection opened = open();
+			opened.inUse.set(true);
+			return opened.conn;
+
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	private PooledConnection open() {
+		try {
+			PooledConnection pc = new PooledConnection(DriverManager.getConnection(url, connectionProps),
+					statementCacheSize);
+			all.put(pc.conn, pc);
+			return pc;
+		} catch (SQLException e) {
+			throw new DBException(e.getMessage());
+		}
+	}
+
+	private void discard(PooledConnection pc) {
+		all.remove(pc.conn);
+		pc.statements.close();
+		try {
+			pc.conn.close();
+		} catch (SQLException e) {
+			// A conexão já está sendo jogada fora, não há o que fazer
+		}
+	}
+
+	private boolean isExpired(PooledConnection pc, long now) {
+		return maxLifetimeMillis > 0 && now - pc.createdAt >= maxLifetimeMillis;
+	}
+
+	private boolean isUsable(PooledConnection pc, boolean validate) {
+		if (isExpired(pc, System.currentTimeMillis())) {
+			return false;
+		}
+		try {
+			return validate ? pc.conn.isValid(validationTimeoutSeconds) : !pc.conn.isClosed();
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	// Desfaz transação aberta pelo usuário antes de reaproveitar a conexão
+	private boolean resetState(PooledConnection pc) {
+		try {
+			if (pc.conn.isClosed()) {
+				return false;
+			}
+			if (!pc.conn.getAutoCommit()) {
+				pc.conn.rollback();
+				pc.conn.setAutoCommit(true);
+			}
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private void housekeep() {
+		long now = System.currentTimeMillis();
+		for (PooledConnection pc : idle) {
+			boolean tooOld = isExpired(pc, now);
+			boolean tooIdle = idleTimeoutMillis > 0 && now - pc.lastUsedAt >= idleTimeoutMillis
+					&& all.size() > minSize;
+			// remove() falha se alguém já pegou a conexão nesse meio tempo
+			if ((tooOld || tooIdle) && idle.remove(pc)) {
+				discard(pc);
+			}
+		}
+		fillToMinimum();
+	}
+
+	// Abre conexões até chegar em pool.minSize, sem nunca ultrapassar pool.maxSize
+	private void fillToMinimum() {
+		while (!closed && all.size() < minSize && permits.tryAcquire()) {
+			try {
+				idle.offerLast(open());
+			} catch (DBException e) {
+				// Banco fora do ar: tenta de novo na próxima rodada
+				return;
+			} finally {
+				permits.release();
+			}
+		}
+	}
+
+	private static void copyIfPresent(Properties from, Properties to, String key) {
+		String value = from.getProperty(key);
+		if (value != null) {
+			to.setProperty(key, value);
+		}
+	}
+
+	static int intProperty(Properties props, String key, int defaultValue) {
+		String value = props.getProperty(key);
+		return value == null ? defaultValue : Integer.parseInt(value.trim());
+	}
+
+	static long longProperty(Properties props, String key, long defaultValue) {
+		String value = props.getProperty(key);
+		return value == null ? defaultValue : Long.parseLong(value.trim());
+	}
+}
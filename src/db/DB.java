@@ -3,39 +3,220 @@ package db;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collection;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DB {
 	
-	// Guarda a conexão com o banco, pra usar sempre a mesma (singleton)
-		private static Connection conn = null;
+	// Pool de conexões compartilhado pela aplicação (criado na primeira chamada)
+		private static volatile ConnectionPool pool = null;
 
-		// Método que retorna a conexão com o banco
+		// Propriedades lidas do db.properties (user, senha, url e configurações do pool)
+		private static volatile Properties properties = null;
+
+		// Réplicas de leitura (replica.urls); vazio quando não configuradas
+		private static volatile ReplicaSet replicas = null;
+
+		// Banco do pool é MySQL/MariaDB? (null = ainda não consultado; zerado em configure)
+		private static volatile Boolean mySql = null;
+
+		// Instante (nanoTime) da última escrita da sessão desta thread, para ler o que ela mesma escreveu.
+		// A sessão é um objeto: tarefas que rodam em outra thread em nome desta (DAOs assíncronos,
+		// loader de findById) entram nela com joinSession e enxergam e atualizam o mesmo instante
+		private static final long NO_WRITE = Long.MIN_VALUE;
+		private static final long WRITING = Long.MAX_VALUE;
+		private static final ThreadLocal<AtomicLong> SESSION = ThreadLocal.withInitial(() -> new AtomicLong(NO_WRITE));
+
+		// Método que empresta uma conexão do pool; quem pega deve devolver com closeConnection(conn)
 		public static Connection getConnection() {
+			Connection conn = getPool().borrow();
+			// Conexão do primário: pode haver escrita até ela ser devolvida
+			SESSION.get().set(WRITING);
+			return conn;
+		}
 
-			// Se não existe conexão aberta, cria uma
+		// Empresta uma conexão só para consultas: de uma réplica saudável, quando houver,
+		// ou do primário (sem réplicas, todas fora do ar, ou logo depois de uma escrita desta thread)
+		public static Connection getReadConnection() {
+			ReplicaSet r = getReplicas();
+			if (r.size() > 0 && !recentlyWrote(r.getReadYourWritesMillis())) {
+				Connection conn = r.borrow();
+				if (conn != null) {
+					return conn;
+				}
+			}
+			return getPool().borrow();
+		}
+
+		// Devolve a conexão ao pool para ser reaproveitada por outra operação
+		public static void closeConnection(Connection conn) {
 			if (conn == null) {
+				return;
+			}
+			ConnectionPool p = pool;
+			ReplicaSet r = replicas;
+			if (p != null && p.owns(conn)) {
+				p.release(conn);
+				SESSION.get().compareAndSet(WRITING, System.nanoTime());
+			} else if (r != null && r.release(conn)) {
+				// Conexão de réplica devolvida ao pool dela
+			} else {
+				// Conexão de um pool já fechado (ou aberta por fora): fecha de verdade
 				try {
-					// Carrega as propriedades do arquivo (user, senha, url)
-					Properties props = loadProperties();
-					// Pega a URL do banco dentro das propriedades
-					String url = props.getProperty("dburl");
-
-					// Cria a conexão usando URL e as propriedades (user, password)
-					conn = DriverManager.getConnection(url, props);
-
+					conn.close();
 				} catch (SQLException e) {
-					// Se der erro no SQL, lança uma exceção personalizada (DBException)
 					throw new DBException(e.getMessage());
 				}
 			}
+		}
 
-			// Retorna a conexão existente ou recém criada
-			return conn;
+		// Retorna o pool, criando na primeira vez (double-checked locking)
+		public static ConnectionPool getPool() {
+			ConnectionPool p = pool;
+			if (p == null) {
+				synchronized (DB.class) {
+					p = pool;
+					if (p == null) {
+						p = new ConnectionPool(getProperties());
+						pool = p;
+					}
+				}
+			}
+			return p;
+		}
+
+		// Retorna as réplicas de leitura, criando os pools na primeira vez
+		public static ReplicaSet getReplicas() {
+			ReplicaSet r = replicas;
+			if (r == null) {
+				synchronized (DB.class) {
+					r = replicas;
+					if (r == null) {
+						r = new ReplicaSet(getProperties());
+						replicas = r;
+					}
+				}
+			}
+			return r;
+		}
+
+		// Retorna as propriedades do db.properties, carregando uma única vez
+		public static Properties getProperties() {
+			Properties props = properties;
+			if (props == null) {
+				synchronized (DB.class) {
+					props = properties;
+					if (props == null) {
+						props = loadProperties();
+						properties = props;
+					}
+				}
+			}
+			return props;
+		}
+
+		// Tamanho dos lotes (addBatch/executeBatch) usados nas operações em massa dos DAOs
+		public static int getBatchSize() {
+			return ConnectionPool.intProperty(getProperties(), "batch.size", 500);
+		}
+
+		// Linhas trazidas do banco por vez nas leituras em streaming (streamAll)
+		public static int getStreamFetchSize() {
+			return ConnectionPool.intProperty(getProperties(), "stream.fetchSize", 1000);
+		}
+
+		// Controle de concorrência otimista pela coluna Version (lido uma vez, na carga dos DAOs)
+		public static boolean isOptimisticLocking() {
+			return Boolean.parseBoolean(getProperties().getProperty("optimisticLocking.enabled", "false"));
+		}
+
+		// Coluna de data/hora da última alteração (ex.: UpdatedAt TIMESTAMP ... ON UPDATE CURRENT_TIMESTAMP),
+		// usada para buscar só o que mudou; null quando updatedAt.column não está configurada
+		public static String getUpdatedAtColumn() {
+			String column = getProperties().getProperty("updatedAt.column", "").trim();
+			if (column.isEmpty()) {
+				return null;
+			}
+			// O nome vai direto no SQL: só aceita identificadores simples
+			if (!column.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+				throw new DBException("Invalid updatedAt.column: " + column);
+			}
+			return column;
+		}
+
+		// Instante atual pelo relógio do banco (o mesmo que preenche updatedAt.column), em epoch millis
+		public static long currentTimestamp(Connection conn) throws SQLException {
+			PreparedStatement st = null;
+			ResultSet rs = null;
+			try {
+				st = prepareStatement(conn, "SELECT CURRENT_TIMESTAMP");
+				rs = st.executeQuery();
+				rs.next();
+				return rs.getTimestamp(1).getTime();
+			} finally {
+				closeResultSet(rs);
+				closeStatement(st);
+			}
+		}
+
+		// true quando o banco é MySQL ou MariaDB, pelos metadados da primeira conexão consultada.
+		// Os upserts usam INSERT ... ON DUPLICATE KEY UPDATE nesses bancos e MERGE nos outros.
+		public static boolean isMySql(Connection conn) throws SQLException {
+			Boolean result = mySql;
+			if (result == null) {
+				String product = conn.getMetaData().getDatabaseProductName();
+				result = product.equalsIgnoreCase("MySQL") || product.equalsIgnoreCase("MariaDB");
+				mySql = result;
+			}
+			return result;
+		}
+
+		// Abre uma transação se a conexão estiver em auto-commit.
+		// Retorna true quando fomos nós que abrimos (e então devemos fechar);
+		// se já existe uma transação aberta por quem chamou, participamos dela.
+		public static boolean beginTransaction(Connection conn) throws SQLException {
+			if (conn.getAutoCommit()) {
+				conn.setAutoCommit(false);
+				return true;
+			}
+			return false;
+		}
+
+		// Confirma a transação, mas só se ela foi aberta por beginTransaction
+		public static void commitTransaction(Connection conn, boolean owned) throws SQLException {
+			if (owned) {
+				conn.commit();
+			}
+		}
+
+		// Fecha a transação aberta por beginTransaction: desfaz o que não foi confirmado
+		// (depois de um commit o rollback não tem efeito) e volta para auto-commit
+		public static void endTransaction(Connection conn, boolean owned) {
+			if (conn == null || !owned) {
+				return;
+			}
+			try {
+				conn.rollback();
+				conn.setAutoCommit(true);
+			} catch (SQLException e) {
+				throw new DBException(e.getMessage());
+			}
+		}
+
+		// Troca a configuração (no lugar do db.properties) e fecha o pool atual;
+		// o próximo getConnection() cria um pool novo. Usado por benchmarks e bancos embutidos.
+		public static void configure(Properties props) {
+			synchronized (DB.class) {
+				closeConnection();
+				properties = props;
+				mySql = null;
+			}
 		}
 
 		// Método para carregar o arquivo db.properties e retornar as propriedades
@@ -56,21 +237,100 @@ public class DB {
 			}
 		}
 
-		// Método para fechar a conexão com o banco
+		// Método para fechar o pool (e os das réplicas) e todas as conexões com o banco
 		public static void closeConnection() {
-			// Só tenta fechar se a conexão existir
-			if (conn != null) {
-				try {
-					conn.close();
-				} catch (SQLException e) {
-					throw new DBException(e.getMessage());
+			ConnectionPool p;
+			ReplicaSet r;
+			synchronized (DB.class) {
+				p = pool;
+				pool = null;
+				r = replicas;
+				replicas = null;
+			}
+			// Só tenta fechar se o pool existir
+			if (p != null) {
+				p.close();
+			}
+			if (r != null) {
+				r.close();
+			}
+		}
+
+		// Sessão de leitura das próprias escritas da thread atual
+		public static AtomicLong getSession() {
+			return SESSION.get();
+		}
+
+		// A thread atual passa a usar session (capturada com getSession() na thread de quem pediu o trabalho)
+		public static void joinSession(AtomicLong session) {
+			SESSION.set(session);
+		}
+
+		// Sessão nova com a escrita mais recente de sessions: uma leitura feita em nome de todas elas
+		// (ex.: o lote do CoalescingLoader) vai para o primário se qualquer uma escreveu há pouco
+		public static AtomicLong mergeSessions(Collection<AtomicLong> sessions) {
+			long latest = NO_WRITE;
+			for (AtomicLong session : sessions) {
+				long lastWrite = session.get();
+				if (latest == NO_WRITE || lastWrite == WRITING
+						|| (lastWrite != NO_WRITE && latest != WRITING && lastWrite - latest > 0)) {
+					latest = lastWrite;
 				}
 			}
+			return new AtomicLong(latest);
+		}
+
+		// true se uma leitura iniciada em readStartedAt (System.nanoTime()) certamente enxerga as escritas
+		// de session: começou depois da última e, com réplicas, depois da janela de replica.readYourWritesMillis
+		// (antes dela a leitura pode ter ido a uma réplica atrasada)
+		public static boolean readSees(long readStartedAt, AtomicLong session) {
+			long lastWrite = session.get();
+			if (lastWrite == NO_WRITE) {
+				return true;
+			}
+			if (lastWrite == WRITING) {
+				return false;
+			}
+			ReplicaSet r = getReplicas();
+			long window = r.size() > 0 ? TimeUnit.MILLISECONDS.toNanos(Math.max(0, r.getReadYourWritesMillis())) : 0;
+			return readStartedAt - lastWrite >= window;
+		}
+
+		// true se a thread escreveu no primário há menos de windowMillis (ou ainda está escrevendo)
+		private static boolean recentlyWrote(long windowMillis) {
+			long lastWrite = SESSION.get().get();
+			if (lastWrite == NO_WRITE || windowMillis <= 0) {
+				return false;
+			}
+			return lastWrite == WRITING
+					|| System.nanoTime() - lastWrite < TimeUnit.MILLISECONDS.toNanos(windowMillis);
+		}
+
+		// Prepara o SQL reaproveitando o statement em cache da conexão (se ela for do pool)
+		public static PreparedStatement prepareStatement(Connection conn, String sql) throws SQLException {
+			return prepareStatement(conn, sql, Statement.NO_GENERATED_KEYS);
+		}
+
+		public static PreparedStatement prepareStatement(Connection conn, String sql, int autoGeneratedKeys)
+				throws SQLException {
+			ConnectionPool p = pool;
+			if (p != null && p.owns(conn)) {
+				return p.prepareStatement(conn, sql, autoGeneratedKeys);
+			}
+			ReplicaSet r = replicas;
+			ConnectionPool replica = r != null ? r.poolOf(conn) : null;
+			if (replica != null) {
+				return replica.prepareStatement(conn, sql, autoGeneratedKeys);
+			}
+			return conn.prepareStatement(sql, autoGeneratedKeys);
 		}
 
+		// Fecha o statement, a não ser que ele esteja no cache (aí continua aberto para reuso)
 		public static void closeStatement(Statement st) {
 
-			if (st != null) {
+			ConnectionPool p = pool;
+			ReplicaSet r = replicas;
+			if (st != null && !(p != null && p.isCached(st)) && !(r != null && r.isCached(st))) {
 
 				try {
 					st.close();
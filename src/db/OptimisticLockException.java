@@ -0,0 +1,13 @@
+package db;
+
+//Exceção lançada quando o UPDATE com controle de versão não encontra a linha na versão lida:
+//outra transação alterou (ou deletou) o registro depois da leitura.
+//Releia o objeto e tente de novo (veja OptimisticRetry).
+public class OptimisticLockException extends DBException {
+
+	private static final long serialVersionUID = 1L;
+
+	public OptimisticLockException(String msg) {
+		super(msg);
+	}
+}
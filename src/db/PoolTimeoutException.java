@@ -0,0 +1,12 @@
+package db;
+
+//Exceção lançada quando nenhuma conexão do pool fica livre em pool.borrowTimeoutMillis:
+//o banco está ocupado, não fora do ar.
+public class PoolTimeoutException extends DBException {
+
+	private static final long serialVersionUID = 1L;
+
+	public PoolTimeoutException(String msg) {
+		super(msg);
+	}
+}
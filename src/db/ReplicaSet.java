@@ -0,0 +1,201 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pools das réplicas de leitura (replica.urls), com balanceamento e health check.
+// Uma réplica que não conecta (ou não passa na validação) sai do rodízio até o próximo health check
+// responder; uma só ocupada (timeout do pool) continua nele. Sem réplica saudável com conexão livre,
+// borrow() devolve null e a leitura vai para o primário.
+public class ReplicaSet {
+
+	public enum Balancing {
+		ROUND_ROBIN, LEAST_OUTSTANDING
+	}
+
+	private static class Replica {
+		final ConnectionPool pool;
+		volatile boolean healthy = true;
+
+		Replica(ConnectionPool pool) {
+			this.pool = pool;
+		}
+	}
+
+	private final List<Replica> replicas;
+	private final Balancing balancing;
+	private final long readYourWritesMillis;
+	private final AtomicInteger next = new AtomicInteger();
+	private final ScheduledExecutorService healthChecker;
+
+	public ReplicaSet(Properties props) {
+		// Os pools das réplicas esperam pouco por uma conexão livre (replica.borrowTimeoutMillis): uma réplica
+		// ocupada passa a leitura para a próxima (ou para o primário) em vez de segurá-la por pool.borrowTimeoutMillis
+		Properties replicaProps = new Properties();
+		replicaProps.putAll(props);
+		replicaProps.setProperty("pool.borrowTimeoutMillis",
+				String.valueOf(ConnectionPool.longProperty(props, "replica.borrowTimeoutMillis", 50)));
+
+		List<Replica> list = new ArrayList<>();
+		for (String url : props.getProperty("replica.urls", "").split(",")) {
+			if (!url.isBlank()) {
+				list.add(new Replica(new ConnectionPool(replicaProps, url.trim())));
+			}
+		}
+		this.replicas = Collections.unmodifiableList(list);
+		this.balancing = parseBalancing(props.getProperty("replica.balancing", "leastOutstanding"));
+		this.readYourWritesMillis = ConnectionPool.longProperty(props, "replica.readYourWritesMillis", 1_000);
+
+		long healthCheckMillis = ConnectionPool.longProperty(props, "replica.healthCheckMillis", 5_000);
+		if (replicas.isEmpty() || healthCheckMillis <= 0) {
+			this.healthChecker = null;
+		} else {
+			this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "db-replica-health");
+				t.setDaemon(true);
+				return t;
+			});
+			healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckMillis, healthCheckMillis,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	// Empresta uma conexão de uma réplica saudável, ou null se não houver nenhuma
+	public Connection borrow() {
+		int n = replicas.size();
+		List<Replica> tried = new ArrayList<>(n);
+		for (int attempt = 0; attempt < n; attempt++) {
+			Replica replica = choose(tried);
+			if (replica == null) {
+				return null;
+			}
+			tried.add(replica);
+			try {
+				return replica.pool.borrow();
+			} catch (PoolTimeoutException e) {
+				// Réplica ocupada, mas no ar: continua no rodízio, tenta outra
+			} catch (DBException e) {
+				if (Thread.currentThread().isInterrupted()) {
+					throw e;
+				}
+				// Réplica fora do ar: tira do rodízio e tenta outra
+				replica.healthy = false;
+			}
+		}
+		return null;
+	}
+
+	// Devolve a conexão à réplica dona dela; false se ela não for de nenhuma réplica
+	public boolean release(Connection conn) {
+		ConnectionPool pool = poolOf(conn);
+		if (pool == null) {
+			return false;
+		}
+		pool.release(conn);
+		return true;
+	}
+
+	// Pool da réplica que abriu a conexão (null se não for de nenhuma)
+	public ConnectionPool poolOf(Connection conn) {
+		for (Replica replica : replicas) {
+			if (replica.pool.owns(conn)) {
+				return replica.pool;
+			}
+		}
+		return null;
+	}
+
+	// Indica se o statement está no cache de alguma conexão das réplicas
+	public boolean isCached(Statement st) {
+		for (Replica replica : replicas) {
+			if (replica.pool.isCached(st)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void close() {
+		if (healthChecker != null) {
+			healthChecker.shutdownNow();
+		}
+		for (Replica replica : replicas) {
+			replica.pool.close();
+		}
+	}
+
+	public int size() {
+		return replicas.size();
+	}
+
+	public int getHealthyCount() {
+		int count = 0;
+		for (Replica replica : replicas) {
+			if (replica.healthy) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// Por quanto tempo, depois de uma escrita, a mesma thread continua lendo do primário
+	public long getReadYourWritesMillis() {
+		return readYourWritesMillis;
+	}
+
+	public Balancing getBalancing() {
+		return balancing;
+	}
+
+	// Réplica saudável fora de tried, pelo balanceamento configurado
+	private Replica choose(List<Replica> tried) {
+		int n = replicas.size();
+		if (balancing == Balancing.ROUND_ROBIN) {
+			int start = Math.floorMod(next.getAndIncrement(), Math.max(n, 1));
+			for (int i = 0; i < n; i++) {
+				Replica replica = replicas.get((start + i) % n);
+				if (replica.healthy && !tried.contains(replica)) {
+					return replica;
+				}
+			}
+			return null;
+		}
+
+		// Menos conexões emprestadas no momento; o empate é desfeito pelo rodízio
+		Replica best = null;
+		int start = Math.floorMod(next.getAndIncrement(), Math.max(n, 1));
+		for (int i = 0; i < n; i++) {
+			Replica replica = replicas.get((start + i) % n);
+			if (replica.healthy && !tried.contains(replica) && (best == null
+					|| replica.pool.getActiveConnections() < best.pool.getActiveConnections())) {
+				best = replica;
+			}
+		}
+		return best;
+	}
+
+	private void checkHealth() {
+		for (Replica replica : replicas) {
+			replica.healthy = replica.pool.ping();
+		}
+	}
+
+	private static Balancing parseBalancing(String value) {
+		switch (value.trim()) {
+		case "roundRobin":
+			return Balancing.ROUND_ROBIN;
+		case "leastOutstanding":
+			return Balancing.LEAST_OUTSTANDING;
+		default:
+			throw new DBException("Invalid replica.balancing: " + value);
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Cache LRU de PreparedStatement de UMA conexão, chaveado pelo texto do SQL.
+// Evita preparar (parse + plano) o mesmo SQL a cada chamada dos DAOs.
+// Os contadores são globais (todas as conexões) para ajudar a dimensionar o cache.
+public class StatementCache {
+
+	private static final LongAdder HITS = new LongAdder();
+	private static final LongAdder MISSES = new LongAdder();
+	private static final LongAdder EVICTIONS = new LongAdder();
+
+	// Chave: SQL + se o statement devolve as chaves geradas
+	private static final class Key {
+		final String sql;
+		final int autoGeneratedKeys;
+
+		Key(String sql, int autoGeneratedKeys) {
+			this.sql = sql;
+			this.autoGeneratedKeys = autoGeneratedKeys;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(sql, autoGeneratedKeys);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+		}
+	}
+
+	private final int capacity;
+	private final LinkedHashMap<Key, PreparedStatement> statements;
+	// Para saber rápido se um statement é do cache (e não deve ser fechado)
+	private final Map<PreparedStatement, Boolean> members = new IdentityHashMap<>();
+	// ReentrantLock em vez de synchronized: prepare() pode ir ao servidor, e uma virtual
+	// thread bloqueada dentro de synchronized prende a thread de plataforma (pinning)
+	private final ReentrantLock lock = new ReentrantLock();
+
+	public StatementCache(int capacity) {
+		this.capacity = capacity;
+		// accessOrder = true: a ordem de iteração vai do menos para o mais usado
+		this.statements = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	// Devolve o statement em cache para o SQL ou prepara um novo e guarda
+	public PreparedStatement prepare(Connection conn, String sql, int autoGeneratedKeys)
+			throws SQLException {
+		lock.lock();
+		try {
+			Key key = new Key(sql, autoGeneratedKeys);
+			PreparedStatement st = statements.get(key);
+
+			if (st != null && !st.isClosed()) {
+				HITS.increment();
+				return st;
+			}
+			if (st != null) {
+				// Alguém fechou o statement por fora: descarta e prepara de novo
+				statements.remove(key);
+				members.remove(st);
+			}
+
+			MISSES.increment();
+			st = conn.prepareStatement(sql, autoGeneratedKeys);
+			if (capacity > 0) {
+				statements.put(key, st);
+				members.put(st, Boolean.TRUE);
+				evictIfNeeded();
+			}
+			return st;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Indica se o statement pertence ao cache
+	public boolean contains(Statement st) {
+		lock.lock();
+		try {
+			return members.containsKey(st);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Fecha todos os statements (usado quando a conexão é fechada)
+	public void close() {
+		lock.lock();
+		try {
+			for (PreparedStatement st : statements.values()) {
+				closeQuietly(st);
+			}
+			statements.clear();
+			members.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return statements.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void evictIfNeeded() {
+		Iterator<PreparedStatement> it = statements.values().iterator();
+		while (statements.size() > capacity && it.hasNext()) {
+			PreparedStatement eldest = it.next();
+			it.remove();
+			members.remove(eldest);
+			closeQuietly(eldest);
+			EVICTIONS.increment();
+		}
+	}
+
+	private static void closeQuietly(Statement st) {
+		try {
+			st.close();
+		} catch (SQLException e) {
+			// O statement está sendo descartado, não há o que fazer
+		}
+	}
+
+	public static long getHitCount() {
+		return HITS.sum();
+	}
+
+	public static long getMissCount() {
+		return MISSES.sum();
+	}
+
+	public static long getEvictionCount() {
+		return EVICTIONS.sum();
+	}
+
+	// Proporção de acertos (0.0 a 1.0) desde que a aplicação subiu
+	public static double getHitRatio() {
+		long hits = HITS.sum();
+		long total = hits + MISSES.sum();
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+}
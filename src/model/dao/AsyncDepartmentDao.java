@@ -0,0 +1,25 @@
+package model.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import model.entities.Department;
+
+// Versão assíncrona do DepartmentDao: cada método devolve na hora um CompletableFuture
+public interface AsyncDepartmentDao {
+
+	CompletableFuture<Void> insert(Department obj);
+	CompletableFuture<Void> update(Department obj);
+	CompletableFuture<Void> deleteById(Integer id);
+	CompletableFuture<Void> insertAll(Collection<Department> list);
+	CompletableFuture<Void> updateAll(Collection<Department> list);
+	CompletableFuture<Void> deleteByIds(Collection<Integer> ids);
+	CompletableFuture<UpsertOutcome> upsert(Department obj);
+	CompletableFuture<List<UpsertOutcome>> upsertAll(Collection<Department> list);
+	CompletableFuture<Department> findById(Integer id);
+	CompletableFuture<Map<Integer, Department>> findByIds(Collection<Integer> ids);
+	CompletableFuture<List<Department>> findAll();
+	CompletableFuture<List<Department>> findPage(Department after, int limit);
+}
@@ -0,0 +1,29 @@
+package model.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import model.entities.Department;
+import model.entities.Seller;
+
+// Versão assíncrona do SellerDao: cada método devolve na hora um CompletableFuture,
+// então consultas independentes podem rodar ao mesmo tempo
+public interface AsyncSellerDao {
+
+	CompletableFuture<Void> insert(Seller obj);
+	CompletableFuture<Void> update(Seller obj);
+	CompletableFuture<Void> deleteById(Integer id);
+	CompletableFuture<Void> insertAll(Collection<Seller> list);
+	CompletableFuture<Void> updateAll(Collection<Seller> list);
+	CompletableFuture<Void> deleteByIds(Collection<Integer> ids);
+	CompletableFuture<UpsertOutcome> upsert(Seller obj);
+	CompletableFuture<List<UpsertOutcome>> upsertAll(Collection<Seller> list);
+	CompletableFuture<Seller> findById(Integer id);
+	CompletableFuture<Map<Integer, Seller>> findByIds(Collection<Integer> ids);
+	CompletableFuture<List<Seller>> findAll();
+	CompletableFuture<List<Seller>> findByDepartment(Department department);
+	CompletableFuture<List<Seller>> findPage(Seller after, int limit);
+	CompletableFuture<List<Seller>> findByDepartmentPage(Department department, Seller after, int limit);
+}
@@ -1,6 +1,8 @@
 package model.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import model.entities.Department;
 
@@ -9,6 +11,13 @@ public interface DepartmentDao {
 	void insert(Department obj); //inserir um departamento
 	void update(Department obj); //atulizar nome do departamento
 	void deleteById(Integer id); // deletar um departamento por Id
+	void insertAll(Collection<Department> list); // inserir vários departamentos em lote (uma transação)
+	void updateAll(Collection<Department> list); // atualizar vários departamentos em lote (uma transação)
+	void deleteByIds(Collection<Integer> ids); // deletar vários departamentos em lote (uma transação)
+	UpsertOutcome upsert(Department obj); // inserir ou atualizar pelo Id (sem Id, insere) sem buscar antes
+	List<UpsertOutcome> upsertAll(Collection<Department> list); // upsert em lote (uma transação); resultados na ordem da coleção
 	Department findById(Integer id); // Selecionar um departamento por Id
+	Map<Integer, Department> findByIds(Collection<Integer> ids); // Selecionar vários departamentos por Id (ids inexistentes ficam de fora)
 	List<Department> findAll(); // Pegar todos os registros de departamento
+	List<Department> findPage(Department after, int limit); // página ordenada por (Name, Id) começando depois de after (null = primeira)
 }
@@ -0,0 +1,15 @@
+package model.dao;
+
+import model.dao.report.AgeHistogram;
+import model.dao.report.DepartmentCounts;
+import model.dao.report.SalaryStats;
+import model.dao.report.SellerColumns;
+
+// Relatórios calculados no banco (GROUP BY): só os totais trafegam, não as linhas
+public interface ReportDao {
+
+	DepartmentCounts countByDepartment(); // quantidade de sellers por departamento
+	SalaryStats salaryStatsByDepartment(); // soma/média/mínimo/máximo de BaseSalary por departamento
+	AgeHistogram ageHistogram(int bucketYears); // sellers por faixa de idade (ex.: 10 = 20-29, 30-39, ...)
+	SellerColumns loadSellerColumns(); // tabela seller inteira em colunas primitivas, para análises em memória
+}
@@ -1,6 +1,10 @@
 package model.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import model.entities.Department;
 import model.entities.Seller;
@@ -10,8 +14,18 @@ public interface SellerDao {
 	void insert(Seller obj); // inserir um vendedor
 	void update(Seller obj); // atualizar dados dos vendedores
 	void deleteById(Integer id); // deletar um vendedor
+	void insertAll(Collection<Seller> list); // inserir vários vendedores em lote (uma transação)
+	void updateAll(Collection<Seller> list); // atualizar vários vendedores em lote (uma transação)
+	void deleteByIds(Collection<Integer> ids); // deletar vários vendedores em lote (uma transação)
+	UpsertOutcome upsert(Seller obj); // inserir ou atualizar (pelo Id; sem Id, pelo Email) sem buscar antes
+	List<UpsertOutcome> upsertAll(Collection<Seller> list); // upsert em lote (uma transação); resultados na ordem da coleção
 	Seller findById(Integer id); // selecionar um vendedor por Id
+	Map<Integer, Seller> findByIds(Collection<Integer> ids); // selecionar vários vendedores por Id (ids inexistentes ficam de fora)
 	List<Seller> findAll(); // Pegar todos os registros dos vendedores
+	Stream<Seller> streamAll(); // percorrer todos os vendedores sem carregar tudo na memória (fechar o Stream no final)
+	void forEach(Consumer<? super Seller> action); // mesma leitura do streamAll, chamando action para cada vendedor
 	List<Seller> findByDepartment(Department department); // pegar todos os registros dos vendedores com os departamentos
 													      // respectivos	 
+	List<Seller> findPage(Seller after, int limit); // página ordenada por (Name, Id) começando depois de after (null = primeira)
+	List<Seller> findByDepartmentPage(Department department, Seller after, int limit); // mesma paginação filtrando pelo departamento
 }
@@ -0,0 +1,8 @@
+package model.dao;
+
+// Resultado de um upsert, por linha
+public enum UpsertOutcome {
+	INSERTED, // a linha não existia
+	UPDATED, // a linha existia e foi alterada
+	UNCHANGED // a linha existia com os mesmos valores (só o MySQL informa; veja useAffectedRows no README)
+}
@@ -0,0 +1,235 @@
+package model.dao.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Cache limitado com despejo LRU e tempo de vida (TTL) para entidades lidas por id.
+// A chave é espalhada em vários segmentos, cada um com o próprio lock,
+// assim leitores concorrentes raramente disputam o mesmo lock.
+public class EntityCache<K, V> {
+
+	private static final class Entry<V> {
+		final V value;
+		final long expiresAt;
+
+		Entry(V value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private static final class Segment<K, V> {
+		// accessOrder = true: a iteração começa pelo menos usado recentemente
+		final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+		// Aumenta a cada invalidação; impede que um load antigo grave um valor já desatualizado.
+		// Só muda com o lock do segmento; volatile para o snapshot() ler sem lock
+		volatile long invalidations;
+	}
+
+	private final Segment<K, V>[] segments;
+	private final int segmentCapacity;
+	private final long ttlMillis;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	// maxSize = máximo de entradas; ttlMillis = tempo de vida de cada entrada (0 = sem expiração)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public EntityCache(int maxSize, long ttlMillis) {
+		int count = 1;
+		while (count < 16 && count * 64 < maxSize) {
+			count <<= 1;
+		}
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment<>();
+		}
+		this.segmentCapacity = Math.max(1, maxSize / count);
+		this.ttlMillis = ttlMillis;
+	}
+
+	// Devolve o valor em cache ou null
+	public V get(K key) {
+		Segment<K, V> seg = segmentFor(key);
+		synchronized (seg) {
+			Entry<V> e = seg.map.get(key);
+			if (e != null && !isExpired(e)) {
+				hits.increment();
+				return e.value;
+			}
+			if (e != null) {
+				seg.map.remove(key);
+				expirations.increment();
+			}
+		}
+		misses.increment();
+		return null;
+	}
+
+	// Leitura com carga: se não estiver no cache chama loader (fora do lock) e guarda o resultado.
+	// Se outra thread guardou um valor nesse meio tempo, devolve o dela (todos ficam com a mesma instância).
+	// Resultados null não são guardados.
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value != null) {
+			return value;
+		}
+
+		Segment<K, V> seg = segmentFor(key);
+		long invalidationsBefore;
+		synchronized (seg) {
+			invalidationsBefore = seg.invalidations;
+		}
+
+		value = loader.apply(key);
+
+		if (value != null) {
+			synchronized (seg) {
+				// Se alguém invalidou durante a carga, o valor pode estar velho: não guarda
+				if (seg.invalidations == invalidationsBefore) {
+					Entry<V> current = seg.map.get(key);
+					if (current != null && !isExpired(current)) {
+						return current.value;
+					}
+					putLocked(seg, key, value);
+				}
+			}
+		}
+		return value;
+	}
+
+	// Contadores de invalidação dos segmentos. Quem lê do banco por fora do cache tira um snapshot
+	// ANTES da consulta e passa para putIfAbsent: o que foi invalidado nesse meio tempo não é guardado
+	public long[] snapshot() {
+		long[] snapshot = new long[segments.length];
+		for (int i = 0; i < segments.length; i++) {
+			snapshot[i] = segments[i].invalidations;
+		}
+		return snapshot;
+	}
+
+	// Como putIfAbsent(key, value), mas se a chave foi invalidada depois do snapshot o valor pode estar
+	// velho: não guarda e devolve o próprio value (que não fica compartilhado)
+	public V putIfAbsent(K key, V value, long[] snapshot) {
+		int index = segmentIndex(key);
+		Segment<K, V> seg = segments[index];
+		synchronized (seg) {
+			if (seg.invalidations != snapshot[index]) {
+				return value;
+			}
+			Entry<V> current = seg.map.get(key);
+			if (current != null && !isExpired(current)) {
+				return current.value;
+			}
+			putLocked(seg, key, value);
+			return value;
+		}
+	}
+
+	// putIfAbsent de vários valores carregados juntos (ex.: findByIds); devolve, por chave,
+	// a instância que ficou no cache ou a carregada, se a chave foi invalidada depois do snapshot
+	public Map<K, V> putAllIfAbsent(Map<K, V> values, long[] snapshot) {
+		Map<K, V> result = new HashMap<>(Math.max(16, values.size() * 4 / 3 + 1));
+		for (Map.Entry<K, V> e : values.entrySet()) {
+			result.put(e.getKey(), putIfAbsent(e.getKey(), e.getValue(), snapshot));
+		}
+		return result;
+	}
+
+	public void put(K key, V value) {
+		Segment<K, V> seg = segmentFor(key);
+		synchronized (seg) {
+			putLocked(seg, key, value);
+		}
+	}
+
+	public void invalidate(K key) {
+		Segment<K, V> seg = segmentFor(key);
+		synchronized (seg) {
+			seg.invalidations++;
+			seg.map.remove(key);
+		}
+	}
+
+	public void invalidateAll() {
+		for (Segment<K, V> seg : segments) {
+			synchronized (seg) {
+				seg.invalidations++;
+				seg.map.clear();
+			}
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> seg : segments) {
+			synchronized (seg) {
+				size += seg.map.size();
+			}
+		}
+		return size;
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	public long getExpirationCount() {
+		return expirations.sum();
+	}
+
+	// Proporção de acertos (0.0 a 1.0)
+	public double getHitRatio() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0.0 : (double) h / total;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityCache [size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+				+ ", hitRatio=" + String.format("%.3f", getHitRatio()) + ", evictions=" + getEvictionCount()
+				+ ", expirations=" + getExpirationCount() + "]";
+	}
+
+	private void putLocked(Segment<K, V> seg, K key, V value) {
+		long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+		seg.map.put(key, new Entry<>(value, expiresAt));
+
+		// Despeja os menos usados até voltar ao limite do segmento
+		Iterator<Map.Entry<K, Entry<V>>> it = seg.map.entrySet().iterator();
+		while (seg.map.size() > segmentCapacity && it.hasNext()) {
+			it.next();
+			it.remove();
+			evictions.increment();
+		}
+	}
+
+	private boolean isExpired(Entry<V> e) {
+		return e.expiresAt != Long.MAX_VALUE && System.currentTimeMillis() >= e.expiresAt;
+	}
+
+	private Segment<K, V> segmentFor(K key) {
+		return segments[segmentIndex(key)];
+	}
+
+	private int segmentIndex(K key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return h & (segments.length - 1);
+	}
+}
@@ -0,0 +1,145 @@
+package model.dao.cache;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import model.dao.change.ChangeEvent;
+import model.dao.change.TableVersions;
+
+// Cache de resultados de consultas (listas inteiras), pela chave da consulta + parâmetros.
+// Cada resultado guarda a soma das TableVersions das tabelas que a consulta lê: qualquer escrita
+// confirmada numa delas muda a soma e o resultado deixa de valer, sem varrer nem apagar nada.
+// Os resultados são listas imutáveis compartilhadas por quem ler: quem entrega os objetos para fora
+// (QueryCachingSellerDao, QueryCachingDepartmentDao) devolve cópias, e os guardados nunca são alterados.
+// Uma chave fria é carregada uma vez só: quem pede a mesma chave durante a carga espera por ela.
+public class QueryCache {
+
+	private static final class Result {
+		final long stamp;
+		final List<?> rows;
+
+		Result(long stamp, List<?> rows) {
+			this.stamp = stamp;
+			this.rows = rows;
+		}
+	}
+
+	// Carga em andamento de uma chave, feita com as tabelas na versão stamp
+	private static final class Loading {
+		final long stamp;
+		final CompletableFuture<List<?>> future = new CompletableFuture<>();
+
+		Loading(long stamp) {
+			this.stamp = stamp;
+		}
+	}
+
+	// LRU limitado a maxSize consultas (e TTL, para mudanças feitas por fora do processo)
+	private final EntityCache<Object, Result> results;
+	private final ConcurrentHashMap<Object, Loading> loading = new ConcurrentHashMap<>();
+	private final long settleMillis;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder joined = new LongAdder();
+
+	// settleMillis: logo depois de uma escrita, o resultado é lido mas não guardado por esse tempo
+	// (com réplicas, a leitura pode vir de uma que ainda não recebeu a escrita)
+	public QueryCache(int maxSize, long ttlMillis, long settleMillis) {
+		this.results = new EntityCache<>(maxSize, ttlMillis);
+		this.settleMillis = settleMillis;
+	}
+
+	// Resultado da consulta key, que lê as tabelas tables; loader roda a consulta no banco
+	@SuppressWarnings("unchecked")
+	public <T> List<T> get(Object key, Supplier<? extends List<T>> loader, ChangeEvent.Table... tables) {
+		long stamp = TableVersions.stamp(tables);
+		Result cached = results.get(key);
+		if (cached != null && cached.stamp == stamp) {
+			hits.increment();
+			return (List<T>) cached.rows;
+		}
+		misses.increment();
+
+		// Uma carga da mesma versão (ou de uma mais nova) já em andamento serve; uma mais velha não
+		Loading mine = new Loading(stamp);
+		Loading current = loading.compute(key, (k, l) -> l != null && l.stamp >= stamp ? l : mine);
+		if (current != mine) {
+			joined.increment();
+			return (List<T>) join(current.future);
+		}
+
+		try {
+			boolean settled = TableVersions.millisSinceChange(tables) >= settleMillis;
+			List<T> rows = List.copyOf(loader.get());
+			// Se alguma tabela mudou durante a carga, o stamp já é velho e o resultado nunca será usado
+			if (settled) {
+				results.put(key, new Result(stamp, rows));
+			}
+			mine.future.complete(rows);
+			return rows;
+
+		} catch (RuntimeException e) {
+			mine.future.completeExceptionally(e);
+			throw e;
+		} finally {
+			loading.remove(key, mine);
+		}
+	}
+
+	// Descarta tudo (ex.: depois de alterar o banco por fora dos DAOs)
+	public void invalidateAll() {
+		results.invalidateAll();
+	}
+
+	public int size() {
+		return results.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	// Misses que esperaram a carga de outra thread em vez de ir ao banco
+	public long getJoinedCount() {
+		return joined.sum();
+	}
+
+	public long getEvictionCount() {
+		return results.getEvictionCount();
+	}
+
+	// Proporção de acertos (0.0 a 1.0)
+	public double getHitRatio() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0.0 : (double) h / total;
+	}
+
+	@Override
+	public String toString() {
+		return "QueryCache [size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+				+ ", joined=" + getJoinedCount() + ", hitRatio=" + String.format("%.3f", getHitRatio())
+				+ ", evictions=" + getEvictionCount() + "]";
+	}
+
+	// Espera a carga de outra thread, com as exceções do DAO repassadas como estão
+	private static List<?> join(CompletableFuture<List<?>> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package model.dao.change;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Alterações feitas numa transação ainda aberta: só vão para o ChangeFeed depois do
+// COMMIT (publishTo); num rollback são descartadas (clear), e nada que foi desfeito é publicado.
+// Usado pela UnitOfWork, que passa o mesmo buffer para os DAOs presos à conexão dela.
+// Também guarda as tabelas e os ids alterados: as TableVersions só sobem no commit, e quem
+// confirma a transação invalida os caches desses ids (getChangedIds) depois dele.
+public class ChangeBuffer {
+
+	private final List<ChangeEvent> events = new ArrayList<>();
+	private final EnumSet<ChangeEvent.Table> tables = EnumSet.noneOf(ChangeEvent.Table.class);
+	private final Map<ChangeEvent.Table, Set<Integer>> ids = new EnumMap<>(ChangeEvent.Table.class);
+
+	public void add(ChangeEvent event) {
+		events.add(event);
+	}
+
+	// Tabela alterada na transação (com ou sem assinantes no ChangeFeed)
+	public void touch(ChangeEvent.Table table) {
+		tables.add(table);
+	}
+
+	// Linha id da tabela gravada na transação
+	public void touch(ChangeEvent.Table table, Integer id) {
+		tables.add(table);
+		if (id != null) {
+			ids.computeIfAbsent(table, t -> new LinkedHashSet<>()).add(id);
+		}
+	}
+
+	// Ids da tabela gravados na transação (até publishTo ou clear)
+	public Set<Integer> getChangedIds(ChangeEvent.Table table) {
+		Set<Integer> changed = ids.get(table);
+		return changed != null ? changed : Set.of();
+	}
+
+	// Publica tudo, na ordem em que foi gravado, sobe a versão das tabelas alteradas e esvazia o buffer
+	public void publishTo(ChangeFeed feed) {
+		for (ChangeEvent.Table table : tables) {
+			TableVersions.bump(table);
+		}
+		for (ChangeEvent event : events) {
+			feed.publish(event);
+		}
+		clear();
+	}
+
+	public void clear() {
+		events.clear();
+		tables.clear();
+		ids.clear();
+	}
+
+	public int size() {
+		return events.size();
+	}
+}
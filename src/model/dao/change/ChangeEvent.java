@@ -0,0 +1,110 @@
+package model.dao.change;
+
+import model.entities.Department;
+import model.entities.Seller;
+
+// Uma alteração gravada no banco, na ordem em que foi publicada no ChangeFeed (getSequence).
+// INSERT/UPDATE trazem o estado gravado (cópia: alterar o objeto depois não muda o evento);
+// DELETE traz só o id, que pode nem existir mais (deleteByIds ignora ids inexistentes).
+// GAP não é uma alteração: o assinante ficou para trás e perdeu eventos, e deve recarregar
+// tudo do banco (findAll) antes de continuar aplicando os próximos.
+public class ChangeEvent {
+
+	public enum Table {
+		SELLER, DEPARTMENT
+	}
+
+	public enum Operation {
+		INSERT, UPDATE, DELETE, GAP
+	}
+
+	private final long sequence;
+	private final Table table;
+	private final Operation operation;
+	private final int id;
+	private final Object entity;
+	private final long timestamp;
+
+	private ChangeEvent(long sequence, Table table, Operation operation, int id, Object entity, long timestamp) {
+		this.sequence = sequence;
+		this.table = table;
+		this.operation = operation;
+		this.id = id;
+		this.entity = entity;
+		this.timestamp = timestamp;
+	}
+
+	public static ChangeEvent of(Operation operation, Seller obj) {
+		return new ChangeEvent(-1, Table.SELLER, operation, obj.getId(), copy(obj), System.currentTimeMillis());
+	}
+
+	public static ChangeEvent of(Operation operation, Department obj) {
+		return new ChangeEvent(-1, Table.DEPARTMENT, operation, obj.getId(), copy(obj), System.currentTimeMillis());
+	}
+
+	public static ChangeEvent deleted(Table table, int id) {
+		return new ChangeEvent(-1, table, Operation.DELETE, id, null, System.currentTimeMillis());
+	}
+
+	static ChangeEvent gap(long sequence) {
+		return new ChangeEvent(sequence, null, Operation.GAP, 0, null, System.currentTimeMillis());
+	}
+
+	// Mesmo evento com a posição no feed (atribuída na publicação)
+	ChangeEvent withSequence(long sequence) {
+		return new ChangeEvent(sequence, table, operation, id, entity, timestamp);
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	// null em GAP
+	public Table getTable() {
+		return table;
+	}
+
+	public Operation getOperation() {
+		return operation;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	// Instante da publicação (epoch millis)
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	// Estado gravado do seller (INSERT/UPDATE de SELLER), ou null; cada chamada devolve uma cópia
+	public Seller getSeller() {
+		return entity instanceof Seller ? copy((Seller) entity) : null;
+	}
+
+	// Estado gravado do departamento (INSERT/UPDATE de DEPARTMENT), ou null; cada chamada devolve uma cópia
+	public Department getDepartment() {
+		return entity instanceof Department ? copy((Department) entity) : null;
+	}
+
+	@Override
+	public String toString() {
+		return "ChangeEvent [sequence=" + sequence + ", table=" + table + ", operation=" + operation + ", id=" + id
+				+ "]";
+	}
+
+	private static Seller copy(Seller s) {
+		Seller seller = new Seller(s.getId(), s.getName(), s.getEmail(), s.getBirthDate(), s.getBaseSalary(),
+				s.getDepartment() == null ? null : copy(s.getDepartment()));
+		seller.setVersion(s.getVersion());
+		seller.markClean();
+		return seller;
+	}
+
+	private static Department copy(Department d) {
+		Department dep = new Department(d.getId(), d.getName());
+		dep.setVersion(d.getVersion());
+		dep.markClean();
+		return dep;
+	}
+}
@@ -0,0 +1,134 @@
+package model.dao.change;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Feed de alterações em memória: um ring buffer de capacity eventos, sem locks.
+// Quem publica pega a próxima posição com um getAndIncrement e grava o evento no slot
+// (posição % capacity); cada assinante tem o próprio cursor e lê na ordem das posições.
+// Quem publica nunca espera por assinante: um assinante que fica capacity eventos para trás
+// recebe um evento GAP e continua a partir dos mais novos.
+// Sem assinantes, publish() não faz nada (os DAOs nem montam o evento).
+public class ChangeFeed {
+
+	private final AtomicReferenceArray<ChangeEvent> slots;
+	private final int mask;
+	// Próxima posição a ser publicada (= quantidade de eventos publicados)
+	private final AtomicLong next = new AtomicLong();
+	private final AtomicInteger subscribers = new AtomicInteger();
+
+	// capacity é arredondada para a próxima potência de 2
+	public ChangeFeed(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be >= 1");
+		}
+		int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+	}
+
+	public boolean hasSubscribers() {
+		return subscribers.get() > 0;
+	}
+
+	// Publica o evento e devolve a posição dele no feed (-1 se não houver assinantes)
+	public long publish(ChangeEvent event) {
+		if (!hasSubscribers()) {
+			return -1;
+		}
+		long sequence = next.getAndIncrement();
+		ChangeEvent published = event.withSequence(sequence);
+		int index = (int) sequence & mask;
+		// Só grava por cima de um evento mais antigo: se outro produtor já deu a volta no
+		// buffer e gravou um mais novo no mesmo slot, este se perde (quem o esperava recebe GAP)
+		ChangeEvent current;
+		do {
+			current = slots.get(index);
+			if (current != null && current.getSequence() > sequence) {
+				return sequence;
+			}
+		} while (!slots.compareAndSet(index, current, published));
+		return sequence;
+	}
+
+	// Novo assinante: recebe só os eventos publicados daqui para frente
+	public Subscription subscribe() {
+		subscribers.incrementAndGet();
+		return new Subscription(next.get());
+	}
+
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	public long getPublishedCount() {
+		return next.get();
+	}
+
+	// Cursor de um assinante. Não é thread-safe: cada assinante consome numa thread só.
+	// Feche (close) para que os DAOs parem de publicar quando não houver mais ninguém lendo.
+	public class Subscription implements AutoCloseable {
+
+		private long cursor;
+		private long lostCount;
+		private boolean closed;
+
+		private Subscription(long cursor) {
+			this.cursor = cursor;
+		}
+
+		// Próximo evento, ou null se ainda não há nada novo
+		public ChangeEvent poll() {
+			if (closed) {
+				return null;
+			}
+			ChangeEvent event = slots.get((int) cursor & mask);
+			if (event == null || event.getSequence() < cursor) {
+				// Posição ainda não publicada (ou publicada, mas ainda não gravada no slot)
+				return null;
+			}
+			if (event.getSequence() > cursor) {
+				// O slot já foi reaproveitado: os eventos a partir do cursor se perderam.
+				// Quem receber o GAP recarrega do banco, o que já inclui tudo até aqui.
+				long resume = next.get();
+				ChangeEvent gap = ChangeEvent.gap(cursor);
+				lostCount += resume - cursor;
+				cursor = resume;
+				return gap;
+			}
+			cursor++;
+			return event;
+		}
+
+		// Passa até max eventos para action; devolve quantos foram passados
+		public int drain(Consumer<? super ChangeEvent> action, int max) {
+			int count = 0;
+			ChangeEvent event;
+			while (count < max && (event = poll()) != null) {
+				action.accept(event);
+				count++;
+			}
+			return count;
+		}
+
+		// Eventos publicados que este assinante ainda não leu
+		public long getLag() {
+			return Math.max(next.get() - cursor, 0);
+		}
+
+		// Eventos pulados por GAPs desde a assinatura
+		public long getLostCount() {
+			return lostCount;
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				subscribers.decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package model.dao.change;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import db.DB;
+import db.DBException;
+import model.dao.impl.DepartmentRegistry;
+import model.dao.impl.SellerRowMapper;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Traz para o ChangeFeed as alterações feitas fora deste processo (outra instância, SQL manual).
+// A cada poll():
+//   - sellers com updatedAt.column >= último corte (menos overlapMillis, para transações que
+//     confirmaram depois do corte) viram UPDATE; o poller não distingue insert de update,
+//     então o assinante deve tratar um UPDATE de id desconhecido como novo. Deletes de
+//     sellers feitos fora do processo não aparecem (não há linha para ler).
+//   - a tabela department (pequena) é relida e comparada com a leitura anterior:
+//     INSERT/UPDATE/DELETE conforme o que mudou.
+// Alterações feitas por este processo também são vistas aqui e chegam em dobro; aplicar o
+// mesmo estado duas vezes não muda nada. Sem assinantes o poller não consulta o banco, e
+// recomeça do zero quando alguém assina (só alterações futuras).
+public class ChangePoller implements AutoCloseable {
+
+	private static final Logger LOG = Logger.getLogger("dao.changes");
+
+	private static final String DEPARTMENTS_SQL = "SELECT Id, Name FROM department";
+
+	private static final long NOT_STARTED = Long.MIN_VALUE;
+
+	private final ChangeFeed feed;
+	private final String column;
+	private final String sellersSql;
+	private final long overlapMillis;
+	private ScheduledExecutorService scheduler;
+
+	// Corte da próxima consulta (relógio do banco); NOT_STARTED = ainda sem leitura base
+	private long since = NOT_STARTED;
+	// Sellers já publicados dentro da janela de sobreposição: id -> updatedAt
+	private final Map<Integer, Long> seen = new HashMap<>();
+	private Map<Integer, String> departments = new HashMap<>();
+
+	// column pode ser null: aí só a tabela department é acompanhada
+	public ChangePoller(ChangeFeed feed, String column, long overlapMillis) {
+		this.feed = feed;
+		this.column = column;
+		this.overlapMillis = overlapMillis;
+		this.sellersSql = column == null ? null
+				: "SELECT " + SellerRowMapper.COLUMNS + ", seller." + column + " AS ChangedAt "
+						+ "FROM seller INNER JOIN department ON seller.DepartmentId = department.Id "
+						+ "WHERE seller." + column + " >= ? "
+						+ "ORDER BY seller." + column + ", seller.Id";
+	}
+
+	// Roda poll() a cada pollMillis numa thread daemon
+	public synchronized void start(long pollMillis) {
+		if (scheduler != null) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "dao-change-poller");
+			t.setDaemon(true);
+			return t;
+		});
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				poll();
+			} catch (RuntimeException e) {
+				// Uma exceção cancelaria o agendamento: registra e tenta de novo no próximo ciclo
+				LOG.log(Level.WARNING, "Change poll failed", e);
+			}
+		}, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+	}
+
+	// Consulta o banco e publica o que mudou desde a última vez; devolve quantos eventos publicou
+	public synchronized int poll() {
+		if (!feed.hasSubscribers()) {
+			since = NOT_STARTED;
+			return 0;
+		}
+
+		Connection c = null;
+		try {
+			// Primário: numa réplica atrasada, uma linha poderia aparecer depois que o corte já passou
+			c = DB.getConnection();
+			long now = DB.currentTimestamp(c);
+			boolean baseline = since == NOT_STARTED;
+
+			int published = pollDepartments(c, baseline);
+			if (column != null && !baseline) {
+				published += pollSellers(c);
+			}
+
+			since = now - overlapMillis;
+			seen.values().removeIf(changedAt -> changedAt < since);
+			return published;
+
+		} catch (SQLException e) {
+			throw new DBException("Error polling changes: " + e.getMessage());
+		} finally {
+			DB.closeConnection(c);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	private int pollSellers(Connection c) throws SQLException {
+		PreparedStatement st = null;
+		ResultSet rs = null;
+		try {
+			st = DB.prepareStatement(c, sellersSql);
+			st.setTimestamp(1, new Timestamp(since));
+			long[] registry = DepartmentRegistry.snapshot();
+			rs = st.executeQuery();
+
+			int published = 0;
+			SellerRowMapper mapper = new SellerRowMapper(rs, registry);
+			int changedAtColumn = rs.findColumn("ChangedAt");
+			while (rs.next()) {
+				Seller seller = mapper.map(rs);
+				long changedAt = rs.getTimestamp(changedAtColumn).getTime();
+				Long previous = seen.put(seller.getId(), changedAt);
+				if (previous == null || previous != changedAt) {
+					feed.publish(ChangeEvent.of(ChangeEvent.Operation.UPDATE, seller));
+					published++;
+				}
+			}
+			return published;
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+		}
+	}
+
+	// Na primeira leitura (baseline) só guarda o estado atual, sem publicar
+	private int pollDepartments(Connection c, boolean baseline) throws SQLException {
+		PreparedStatement st = null;
+		ResultSet rs = null;
+		try {
+			st = DB.prepareStatement(c, DEPARTMENTS_SQL);
+			rs = st.executeQuery();
+
+			Map<Integer, String> current = new HashMap<>();
+			int published = 0;
+			while (rs.next()) {
+				int id = rs.getInt(1);
+				String name = rs.getString(2);
+				current.put(id, name);
+				if (baseline) {
+					continue;
+				}
+				String previous = departments.get(id);
+				if (previous == null) {
+					feed.publish(ChangeEvent.of(ChangeEvent.Operation.INSERT, new Department(id, name)));
+					published++;
+				} else if (!previous.equals(name)) {
+					feed.publish(ChangeEvent.of(ChangeEvent.Operation.UPDATE, new Department(id, name)));
+					published++;
+				}
+			}
+			if (!baseline) {
+				for (Integer id : departments.keySet()) {
+					if (!current.containsKey(id)) {
+						feed.publish(ChangeEvent.deleted(ChangeEvent.Table.DEPARTMENT, id));
+						published++;
+					}
+				}
+			}
+			departments = current;
+			return published;
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package model.dao.change;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Contador de versão por tabela: toda escrita confirmada pelos DAOs (e pela importação em massa)
+// soma 1 na tabela que alterou. Quem guardou algo lido da tabela só precisa comparar o número
+// para saber se ainda vale (é o que o QueryCache faz). Escritas feitas por fora do processo não contam.
+public final class TableVersions {
+
+	private static final int TABLES = ChangeEvent.Table.values().length;
+
+	private static final AtomicLongArray versions = new AtomicLongArray(TABLES);
+	// System.nanoTime() da última alteração de cada tabela (0 = nenhuma ainda)
+	private static final AtomicLongArray changedAt = new AtomicLongArray(TABLES);
+
+	private TableVersions() {
+	}
+
+	// Chamado depois do COMMIT; antes dele, uma leitura concorrente ainda veria o valor antigo
+	// e poderia ser guardada com a versão nova
+	public static void bump(ChangeEvent.Table table) {
+		changedAt.set(table.ordinal(), System.nanoTime());
+		versions.incrementAndGet(table.ordinal());
+	}
+
+	public static long get(ChangeEvent.Table table) {
+		return versions.get(table.ordinal());
+	}
+
+	// Soma das versões das tabelas: como cada uma só cresce, a soma muda sempre que qualquer uma mudar
+	public static long stamp(ChangeEvent.Table... tables) {
+		long stamp = 0;
+		for (ChangeEvent.Table table : tables) {
+			stamp += versions.get(table.ordinal());
+		}
+		return stamp;
+	}
+
+	// Milissegundos desde a última alteração de qualquer uma das tabelas (Long.MAX_VALUE = nenhuma)
+	public static long millisSinceChange(ChangeEvent.Table... tables) {
+		long last = 0;
+		for (ChangeEvent.Table table : tables) {
+			long at = changedAt.get(table.ordinal());
+			if (at != 0 && (last == 0 || at - last > 0)) {
+				last = at;
+			}
+		}
+		return last == 0 ? Long.MAX_VALUE : (System.nanoTime() - last) / 1_000_000;
+	}
+}
@@ -0,0 +1,207 @@
+package model.dao.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Grava a partição em grupos de linhas (layout em SellerColumnarFile): acumula até rowGroupSize
+// linhas em arrays por coluna e grava cada coluna inteira de uma vez no buffer direto.
+class ColumnarPartitionWriter implements PartitionWriter {
+
+	// Metadados de um grupo gravado, usados no índice do arquivo final
+	static class Group {
+		final long offset; // relativo ao início do arquivo da partição
+		final int rows;
+		final int minId;
+		final int maxId;
+
+		Group(long offset, int rows, int minId, int maxId) {
+			this.offset = offset;
+			this.rows = rows;
+			this.minId = minId;
+			this.maxId = maxId;
+		}
+	}
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final int rowGroupSize;
+
+	private final int[] ids;
+	private final int[] birthDates;
+	private final int[] departmentIds;
+	private final double[] salaries;
+	private final StringColumn names;
+	private final StringColumn emails;
+	private int size;
+
+	private final List<Group> groups = new ArrayList<>();
+	// Bytes já passados para o buffer (gravados ou não)
+	private long position;
+	private long rows;
+
+	ColumnarPartitionWriter(Path file, int bufferSize, int rowGroupSize) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+		// Pelo menos 8 bytes: um int/double nunca fica dividido entre duas gravações
+		this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 8));
+		this.rowGroupSize = rowGroupSize;
+		this.ids = new int[rowGroupSize];
+		this.birthDates = new int[rowGroupSize];
+		this.departmentIds = new int[rowGroupSize];
+		this.salaries = new double[rowGroupSize];
+		this.names = new StringColumn(rowGroupSize);
+		this.emails = new StringColumn(rowGroupSize);
+	}
+
+	@Override
+	public void add(int id, String name, String email, LocalDate birthDate, double baseSalary, int departmentId)
+			throws IOException {
+		ids[size] = id;
+		birthDates[size] = (int) birthDate.toEpochDay();
+		departmentIds[size] = departmentId;
+		salaries[size] = baseSalary;
+		names.add(name);
+		emails.add(email);
+		size++;
+		rows++;
+		if (size == rowGroupSize) {
+			writeGroup();
+		}
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (size > 0) {
+			writeGroup();
+		}
+		flush();
+		channel.force(false);
+	}
+
+	@Override
+	public long getRows() {
+		return rows;
+	}
+
+	List<Group> getGroups() {
+		return groups;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void writeGroup() throws IOException {
+		// Linhas chegam ordenadas por Id: o primeiro e o último são o mínimo e o máximo
+		groups.add(new Group(position, size, ids[0], ids[size - 1]));
+
+		putInt(size);
+		putInts(ids, size);
+		putInts(birthDates, size);
+		putInts(departmentIds, size);
+		putDoubles(salaries, size);
+		names.writeTo(this, size);
+		emails.writeTo(this, size);
+
+		size = 0;
+		names.clear();
+		emails.clear();
+	}
+
+	private void putInt(int value) throws IOException {
+		ensure(4);
+		buffer.putInt(value);
+		position += 4;
+	}
+
+	private void putInts(int[] values, int count) throws IOException {
+		int i = 0;
+		while (i < count) {
+			ensure(4);
+			int n = Math.min(buffer.remaining() / 4, count - i);
+			buffer.asIntBuffer().put(values, i, n);
+			buffer.position(buffer.position() + n * 4);
+			i += n;
+		}
+		position += (long) count * 4;
+	}
+
+	private void putDoubles(double[] values, int count) throws IOException {
+		int i = 0;
+		while (i < count) {
+			ensure(8);
+			int n = Math.min(buffer.remaining() / 8, count - i);
+			buffer.asDoubleBuffer().put(values, i, n);
+			buffer.position(buffer.position() + n * 8);
+			i += n;
+		}
+		position += (long) count * 8;
+	}
+
+	private void putBytes(byte[] values, int count) throws IOException {
+		int i = 0;
+		while (i < count) {
+			ensure(1);
+			int n = Math.min(buffer.remaining(), count - i);
+			buffer.put(values, i, n);
+			i += n;
+		}
+		position += count;
+	}
+
+	private void ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	// Coluna de texto de um grupo: fim (exclusivo) de cada valor + os bytes UTF-8 concatenados
+	private static class StringColumn {
+		private final int[] ends;
+		private byte[] bytes = new byte[8192];
+		private int length;
+		private int size;
+
+		StringColumn(int capacity) {
+			this.ends = new int[capacity];
+		}
+
+		void add(String value) {
+			byte[] encoded = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+			if (length + encoded.length > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + encoded.length));
+			}
+			System.arraycopy(encoded, 0, bytes, length, encoded.length);
+			length += encoded.length;
+			ends[size++] = length;
+		}
+
+		void writeTo(ColumnarPartitionWriter out, int count) throws IOException {
+			out.putInts(ends, count);
+			out.putInt(length);
+			out.putBytes(bytes, length);
+		}
+
+		void clear() {
+			size = 0;
+			length = 0;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package model.dao.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import model.dao.report.SellerColumns;
+
+// CSV (RFC 4180, UTF-8, "\n" no fim da linha) sem o cabeçalho, que é gravado uma vez só no merge.
+// Cada linha é montada num StringBuilder reaproveitado e codificada direto no buffer direto,
+// que vai para o FileChannel quando enche.
+class CsvPartitionWriter implements PartitionWriter {
+
+	static final String HEADER = "Id,Name,Email,BirthDate,BaseSalary,DepartmentId\n";
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+	private final StringBuilder line = new StringBuilder(256);
+	private long rows;
+
+	CsvPartitionWriter(Path file, int bufferSize) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+		// Pelo menos 8 bytes: um caractere UTF-8 sempre cabe no buffer vazio
+		this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 8));
+	}
+
+	@Override
+	public void add(int id, String name, String email, LocalDate birthDate, double baseSalary, int departmentId)
+			throws IOException {
+		line.setLength(0);
+		line.append(id).append(',');
+		appendField(name);
+		line.append(',');
+		appendField(email);
+		line.append(',');
+		appendDate(birthDate);
+		line.append(',').append(baseSalary).append(',');
+		// Sem departamento: campo vazio
+		if (departmentId != SellerColumns.NO_DEPARTMENT) {
+			line.append(departmentId);
+		}
+		line.append('\n');
+
+		CharBuffer chars = CharBuffer.wrap(line);
+		while (encoder.encode(chars, buffer, true) == CoderResult.OVERFLOW) {
+			flush();
+		}
+		encoder.reset();
+		rows++;
+	}
+
+	@Override
+	public void finish() throws IOException {
+		flush();
+		channel.force(false);
+	}
+
+	@Override
+	public long getRows() {
+		return rows;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	// Entre aspas só quando precisa (vírgula, aspas ou quebra de linha); aspas internas dobradas
+	private void appendField(String value) {
+		if (value == null) {
+			return;
+		}
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char ch = value.charAt(i);
+			quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+		}
+		if (!quote) {
+			line.append(value);
+			return;
+		}
+		line.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char ch = value.charAt(i);
+			if (ch == '"') {
+				line.append('"');
+			}
+			line.append(ch);
+		}
+		line.append('"');
+	}
+
+	// yyyy-MM-dd sem passar por LocalDate.toString() (uma String a menos por linha)
+	private void appendDate(LocalDate date) {
+		line.append(date.getYear()).append('-');
+		int month = date.getMonthValue();
+		if (month < 10) {
+			line.append('0');
+		}
+		line.append(month).append('-');
+		int day = date.getDayOfMonth();
+		if (day < 10) {
+			line.append('0');
+		}
+		line.append(day);
+	}
+}
@@ -0,0 +1,40 @@
+package model.dao.export;
+
+// Resumo de uma exportação
+public class ExportResult {
+
+	private final long rows;
+	private final long bytes;
+	private final int partitions;
+	private final long elapsedMillis;
+
+	public ExportResult(long rows, long bytes, int partitions, long elapsedMillis) {
+		this.rows = rows;
+		this.bytes = bytes;
+		this.partitions = partitions;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	// Tamanho do arquivo final
+	public long getBytes() {
+		return bytes;
+	}
+
+	public int getPartitions() {
+		return partitions;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "ExportResult [rows=" + rows + ", bytes=" + bytes + ", partitions=" + partitions + ", elapsedMillis="
+				+ elapsedMillis + "]";
+	}
+}
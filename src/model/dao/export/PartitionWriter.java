@@ -0,0 +1,20 @@
+package model.dao.export;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+// Grava as linhas de uma partição (faixa de Id) num arquivo próprio, que depois é juntado aos outros
+interface PartitionWriter extends AutoCloseable {
+
+	// departmentId = SellerColumns.NO_DEPARTMENT quando a coluna é NULL
+	void add(int id, String name, String email, LocalDate birthDate, double baseSalary, int departmentId)
+			throws IOException;
+
+	// Grava o que ainda está no buffer; depois disso o arquivo da partição está completo
+	void finish() throws IOException;
+
+	long getRows();
+
+	@Override
+	void close() throws IOException;
+}
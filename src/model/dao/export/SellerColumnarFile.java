@@ -0,0 +1,128 @@
+package model.dao.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import db.DBException;
+import model.dao.report.SellerColumns;
+
+// Formato colunar gerado por SellerExporter (Format.COLUMNAR), no estilo do Parquet (big-endian):
+//
+//   int MAGIC, int FORMAT_VERSION
+//   grupos de até export.rowGroupSize linhas, cada um com as colunas em sequência:
+//     int linhas (n)
+//     int[n] Id | int[n] BirthDate (dias desde 1970)
+//     int[n] DepartmentId (SellerColumns.NO_DEPARTMENT = Integer.MIN_VALUE = sem departamento)
+//     double[n] BaseSalary
+//     Name:  int[n] fim de cada valor, int tamanho, bytes UTF-8
+//     Email: idem
+//   índice: int quantidade de grupos, e para cada grupo
+//     long posição, int linhas, int menor Id, int maior Id
+//   long posição do índice, int MAGIC
+//
+// Os grupos estão em ordem de Id; o índice permite ler só os grupos de uma faixa (readRange).
+// Na versão 1 do formato, sem departamento era gravado como 0; esses arquivos ainda são lidos.
+public class SellerColumnarFile {
+
+	static final int MAGIC = 0x534C5243; // "SLRC"
+	static final int FORMAT_VERSION = 2;
+	static final int HEADER_SIZE = 8;
+	static final int TRAILER_SIZE = 12;
+	static final int INDEX_ENTRY_SIZE = 20;
+
+	private SellerColumnarFile() {
+	}
+
+	// Lê o arquivo inteiro para colunas em memória
+	public static SellerColumns read(Path file) {
+		return readRange(file, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	// Lê só as linhas com fromId <= Id <= toId, pulando os grupos fora da faixa pelo índice
+	public static SellerColumns readRange(Path file, int fromId, int toId) {
+		SellerColumns.Builder builder = new SellerColumns.Builder();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_SIZE + TRAILER_SIZE) {
+				throw new DBException("Not a seller columnar file: " + file);
+			}
+			ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_SIZE, TRAILER_SIZE);
+			if (head.getInt(0) != MAGIC || trailer.getInt(8) != MAGIC) {
+				throw new DBException("Not a seller columnar file: " + file);
+			}
+			int version = head.getInt(4);
+			if (version != FORMAT_VERSION && version != 1) {
+				throw new DBException("Unsupported columnar file version " + version + ": " + file);
+			}
+
+			long indexOffset = trailer.getLong(0);
+			ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset,
+					size - TRAILER_SIZE - indexOffset);
+			int groups = index.getInt(0);
+			for (int g = 0; g < groups; g++) {
+				int entry = 4 + g * INDEX_ENTRY_SIZE;
+				if (index.getInt(entry + 16) < fromId || index.getInt(entry + 12) > toId) {
+					continue;
+				}
+				long offset = index.getLong(entry);
+				long end = g + 1 < groups ? index.getLong(entry + INDEX_ENTRY_SIZE) : indexOffset;
+				// Cada grupo é mapeado à parte: o arquivo pode passar de 2 GB
+				readGroup(channel.map(FileChannel.MapMode.READ_ONLY, offset, end - offset), version, fromId, toId,
+						builder);
+			}
+			return builder.build();
+
+		} catch (IOException e) {
+			throw new DBException("Error reading columnar file: " + e.getMessage());
+		}
+	}
+
+	private static void readGroup(ByteBuffer group, int version, int fromId, int toId,
+			SellerColumns.Builder builder) {
+		int n = group.getInt();
+		int[] ids = ints(group, n);
+		int[] birthDates = ints(group, n);
+		int[] departmentIds = ints(group, n);
+		double[] salaries = new double[n];
+		group.asDoubleBuffer().get(salaries);
+		group.position(group.position() + n * 8);
+		String[] names = strings(group, n);
+		String[] emails = strings(group, n);
+
+		for (int i = 0; i < n; i++) {
+			if (ids[i] >= fromId && ids[i] <= toId) {
+				int departmentId = version == 1 && departmentIds[i] == 0 ? SellerColumns.NO_DEPARTMENT
+						: departmentIds[i];
+				builder.add(ids[i], names[i], emails[i], LocalDate.ofEpochDay(birthDates[i]), salaries[i],
+						departmentId);
+			}
+		}
+	}
+
+	private static int[] ints(ByteBuffer buffer, int n) {
+		int[] values = new int[n];
+		buffer.asIntBuffer().get(values);
+		buffer.position(buffer.position() + n * 4);
+		return values;
+	}
+
+	private static String[] strings(ByteBuffer buffer, int n) {
+		int[] ends = ints(buffer, n);
+		int length = buffer.getInt();
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		String[] values = new String[n];
+		int start = 0;
+		for (int i = 0; i < n; i++) {
+			values[i] = new String(bytes, start, ends[i] - start, StandardCharsets.UTF_8);
+			start = ends[i];
+		}
+		return values;
+	}
+}
@@ -0,0 +1,252 @@
+package model.dao.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import db.DB;
+import db.DBException;
+import model.dao.report.SellerColumns;
+
+// Exporta a tabela seller em paralelo: divide o intervalo de Id em partições, cada partição
+// é lida numa conexão própria do pool (de uma réplica, se houver) em streaming e gravada num
+// arquivo próprio por FileChannel com buffer direto; no final os arquivos são juntados (na ordem
+// de Id) com transferTo. As partições não são lidas na mesma transação: uma linha alterada
+// durante a exportação pode sair com o valor antigo ou o novo.
+// Crie com DaoFactory.createSellerExporter(format).
+public class SellerExporter {
+
+	public enum Format {
+		CSV, COLUMNAR
+	}
+
+	private static final String RANGE_SQL = "SELECT MIN(Id), MAX(Id) FROM seller";
+
+	private static final String PARTITION_SQL = "SELECT Id, Name, Email, BirthDate, BaseSalary, DepartmentId "
+			+ "FROM seller "
+			+ "WHERE Id >= ? AND Id < ? "
+			+ "ORDER BY Id";
+
+	private final Format format;
+	private final int partitions;
+	private final int fetchSize;
+	private final int bufferSize;
+	private final int rowGroupSize;
+
+	public SellerExporter(Format format, int partitions, int fetchSize, int bufferSize, int rowGroupSize) {
+		if (partitions < 1 || fetchSize < 1 || bufferSize < 1 || rowGroupSize < 1) {
+			throw new IllegalArgumentException("partitions, fetchSize, bufferSize and rowGroupSize must be >= 1");
+		}
+		this.format = format;
+		this.partitions = partitions;
+		this.fetchSize = fetchSize;
+		this.bufferSize = bufferSize;
+		this.rowGroupSize = rowGroupSize;
+	}
+
+	// Grava a tabela em target (substitui o arquivo, se existir)
+	public ExportResult export(Path target) {
+		long start = System.nanoTime();
+		long[] range = idRange();
+		// Faixas [from, to) de tamanho igual; nunca mais partições do que ids possíveis
+		long span = range[1] - range[0];
+		int n = (int) Math.max(1, Math.min(partitions, span));
+		long step = (span + n - 1) / n;
+
+		List<Path> parts = new ArrayList<>(n);
+		AtomicInteger threadNumber = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(n, r -> {
+			Thread t = new Thread(r, "seller-export-" + threadNumber.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			List<Future<PartitionWriter>> futures = new ArrayList<>(n);
+			for (int i = 0; i < n; i++) {
+				long from = range[0] + i * step;
+				long to = Math.min(from + step, range[1]);
+				Path part = target.resolveSibling(target.getFileName() + ".part" + i);
+				parts.add(part);
+				futures.add(executor.submit(() -> exportPartition(from, to, part)));
+			}
+
+			List<PartitionWriter> writers = new ArrayList<>(n);
+			for (Future<PartitionWriter> future : futures) {
+				writers.add(future.get());
+			}
+
+			long rows = 0;
+			for (PartitionWriter writer : writers) {
+				rows += writer.getRows();
+			}
+			long bytes = merge(target, parts, writers);
+			return new ExportResult(rows, bytes, n, (System.nanoTime() - start) / 1_000_000);
+
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof DBException) {
+				throw (DBException) cause;
+			}
+			throw new DBException("Error exporting sellers: " + cause.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBException("Export interrupted");
+		} catch (IOException e) {
+			throw new DBException("Error exporting sellers: " + e.getMessage());
+		} finally {
+			// Com falha, as outras partições são interrompidas (o FileChannel fecha ao ser interrompido)
+			executor.shutdownNow();
+			for (Path part : parts) {
+				try {
+					Files.deleteIfExists(part);
+				} catch (IOException e) {
+					// Sobra de arquivo temporário não invalida a exportação
+				}
+			}
+		}
+	}
+
+	// [menor Id, maior Id + 1); [0, 0) com a tabela vazia
+	private long[] idRange() {
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+		try {
+			c = DB.getReadConnection();
+			st = DB.prepareStatement(c, RANGE_SQL);
+			rs = st.executeQuery();
+			rs.next();
+			long min = rs.getLong(1);
+			if (rs.wasNull()) {
+				return new long[] { 0, 0 };
+			}
+			return new long[] { min, rs.getLong(2) + 1 };
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			DB.closeConnection(c);
+		}
+	}
+
+	private PartitionWriter exportPartition(long from, long to, Path part) throws IOException {
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try (PartitionWriter writer = newWriter(part)) {
+			c = DB.getReadConnection();
+			// Statement fora do cache: o fetch size é próprio da exportação
+			st = c.prepareStatement(PARTITION_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			st.setFetchSize(fetchSize);
+			st.setLong(1, from);
+			st.setLong(2, to);
+			rs = st.executeQuery();
+
+			while (rs.next()) {
+				// getInt devolve 0 para NULL: sem o wasNull, quem não tem departamento sairia com o 0
+				int departmentId = rs.getInt(6);
+				if (rs.wasNull()) {
+					departmentId = SellerColumns.NO_DEPARTMENT;
+				}
+				writer.add(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getObject(4, LocalDate.class),
+						rs.getDouble(5), departmentId);
+			}
+			writer.finish();
+			return writer;
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			DB.closeConnection(c);
+		}
+	}
+
+	private PartitionWriter newWriter(Path part) throws IOException {
+		return format == Format.CSV ? new CsvPartitionWriter(part, bufferSize)
+				: new ColumnarPartitionWriter(part, bufferSize, rowGroupSize);
+	}
+
+	// Junta as partições num arquivo temporário e troca pelo destino; devolve o tamanho final
+	private long merge(Path target, List<Path> parts, List<PartitionWriter> writers) throws IOException {
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+
+			if (format == Format.CSV) {
+				writeFully(out, ByteBuffer.wrap(CsvPartitionWriter.HEADER.getBytes(StandardCharsets.UTF_8)));
+				for (Path part : parts) {
+					append(out, part);
+				}
+			} else {
+				ByteBuffer header = ByteBuffer.allocate(SellerColumnarFile.HEADER_SIZE);
+				header.putInt(SellerColumnarFile.MAGIC).putInt(SellerColumnarFile.FORMAT_VERSION).flip();
+				writeFully(out, header);
+
+				// Posição de cada grupo no arquivo final = início da partição + posição dentro dela
+				List<long[]> index = new ArrayList<>();
+				for (int i = 0; i < parts.size(); i++) {
+					long base = out.position();
+					for (ColumnarPartitionWriter.Group g : ((ColumnarPartitionWriter) writers.get(i)).getGroups()) {
+						index.add(new long[] { base + g.offset, g.rows, g.minId, g.maxId });
+					}
+					append(out, parts.get(i));
+				}
+
+				long indexOffset = out.position();
+				ByteBuffer footer = ByteBuffer.allocate(4 + index.size() * SellerColumnarFile.INDEX_ENTRY_SIZE
+						+ SellerColumnarFile.TRAILER_SIZE);
+				footer.putInt(index.size());
+				for (long[] entry : index) {
+					footer.putLong(entry[0]).putInt((int) entry[1]).putInt((int) entry[2]).putInt((int) entry[3]);
+				}
+				footer.putLong(indexOffset).putInt(SellerColumnarFile.MAGIC).flip();
+				writeFully(out, footer);
+			}
+			out.force(true);
+		} catch (IOException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return Files.size(target);
+	}
+
+	// Copia a partição para o fim de out (transferTo: cópia feita pelo sistema, sem passar pela JVM)
+	private static void append(FileChannel out, Path part) throws IOException {
+		try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+			long size = in.size();
+			long copied = 0;
+			while (copied < size) {
+				copied += in.transferTo(copied, size - copied, out);
+			}
+		}
+	}
+
+	private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package model.dao.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import db.DB;
+import db.DBException;
+
+// Executa o trabalho JDBC dos DAOs assíncronos em virtual threads (uma por tarefa).
+// O número de tarefas usando o banco ao mesmo tempo é limitado por um semáforo do
+// tamanho do pool de conexões: as demais esperam (barato, numa virtual thread)
+// em vez de esgotar o pool e estourar pool.borrowTimeoutMillis.
+// Cada tarefa entra na sessão de leitura das próprias escritas (DB.getSession()) de quem a submeteu:
+// um findById encadeado depois de um update assíncrono lê do primário, não de uma réplica atrasada.
+public class AsyncDaoExecutor implements AutoCloseable {
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final Semaphore permits;
+
+	public AsyncDaoExecutor(int maxConcurrency) {
+		this.permits = new Semaphore(maxConcurrency);
+	}
+
+	public <T> CompletableFuture<T> supply(Supplier<T> task) {
+		AtomicLong session = DB.getSession();
+		return CompletableFuture.supplyAsync(() -> {
+			// A virtual thread é só desta tarefa e não precisa restaurar nada; os estágios dependentes
+			// (thenApply, thenCompose...) rodam nela depois e continuam na mesma sessão
+			DB.joinSession(session);
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DBException("Interrupted waiting for a database connection");
+			}
+			try {
+				return task.get();
+			} finally {
+				permits.release();
+			}
+		}, executor);
+	}
+
+	public CompletableFuture<Void> run(Runnable task) {
+		return supply(() -> {
+			task.run();
+			return null;
+		});
+	}
+
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,84 @@
+package model.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import model.dao.AsyncDepartmentDao;
+import model.dao.DepartmentDao;
+import model.dao.UpsertOutcome;
+import model.entities.Department;
+
+// Implementação do AsyncDepartmentDao que roda cada chamada do DepartmentDao síncrono
+// numa virtual thread do AsyncDaoExecutor
+public class AsyncDepartmentDaoImpl implements AsyncDepartmentDao {
+
+	private final DepartmentDao dao;
+	private final AsyncDaoExecutor executor;
+
+	public AsyncDepartmentDaoImpl(DepartmentDao dao, AsyncDaoExecutor executor) {
+		this.dao = dao;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Void> insert(Department obj) {
+		return executor.run(() -> dao.insert(obj));
+	}
+
+	@Override
+	public CompletableFuture<Void> update(Department obj) {
+		return executor.run(() -> dao.update(obj));
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteById(Integer id) {
+		return executor.run(() -> dao.deleteById(id));
+	}
+
+	@Override
+	public CompletableFuture<Void> insertAll(Collection<Department> list) {
+		return executor.run(() -> dao.insertAll(list));
+	}
+
+	@Override
+	public CompletableFuture<Void> updateAll(Collection<Department> list) {
+		return executor.run(() -> dao.updateAll(list));
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteByIds(Collection<Integer> ids) {
+		return executor.run(() -> dao.deleteByIds(ids));
+	}
+
+	@Override
+	public CompletableFuture<UpsertOutcome> upsert(Department obj) {
+		return executor.supply(() -> dao.upsert(obj));
+	}
+
+	@Override
+	public CompletableFuture<List<UpsertOutcome>> upsertAll(Collection<Department> list) {
+		return executor.supply(() -> dao.upsertAll(list));
+	}
+
+	@Override
+	public CompletableFuture<Department> findById(Integer id) {
+		return executor.supply(() -> dao.findById(id));
+	}
+
+	@Override
+	public CompletableFuture<Map<Integer, Department>> findByIds(Collection<Integer> ids) {
+		return executor.supply(() -> dao.findByIds(ids));
+	}
+
+	@Override
+	public CompletableFuture<List<Department>> findAll() {
+		return executor.supply(dao::findAll);
+	}
+
+	@Override
+	public CompletableFuture<List<Department>> findPage(Department after, int limit) {
+		return executor.supply(() -> dao.findPage(after, limit));
+	}
+}
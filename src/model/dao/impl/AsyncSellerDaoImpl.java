@@ -0,0 +1,95 @@
+package model.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import model.dao.AsyncSellerDao;
+import model.dao.SellerDao;
+import model.dao.UpsertOutcome;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Implementação do AsyncSellerDao que roda cada chamada do SellerDao síncrono
+// numa virtual thread do AsyncDaoExecutor
+public class AsyncSellerDaoImpl implements AsyncSellerDao {
+
+	private final SellerDao dao;
+	private final AsyncDaoExecutor executor;
+
+	public AsyncSellerDaoImpl(SellerDao dao, AsyncDaoExecutor executor) {
+		this.dao = dao;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Void> insert(Seller obj) {
+		return executor.run(() -> dao.insert(obj));
+	}
+
+	@Override
+	public CompletableFuture<Void> update(Seller obj) {
+		return executor.run(() -> dao.update(obj));
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteById(Integer id) {
+		return executor.run(() -> dao.deleteById(id));
+	}
+
+	@Override
+	public CompletableFuture<Void> insertAll(Collection<Seller> list) {
+		return executor.run(() -> dao.insertAll(list));
+	}
+
+	@Override
+	public CompletableFuture<Void> updateAll(Collection<Seller> list) {
+		return executor.run(() -> dao.updateAll(list));
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteByIds(Collection<Integer> ids) {
+		return executor.run(() -> dao.deleteByIds(ids));
+	}
+
+	@Override
+	public CompletableFuture<UpsertOutcome> upsert(Seller obj) {
+		return executor.supply(() -> dao.upsert(obj));
+	}
+
+	@Override
+	public CompletableFuture<List<UpsertOutcome>> upsertAll(Collection<Seller> list) {
+		return executor.supply(() -> dao.upsertAll(list));
+	}
+
+	@Override
+	public CompletableFuture<Seller> findById(Integer id) {
+		return executor.supply(() -> dao.findById(id));
+	}
+
+	@Override
+	public CompletableFuture<Map<Integer, Seller>> findByIds(Collection<Integer> ids) {
+		return executor.supply(() -> dao.findByIds(ids));
+	}
+
+	@Override
+	public CompletableFuture<List<Seller>> findAll() {
+		return executor.supply(dao::findAll);
+	}
+
+	@Override
+	public CompletableFuture<List<Seller>> findByDepartment(Department department) {
+		return executor.supply(() -> dao.findByDepartment(department));
+	}
+
+	@Override
+	public CompletableFuture<List<Seller>> findPage(Seller after, int limit) {
+		return executor.supply(() -> dao.findPage(after, limit));
+	}
+
+	@Override
+	public CompletableFuture<List<Seller>> findByDepartmentPage(Department department, Seller after, int limit) {
+		return executor.supply(() -> dao.findByDepartmentPage(department, after, limit));
+	}
+}
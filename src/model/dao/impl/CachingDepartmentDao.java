@@ -0,0 +1,170 @@
+package model.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.dao.DepartmentDao;
+import model.dao.UpsertOutcome;
+import model.dao.cache.EntityCache;
+import model.dao.change.ChangeEvent;
+import model.dao.change.TableVersions;
+import model.entities.Department;
+
+// Decorador que guarda em cache o resultado de findById.
+// Toda escrita feita por aqui invalida as entradas afetadas;
+// mudanças feitas por fora só aparecem depois do TTL do cache.
+public class CachingDepartmentDao extends ForwardingDepartmentDao {
+
+	private final EntityCache<Integer, Department> cache;
+	private final long settleMillis;
+
+	public CachingDepartmentDao(DepartmentDao delegate, EntityCache<Integer, Department> cache) {
+		this(delegate, cache, 0);
+	}
+
+	// settleMillis: logo depois de uma escrita, o que for lido do banco não entra no cache por esse tempo
+	// (com réplicas, a leitura pode vir de uma que ainda não recebeu a escrita; ver DaoFactory.getSettleMillis)
+	public CachingDepartmentDao(DepartmentDao delegate, EntityCache<Integer, Department> cache, long settleMillis) {
+		super(delegate);
+		this.cache = cache;
+		this.settleMillis = settleMillis;
+	}
+
+	public EntityCache<Integer, Department> getCache() {
+		return cache;
+	}
+
+	// Cada chamada recebe a sua cópia: a instância do cache nunca sai daqui, assim os setters
+	// (campos alterados, versão) de um chamador não aparecem para os outros
+	@Override
+	public Department findById(Integer id) {
+		if (!settled()) {
+			Department cached = cache.get(id);
+			return cached == null ? delegate.findById(id) : new Department(cached);
+		}
+		Department cached = cache.get(id, delegate::findById);
+		return cached == null ? null : new Department(cached);
+	}
+
+	// Pega do cache o que já estiver lá e busca o resto numa única chamada ao DAO
+	@Override
+	public Map<Integer, Department> findByIds(Collection<Integer> ids) {
+		Map<Integer, Department> result = new HashMap<>(Math.max(16, ids.size() * 4 / 3 + 1));
+		List<Integer> missing = new ArrayList<>();
+
+		for (Integer id : ids) {
+			Department cached = id == null ? null : cache.get(id);
+			if (cached != null) {
+				result.put(id, new Department(cached));
+			} else if (id != null) {
+				missing.add(id);
+			}
+		}
+
+		if (!missing.isEmpty() && !settled()) {
+			result.putAll(delegate.findByIds(missing));
+		} else if (!missing.isEmpty()) {
+			// Snapshot antes da consulta: linhas invalidadas por uma escrita durante a busca não entram no cache
+			long[] snapshot = cache.snapshot();
+			for (Department loaded : cache.putAllIfAbsent(delegate.findByIds(missing), snapshot).values()) {
+				result.put(loaded.getId(), new Department(loaded));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void insert(Department obj) {
+		try {
+			delegate.insert(obj);
+		} finally {
+			invalidate(obj.getId());
+		}
+	}
+
+	@Override
+	public void update(Department obj) {
+		try {
+			delegate.update(obj);
+		} finally {
+			invalidate(obj.getId());
+		}
+	}
+
+	@Override
+	public void deleteById(Integer id) {
+		try {
+			delegate.deleteById(id);
+		} finally {
+			invalidate(id);
+		}
+	}
+
+	@Override
+	public void insertAll(Collection<Department> list) {
+		try {
+			delegate.insertAll(list);
+		} finally {
+			for (Department obj : list) {
+				invalidate(obj.getId());
+			}
+		}
+	}
+
+	@Override
+	public void updateAll(Collection<Department> list) {
+		try {
+			delegate.updateAll(list);
+		} finally {
+			for (Department obj : list) {
+				invalidate(obj.getId());
+			}
+		}
+	}
+
+	@Override
+	public void deleteByIds(Collection<Integer> ids) {
+		try {
+			delegate.deleteByIds(ids);
+		} finally {
+			for (Integer id : ids) {
+				invalidate(id);
+			}
+		}
+	}
+
+	@Override
+	public UpsertOutcome upsert(Department obj) {
+		try {
+			return delegate.upsert(obj);
+		} finally {
+			invalidate(obj.getId());
+		}
+	}
+
+	@Override
+	public List<UpsertOutcome> upsertAll(Collection<Department> list) {
+		try {
+			return delegate.upsertAll(list);
+		} finally {
+			for (Department obj : list) {
+				invalidate(obj.getId());
+			}
+		}
+	}
+
+	// false logo depois de uma escrita confirmada nas tabelas lidas: o que vier do banco é devolvido sem
+	// guardar (o que já está no cache continua valendo, a escrita feita por aqui já o invalidou)
+	private boolean settled() {
+		return settleMillis <= 0 || TableVersions.millisSinceChange(ChangeEvent.Table.DEPARTMENT) >= settleMillis;
+	}
+
+	private void invalidate(Integer id) {
+		if (id != null) {
+			cache.invalidate(id);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package model.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.dao.SellerDao;
+import model.dao.UpsertOutcome;
+import model.dao.cache.EntityCache;
+import model.dao.change.ChangeEvent;
+import model.dao.change.TableVersions;
+import model.entities.Seller;
+
+// Decorador que guarda em cache o resultado de findById.
+// Toda escrita feita por aqui invalida as entradas afetadas; mudanças feitas por fora
+// (ou no Department de um Seller) só aparecem depois do TTL do cache.
+public class CachingSellerDao extends ForwardingSellerDao {
+
+	private final EntityCache<Integer, Seller> cache;
+	private final long settleMillis;
+
+	public CachingSellerDao(SellerDao delegate, EntityCache<Integer, Seller> cache) {
+		this(delegate, cache, 0);
+	}
+
+	// settleMillis: logo depois de uma escrita, o que for lido do banco não entra no cache por esse tempo
+	// (com réplicas, a leitura pode vir de uma que ainda não recebeu a escrita; ver DaoFactory.getSettleMillis)
+	public CachingSellerDao(SellerDao delegate, EntityCache<Integer, Seller> cache, long settleMillis) {
+		super(delegate);
+		this.cache = cache;
+		this.settleMillis = settleMillis;
+	}
+
+	public EntityCache<Integer, Seller> getCache() {
+		return cache;
+	}
+
+	// Cada chamada recebe a sua cópia: a instância do cache nunca sai daqui, assim os setters
+	// (campos alterados, versão) de um chamador não aparecem para os outros
+	@Override
+	public Seller findById(Integer id) {
+		if (!settled()) {
+			Seller cached = cache.get(id);
+			return cached == null ? delegate.findById(id) : new Seller(cached);
+		}
+		Seller cached = cache.get(id, delegate::findById);
+		return cached == null ? null : new Seller(cached);
+	}
+
+	// Pega do cache o que já estiver lá e busca o resto numa única chamada ao DAO
+	@Override
+	public Map<Integer, Seller> findByIds(Collection<Integer> ids) {
+		Map<Integer, Seller> result = new HashMap<>(Math.max(16, ids.size() * 4 / 3 + 1));
+		List<Integer> missing = new ArrayList<>();
+
+		for (Integer id : ids) {
+			Seller cached = id == null ? null : cache.get(id);
+			if (cached != null) {
+				result.put(id, new Seller(cached));
+			} else if (id != null) {
+				missing.add(id);
+			}
+		}
+
+		if (!missing.isEmpty() && !settled()) {
+			result.putAll(delegate.findByIds(missing));
+		} else if (!missing.isEmpty()) {
+			// Snapshot antes da consulta: linhas invalidadas por uma escrita durante a busca não entram no cache
+			long[] snapshot = cache.snapshot();
+			for (Seller loaded : cache.putAllIfAbsent(delegate.findByIds(missing), snapshot).values()) {
+				result.put(loaded.getId(), new Seller(loaded));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void insert(Seller obj) {
+		try {
+			delegate.insert(obj);
+		} finally {
+			invalidate(obj.getId());
+		}
+	}
+
+	@Override
+	public void update(Seller obj) {
+		try {
+			delegate.update(obj);
+		} finally {
+			invalidate(obj.getId());
+		}
+	}
+
+	@Override
+	public void deleteById(Integer id) {
+		try {
+			delegate.deleteById(id);
+		} finally {
+			invalidate(id);
+		}
+	}
+
+	@Override
+	public void insertAll(Collection<Seller> list) {
+		try {
+			delegate.insertAll(list);
+		} finally {
+			for (Seller obj : list) {
+				invalidate(obj.getId());
+			}
+		}
+	}
+
+	@Override
+	public void updateAll(Collection<Seller> list) {
+		try {
+			delegate.updateAll(list);
+		} finally {
+			for (Seller obj : list) {
+				invalidate(obj.getId());
+			}
+		}
+	}
+
+	@Override
+	public void deleteByIds(Collection<Integer> ids) {
+		try {
+			delegate.deleteByIds(ids);
+		} finally {
+			for (Integer id : ids) {
+				invalidate(id);
+			}
+		}
+	}
+
+	@Override
+	public UpsertOutcome upsert(Seller obj) {
+		try {
+			return delegate.upsert(obj);
+		} finally {
+			invalidate(obj.getId());
+		}
+	}
+
+	@Override
+	public List<UpsertOutcome> upsertAll(Collection<Seller> list) {
+		try {
+			return delegate.upsertAll(list);
+		} finally {
+			for (Seller obj : list) {
+				invalidate(obj.getId());
+			}
+		}
+	}
+
+	// false logo depois de uma escrita confirmada nas tabelas lidas: o que vier do banco é devolvido sem
+	// guardar (o que já está no cache continua valendo, a escrita feita por aqui já o invalidou)
+	private boolean settled() {
+		return settleMillis <= 0 || TableVersions.millisSinceChange(ChangeEvent.Table.SELLER, ChangeEvent.Table.DEPARTMENT) >= settleMillis;
+	}
+
+	private void invalidate(Integer id) {
+		if (id != null) {
+			cache.invalidate(id);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package model.dao.impl;
+
+import model.dao.DepartmentDao;
+import model.entities.Department;
+
+// Decorador que manda os findById concorrentes pelo CoalescingLoader:
+// ids pedidos ao mesmo tempo por várias threads viram um único findByIds.
+// Cada findById espera no máximo a janela do loader (loader.windowMicros).
+public class CoalescingDepartmentDao extends ForwardingDepartmentDao {
+
+	private final CoalescingLoader<Integer, Department> loader;
+
+	public CoalescingDepartmentDao(DepartmentDao delegate, CoalescingLoader<Integer, Department> loader) {
+		super(delegate);
+		this.loader = loader;
+	}
+
+	public CoalescingLoader<Integer, Department> getLoader() {
+		return loader;
+	}
+
+	@Override
+	public Department findById(Integer id) {
+		return loader.load(id);
+	}
+}
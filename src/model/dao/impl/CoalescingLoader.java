@@ -0,0 +1,197 @@
+package model.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import db.DB;
+
+// Junta pedidos por chave que chegam ao mesmo tempo (estilo DataLoader):
+// as chaves pedidas dentro de uma janela curta (ou até encher maxBatchSize) viram
+// UMA chamada ao batchLoader (ex.: findByIds), e o resultado é distribuído para quem esperava.
+// Pedidos repetidos de uma chave que já está a caminho compartilham a consulta, mas cada um recebe
+// a sua cópia do valor (copier), e ninguém entra numa consulta enviada antes da sua última escrita
+// (DB.getSession()): nesse caso a chave vai num lote novo.
+public class CoalescingLoader<K, V> {
+
+	// Pedido de uma chave, compartilhado por quem pediu a mesma chave
+	private static final class Request<V> {
+		final CompletableFuture<V> future = new CompletableFuture<>();
+		// Sessões de quem pediu enquanto o lote não foi enviado; null depois do envio
+		List<AtomicLong> sessions = new ArrayList<>();
+		// System.nanoTime() do envio ao banco
+		long dispatchedAt;
+	}
+
+	private final Function<Collection<K>, Map<K, V>> batchLoader;
+	private final UnaryOperator<V> copier;
+	private final AsyncDaoExecutor executor;
+	private final int maxBatchSize;
+	private final long windowMicros;
+
+	// Chaves já pedidas e ainda sem resposta, e as da janela atual (ainda não enviadas); protegidas por lock
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<K, Request<V>> inFlight = new HashMap<>();
+	private List<K> pending = new ArrayList<>();
+
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "dao-loader-window");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+
+	// copier: cópia entregue a cada pedido (os valores são objetos mutáveis e o lote é compartilhado)
+	public CoalescingLoader(Function<Collection<K>, Map<K, V>> batchLoader, UnaryOperator<V> copier,
+			AsyncDaoExecutor executor, int maxBatchSize, long windowMicros) {
+		this.batchLoader = batchLoader;
+		this.copier = copier;
+		this.executor = executor;
+		this.maxBatchSize = maxBatchSize;
+		this.windowMicros = windowMicros;
+	}
+
+	// Pede a chave; o future completa com uma cópia do valor (ou null se não existir)
+	public CompletableFuture<V> loadAsync(K key) {
+		requests.increment();
+		AtomicLong session = DB.getSession();
+
+		Request<V> request;
+		Map<K, Request<V>> full = null;
+		boolean first = false;
+
+		lock.lock();
+		try {
+			request = inFlight.get(key);
+			if (request != null && request.sessions != null) {
+				// Ainda na janela: o lote vai ler em nome desta sessão também
+				if (!request.sessions.contains(session)) {
+					request.sessions.add(session);
+				}
+			} else if (request == null || !DB.readSees(request.dispatchedAt, session)) {
+				// Nada a caminho, ou a consulta a caminho pode não enxergar a última escrita desta sessão
+				request = new Request<>();
+				request.sessions.add(session);
+				inFlight.put(key, request);
+				pending.add(key);
+				first = pending.size() == 1;
+				if (pending.size() >= maxBatchSize) {
+					full = takePending();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		if (full != null) {
+			dispatch(full);
+		} else if (first) {
+			// Primeira chave da janela: agenda o envio do que juntar até lá
+			timer.schedule(this::flush, windowMicros, TimeUnit.MICROSECONDS);
+		}
+		return request.future.thenApply(value -> value == null ? null : copier.apply(value));
+	}
+
+	// Versão bloqueante do loadAsync, com as exceções do DAO repassadas como estão
+	public V load(K key) {
+		try {
+			return loadAsync(key).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	public long getRequestCount() {
+		return requests.sum();
+	}
+
+	// Quantas chamadas ao batchLoader foram feitas (requests / batches = fator de redução)
+	public long getBatchCount() {
+		return batches.sum();
+	}
+
+	private void flush() {
+		Map<K, Request<V>> batch;
+		lock.lock();
+		try {
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = takePending();
+		} finally {
+			lock.unlock();
+		}
+		dispatch(batch);
+	}
+
+	// Com lock: fecha a janela atual e marca os pedidos dela como enviados agora
+	private Map<K, Request<V>> takePending() {
+		long now = System.nanoTime();
+		Map<K, Request<V>> batch = new LinkedHashMap<>();
+		for (K key : pending) {
+			Request<V> request = inFlight.get(key);
+			request.dispatchedAt = now;
+			batch.put(key, request);
+		}
+		pending = new ArrayList<>();
+		return batch;
+	}
+
+	private void dispatch(Map<K, Request<V>> batch) {
+		batches.increment();
+
+		List<AtomicLong> sessions = new ArrayList<>();
+		lock.lock();
+		try {
+			for (Request<V> request : batch.values()) {
+				sessions.addAll(request.sessions);
+				request.sessions = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+		// Lê com a escrita mais recente de quem espera: vai ao primário se algum deles acabou de escrever
+		AtomicLong session = DB.mergeSessions(sessions);
+		List<K> keys = new ArrayList<>(batch.keySet());
+
+		executor.supply(() -> {
+			DB.joinSession(session);
+			return batchLoader.apply(keys);
+		}).whenComplete((values, error) -> {
+			lock.lock();
+			try {
+				for (Map.Entry<K, Request<V>> entry : batch.entrySet()) {
+					inFlight.remove(entry.getKey(), entry.getValue());
+				}
+			} finally {
+				lock.unlock();
+			}
+			for (Map.Entry<K, Request<V>> entry : batch.entrySet()) {
+				CompletableFuture<V> future = entry.getValue().future;
+				if (error != null) {
+					future.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+				} else {
+					future.complete(values.get(entry.getKey()));
+				}
+			}
+		});
+	}
+}
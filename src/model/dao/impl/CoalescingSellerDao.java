@@ -0,0 +1,26 @@
+package model.dao.impl;
+
+import model.dao.SellerDao;
+import model.entities.Seller;
+
+// Decorador que manda os findById concorrentes pelo CoalescingLoader:
+// ids pedidos ao mesmo tempo por várias threads viram um único findByIds.
+// Cada findById espera no máximo a janela do loader (loader.windowMicros).
+public class CoalescingSellerDao extends ForwardingSellerDao {
+
+	private final CoalescingLoader<Integer, Seller> loader;
+
+	public CoalescingSellerDao(SellerDao delegate, CoalescingLoader<Integer, Seller> loader) {
+		super(delegate);
+		this.loader = loader;
+	}
+
+	public CoalescingLoader<Integer, Seller> getLoader() {
+		return loader;
+	}
+
+	@Override
+	public Seller findById(Integer id) {
+		return loader.load(id);
+	}
+}
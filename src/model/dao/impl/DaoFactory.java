@@ -1,20 +1,278 @@
 package model.dao.impl;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
 import db.DB;
+import db.ReplicaSet;
+import model.dao.AsyncDepartmentDao;
+import model.dao.AsyncSellerDao;
 import model.dao.DepartmentDao;
+import model.dao.ReportDao;
 import model.dao.SellerDao;
+import model.dao.cache.EntityCache;
+import model.dao.cache.QueryCache;
+import model.dao.change.ChangeFeed;
+import model.dao.change.ChangePoller;
+import model.dao.export.SellerExporter;
+import model.dao.importer.SellerImporter;
+import model.dao.metrics.DaoMetrics;
+import model.entities.Department;
+import model.entities.Seller;
 
 public class DaoFactory {
 	
 	/*Essa classe será responsável por inicializar as
 	 * nossas classes DAOJDBC, isso é uma boa prática
 	 * para evitar que a implementação da interface
-	 * seja exposta e fácil de manuntenção */
+	 * seja exposta e fácil de manuntenção.
+	 * Os DAOs criados aqui emprestam uma conexão do
+	 * pool (DB) a cada operação e devolvem no final */
+
+	// Caches compartilhados por todos os DAOs com cache, para que a
+	// invalidação feita por um deles valha para os outros
+	private static EntityCache<Integer, Seller> sellerCache;
+	private static EntityCache<Integer, Department> departmentCache;
+	// Resultados de findAll/findByDepartment, compartilhados pelos DAOs com cache de consulta
+	private static QueryCache queryCache;
+
+	// Executor (virtual threads) compartilhado pelos DAOs assíncronos
+	private static AsyncDaoExecutor asyncExecutor;
+
+	// Loaders compartilhados: findById de DAOs diferentes também são agrupados
+	private static CoalescingLoader<Integer, Seller> sellerLoader;
+	private static CoalescingLoader<Integer, Department> departmentLoader;
 
+	// Métricas dos DAOs (só criadas com metrics.enabled=true)
+	private static DaoMetrics metrics;
+
+	// Feed de alterações publicado pelos DAOs; volatile porque é lido a cada escrita
+	private static volatile ChangeFeed changeFeed;
+	private static ChangePoller changePoller;
+
+	// Com metrics.enabled=true, os DAOs (e todos os decoradores montados sobre eles) são medidos
 	public static SellerDao createSellerDao() {
-		return new SellerDaoJDBC(DB.getConnection());
+		SellerDao dao = new SellerDaoJDBC();
+		return isMetricsEnabled() ? new InstrumentedSellerDao(dao, getMetrics()) : dao;
 	}
 		public static DepartmentDao createDepartmentDao() {
-			return new DepartmentDaoJDBC(DB.getConnection());
+			DepartmentDao dao = new DepartmentDaoJDBC();
+			return isMetricsEnabled() ? new InstrumentedDepartmentDao(dao, getMetrics()) : dao;
+	}
+
+	// Relatórios agregados no banco (GROUP BY)
+	public static ReportDao createReportDao() {
+		return new ReportDaoJDBC();
+	}
+
+	// DAO com cache de findById (limites em cache.seller.maxSize / cache.seller.ttlMillis)
+	public static SellerDao createCachingSellerDao() {
+		return new CachingSellerDao(createSellerDao(), getSellerCache(), getSettleMillis());
+	}
+
+	// DAO com cache de findById (limites em cache.department.maxSize / cache.department.ttlMillis)
+	public static DepartmentDao createCachingDepartmentDao() {
+		return new CachingDepartmentDao(createDepartmentDao(), getDepartmentCache(), getSettleMillis());
+	}
+
+	// DAO com cache de findAll/findByDepartment, válido até a próxima escrita nas tabelas lidas
+	// (limites em cache.query.maxSize / cache.query.ttlMillis)
+	public static SellerDao createQueryCachingSellerDao() {
+		return new QueryCachingSellerDao(createSellerDao(), getQueryCache());
+	}
+
+	public static DepartmentDao createQueryCachingDepartmentDao() {
+		return new QueryCachingDepartmentDao(createDepartmentDao(), getQueryCache());
+	}
+
+	// DAO assíncrono: cada chamada roda numa virtual thread, no máximo pool.maxSize ao mesmo tempo
+	public static AsyncSellerDao createAsyncSellerDao() {
+		return new AsyncSellerDaoImpl(createSellerDao(), getAsyncExecutor());
+	}
+
+	public static AsyncDepartmentDao createAsyncDepartmentDao() {
+		return new AsyncDepartmentDaoImpl(createDepartmentDao(), getAsyncExecutor());
+	}
+
+	// DAO que agrupa findById concorrentes num único findByIds
+	// (janela em loader.windowMicros, lote máximo em loader.maxBatchSize)
+	public static SellerDao createCoalescingSellerDao() {
+		return new CoalescingSellerDao(createSellerDao(), getSellerLoader());
+	}
+
+	public static DepartmentDao createCoalescingDepartmentDao() {
+		return new CoalescingDepartmentDao(createDepartmentDao(), getDepartmentLoader());
+	}
+
+	// Exportação paralela da tabela seller (export.partitions conexões ao mesmo tempo;
+	// padrão: o menor entre pool.maxSize e a quantidade de processadores)
+	public static SellerExporter createSellerExporter(SellerExporter.Format format) {
+		Properties props = DB.getProperties();
+		String partitions = props.getProperty("export.partitions", "").trim();
+		return new SellerExporter(format,
+				partitions.isEmpty()
+						? Math.min(DB.getPool().getMaxSize(), Runtime.getRuntime().availableProcessors())
+						: Integer.parseInt(partitions),
+				Integer.parseInt(props.getProperty("export.fetchSize", "10000")),
+				Integer.parseInt(props.getProperty("export.bufferSize", "1048576")),
+				Integer.parseInt(props.getProperty("export.rowGroupSize", "65536")));
+	}
+
+	// Importação de sellers em massa a partir de CSV; cada writer segura uma conexão do pool
+	// durante a importação inteira (import.writers; padrão: o menor entre pool.maxSize e os processadores)
+	public static SellerImporter createSellerImporter() {
+		Properties props = DB.getProperties();
+		String writers = props.getProperty("import.writers", "").trim();
+		return new SellerImporter(createDepartmentDao(), getChangeFeed(),
+				writers.isEmpty()
+						? Math.min(DB.getPool().getMaxSize(), Runtime.getRuntime().availableProcessors())
+						: Integer.parseInt(writers),
+				Integer.parseInt(props.getProperty("import.batchRows", "1000")),
+				Integer.parseInt(props.getProperty("import.queueCapacity", "8")),
+				Long.parseLong(props.getProperty("import.progressMillis", "0")));
+	}
+
+	// Unidade de trabalho: uma conexão, uma transação, gravação em lotes no commit()
+	public static UnitOfWork createUnitOfWork() {
+		return new UnitOfWork();
+	}
+
+	// Roda work numa unidade de trabalho e faz o commit no final;
+	// se work lançar exceção, nada do que foi registrado é gravado
+	public static void inTransaction(Consumer<UnitOfWork> work) {
+		try (UnitOfWork uow = createUnitOfWork()) {
+			work.accept(uow);
+			uow.commit();
+		}
+	}
+
+	public static synchronized AsyncDaoExecutor getAsyncExecutor() {
+		if (asyncExecutor == null) {
+			asyncExecutor = new AsyncDaoExecutor(DB.getPool().getMaxSize());
+		}
+		return asyncExecutor;
+	}
+
+	public static boolean isMetricsEnabled() {
+		return Boolean.parseBoolean(DB.getProperties().getProperty("metrics.enabled", "false"));
+	}
+
+	// Latências, linhas e erros por operação; também exposto via JMX (metrics.jmx)
+	public static synchronized DaoMetrics getMetrics() {
+		if (metrics == null) {
+			metrics = DaoMetrics.fromProperties(DB.getProperties());
+		}
+		return metrics;
+	}
+
+	// Alterações gravadas pelos DAOs (changes.capacity eventos em memória). Com changes.pollMillis > 0,
+	// um ChangePoller também publica o que for alterado no banco por fora deste processo.
+	public static ChangeFeed getChangeFeed() {
+		ChangeFeed feed = changeFeed;
+		if (feed == null) {
+			synchronized (DaoFactory.class) {
+				feed = changeFeed;
+				if (feed == null) {
+					Properties props = DB.getProperties();
+					feed = new ChangeFeed(Integer.parseInt(props.getProperty("changes.capacity", "65536")));
+					long pollMillis = Long.parseLong(props.getProperty("changes.pollMillis", "0"));
+					if (pollMillis > 0) {
+						changePoller = new ChangePoller(feed, DB.getUpdatedAtColumn(),
+								Long.parseLong(props.getProperty("changes.pollOverlapMillis", "5000")));
+						changePoller.start(pollMillis);
+					}
+					changeFeed = feed;
+				}
+			}
+		}
+		return feed;
+	}
+
+	// null quando changes.pollMillis = 0
+	public static synchronized ChangePoller getChangePoller() {
+		getChangeFeed();
+		return changePoller;
+	}
+
+	public static synchronized EntityCache<Integer, Seller> getSellerCache() {
+		if (sellerCache == null) {
+			Properties props = DB.getProperties();
+			sellerCache = new EntityCache<>(
+					Integer.parseInt(props.getProperty("cache.seller.maxSize", "10000")),
+					Long.parseLong(props.getProperty("cache.seller.ttlMillis", "60000")));
+		}
+		return sellerCache;
+	}
+
+	public static synchronized EntityCache<Integer, Department> getDepartmentCache() {
+		if (departmentCache == null) {
+			Properties props = DB.getProperties();
+			departmentCache = new EntityCache<>(
+					Integer.parseInt(props.getProperty("cache.department.maxSize", "1000")),
+					Long.parseLong(props.getProperty("cache.department.ttlMillis", "600000")));
+		}
+		return departmentCache;
+	}
+
+	// Com réplicas, resultados lidos logo depois de uma escrita (replica.readYourWritesMillis) não são guardados
+	public static synchronized QueryCache getQueryCache() {
+		if (queryCache == null) {
+			Properties props = DB.getProperties();
+			queryCache = new QueryCache(
+					Integer.parseInt(props.getProperty("cache.query.maxSize", "256")),
+					Long.parseLong(props.getProperty("cache.query.ttlMillis", "0")),
+					getSettleMillis());
+		}
+		return queryCache;
+	}
+
+	// Por quanto tempo depois de uma escrita o que foi lido não entra em cache: com réplicas, a leitura
+	// pode ter vindo de uma que ainda não recebeu a escrita (replica.readYourWritesMillis; 0 sem réplicas)
+	public static long getSettleMillis() {
+		ReplicaSet replicas = DB.getReplicas();
+		return replicas.size() > 0 ? replicas.getReadYourWritesMillis() : 0;
+	}
+
+	// Esvazia os caches já criados e o DepartmentRegistry: depois de um commit feito por quem chamou
+	// numa conexão passada direto aos DAOs (sem UnitOfWork), ou de alterações feitas por fora
+	public static synchronized void invalidateCaches() {
+		if (sellerCache != null) {
+			sellerCache.invalidateAll();
+		}
+		if (departmentCache != null) {
+			departmentCache.invalidateAll();
+		}
+		if (queryCache != null) {
+			queryCache.invalidateAll();
+		}
+		DepartmentRegistry.clear();
+	}
+
+	public static synchronized CoalescingLoader<Integer, Seller> getSellerLoader() {
+		if (sellerLoader == null) {
+			SellerDao dao = createSellerDao();
+			sellerLoader = newLoader(dao::findByIds, Seller::new);
+		}
+		return sellerLoader;
+	}
+
+	public static synchronized CoalescingLoader<Integer, Department> getDepartmentLoader() {
+		if (departmentLoader == null) {
+			DepartmentDao dao = createDepartmentDao();
+			departmentLoader = newLoader(dao::findByIds, Department::new);
+		}
+		return departmentLoader;
+	}
+
+	private static <V> CoalescingLoader<Integer, V> newLoader(
+			Function<Collection<Integer>, Map<Integer, V>> batchLoader, UnaryOperator<V> copier) {
+		Properties props = DB.getProperties();
+		return new CoalescingLoader<>(batchLoader, copier, getAsyncExecutor(),
+				Integer.parseInt(props.getProperty("loader.maxBatchSize", String.valueOf(InClause.getChunkSize()))),
+				Long.parseLong(props.getProperty("loader.windowMicros", "2000")));
 	}
-}
\ No newline at end of file
+}
@@ -6,38 +6,118 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import db.DB;
 import db.DBException;
+import db.OptimisticLockException;
 import db.DbIntegrityException;
 import model.dao.DepartmentDao;
+import model.dao.UpsertOutcome;
+import model.dao.change.ChangeBuffer;
+import model.dao.change.ChangeEvent;
+import model.dao.change.TableVersions;
 import model.entities.Department;
 
 public class DepartmentDaoJDBC implements DepartmentDao {
 
+	// SQLs compartilhados entre as operações unitárias e as em lote
+	private static final String INSERT_SQL = "INSERT INTO department (Name) VALUES (?)";
+	// Com optimisticLocking.enabled=true todo UPDATE incrementa Version; o CHECKED_ também confere
+	// a versão lida e é usado quando o objeto veio do banco
+	private static final boolean VERSIONED = DepartmentRowMapper.VERSIONED;
+	private static final String UPDATE_SQL = "UPDATE department SET Name = ?"
+			+ (VERSIONED ? ", Version = Version + 1" : "") + " WHERE Id = ?";
+	private static final String CHECKED_UPDATE_SQL = UPDATE_SQL + " AND Version = ?";
+	private static final String DELETE_SQL = "DELETE FROM department WHERE Id = ?";
+
+	// Upsert pelo Id (departamento sem Id é sempre um INSERT comum). No MySQL, ON DUPLICATE KEY;
+	// nos outros bancos, MERGE do SQL padrão
+	private static final String UPSERT_SQL = "INSERT INTO department (Id, Name) VALUES (?, ?) "
+			+ "ON DUPLICATE KEY UPDATE Name = VALUES(Name)"
+			+ (VERSIONED ? ", Version = Version + 1" : "");
+	private static final String MERGE_SQL = "MERGE INTO department t "
+			+ "USING (VALUES (CAST(? AS INT), CAST(? AS VARCHAR))) AS s (Id, Name) ON t.Id = s.Id "
+			+ "WHEN MATCHED THEN UPDATE SET Name = s.Name"
+			+ (VERSIONED ? ", Version = t.Version + 1 " : " ")
+			+ "WHEN NOT MATCHED THEN INSERT (Id, Name) VALUES (s.Id, s.Name)";
+
+	// Linhas que o upsertAll vai tocar, travadas até o commit; o "IN (?, ?, ...)" é completado pelo InClause
+	private static final String LOCK_BY_IDS_SQL = "SELECT Id FROM department WHERE Id IN (";
+
+	private static final String FIND_BY_ID_SQL = "SELECT " + DepartmentRowMapper.COLUMNS + " FROM department WHERE Id = ?";
+	private static final String FIND_ALL_SQL = "SELECT " + DepartmentRowMapper.COLUMNS + " FROM department ORDER BY Name";
+
+	// Início da busca por vários ids; o "IN (?, ?, ...)" é completado pelo InClause
+	private static final String FIND_BY_IDS_SQL = "SELECT " + DepartmentRowMapper.COLUMNS + " FROM department WHERE Id IN (";
+
+	// Paginação por chave (keyset) em (Name, Id), sem OFFSET
+	private static final String FIRST_PAGE_SQL = "SELECT " + DepartmentRowMapper.COLUMNS + " FROM department "
+			+ "ORDER BY Name, Id LIMIT ?";
+	private static final String NEXT_PAGE_SQL = "SELECT " + DepartmentRowMapper.COLUMNS + " FROM department "
+			+ "WHERE Name > ? OR (Name = ? AND Id > ?) "
+			+ "ORDER BY Name, Id LIMIT ?";
+
+	// Conexão fixa opcional; quando nula, cada operação empresta uma do pool
 	private Connection conn;
 
-	// Construtor padrão (não recebe conexão)
+	// Construtor padrão (não recebe conexão): usa o pool do DB
 	public DepartmentDaoJDBC() {
 	}
 
-	// Construtor que recebe a conexão com o banco
+	// Alterações feitas na transação de quem chamou (conexão fixa sem auto-commit) ficam aqui
+	// até o commit; null = não são publicadas no ChangeFeed
+	private ChangeBuffer changes;
+
+	// Construtor que recebe a conexão com o banco. Se quem chamou desligar o auto-commit, o commit não é
+	// visto aqui: o DepartmentRegistry é invalidado já na escrita (uma leitura concorrente antes do commit
+	// pode guardar o nome antigo) e a versão da tabela do QueryCache não sobe. Para transações, prefira a
+	// UnitOfWork; senão, chame DaoFactory.invalidateCaches() depois do commit.
 	public DepartmentDaoJDBC(Connection conn) {
 		this.conn = conn;
 	}
 
+	// Conexão fixa cuja transação é confirmada por quem chamou (UnitOfWork), que publica changes depois do commit
+	public DepartmentDaoJDBC(Connection conn, ChangeBuffer changes) {
+		this.conn = conn;
+		this.changes = changes;
+	}
+
+	// Usa a conexão fixa, se houver, ou empresta uma do pool
+	private Connection acquire() {
+		return conn != null ? conn : DB.getConnection();
+	}
+
+	// Para as consultas: usa a conexão fixa, se houver, ou empresta uma de leitura
+	// (réplica, quando configurada em replica.urls; senão o próprio primário)
+	private Connection acquireRead() {
+		return conn != null ? conn : DB.getReadConnection();
+	}
+
+	// Devolve ao pool só as conexões emprestadas em acquire()/acquireRead()
+	private void release(Connection c) {
+		if (c != null && c != conn) {
+			DB.closeConnection(c);
+		}
+	}
+
 	// Insere um novo departamento no banco
 	@Override
 	public void insert(Department obj) {
 
+		Connection c = null;
 		PreparedStatement st = null;
 
 		try {
 			// Prepara a instrução SQL de INSERT, pedindo o retorno da chave gerada
-			st = conn.prepareStatement(
-					"INSERT INTO department (Name) VALUES (?)",
-					Statement.RETURN_GENERATED_KEYS);
+			c = acquire();
+			st = DB.prepareStatement(c, INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
 
 			// Define o valor do parâmetro (nome do departamento)
 			st.setString(1, obj.getName());
@@ -56,6 +136,12 @@ public class DepartmentDaoJDBC implements DepartmentDao {
 				}
 
 				DB.closeResultSet(rs);
+				// O objeto agora reflete o que está no banco
+				obj.markClean();
+				if (VERSIONED) {
+					obj.setVersion(0);
+				}
+				publish(inCallerTransaction(c), ChangeEvent.Operation.INSERT, obj);
 			} else {
 				throw new DBException("Unexpected error! No rows Affected!");
 			}
@@ -67,31 +153,55 @@ public class DepartmentDaoJDBC implements DepartmentDao {
 		} finally {
 			// Fecha o PreparedStatement
 			DB.closeStatement(st);
+			// Devolve a conexão ao pool
+			release(c);
 		}
 	}
 
 	// Atualiza um departamento existente no banco
 	@Override
 	public void update(Department obj) {
+		// Nenhum setter chamado desde a leitura: não há o que gravar
+		if (!obj.isDirty()) {
+			return;
+		}
 
+		Connection c = null;
 		PreparedStatement st = null;
 
 		try {
-			// Prepara a instrução SQL de UPDATE
-			st = conn.prepareStatement(
-					"UPDATE department SET Name = ? WHERE Id = ?");
+			// Prepara a instrução SQL de UPDATE (conferindo a versão, se o objeto tiver uma)
+			boolean checked = isChecked(obj);
+			c = acquire();
+			st = DB.prepareStatement(c, checked ? CHECKED_UPDATE_SQL : UPDATE_SQL);
 
 			// Define os valores (nome e id do departamento)
 			st.setString(1, obj.getName());
 			st.setInt(2, obj.getId());
+			if (checked) {
+				st.setInt(3, obj.getVersion());
+			}
 
-			// Executa o comando
-			st.executeUpdate();
+			// Executa o comando; com versão, 0 linhas = alguém alterou ou deletou antes
+			int rows = st.executeUpdate();
+			if (checked) {
+				if (rows == 0) {
+					throw conflict(obj);
+				}
+				obj.setVersion(obj.getVersion() + 1);
+			}
+			obj.markClean();
+
+			// Sellers lidos daqui pra frente passam a ver o nome novo
+			boolean callerTx = inCallerTransaction(c);
+			invalidateRegistry(callerTx, obj.getId());
+			publish(callerTx, ChangeEvent.Operation.UPDATE, obj);
 
 		} catch (SQLException e) {
-			System.out.println("Error: " + e.getMessage());
+			throw new DBException("Error: " + e.getMessage());
 		} finally {
 			DB.closeStatement(st);
+			release(c);
 		}
 	}
 
@@ -99,12 +209,13 @@ public class DepartmentDaoJDBC implements DepartmentDao {
 	@Override
 	public void deleteById(Integer id) {
 
+		Connection c = null;
 		PreparedStatement st = null;
 
 		try {
 			// Prepara a instrução SQL de DELETE
-			st = conn.prepareStatement(
-					"DELETE FROM department WHERE Id = ?");
+			c = acquire();
+			st = DB.prepareStatement(c, DELETE_SQL);
 
 			// Define o id a ser deletado
 			st.setInt(1, id);
@@ -112,6 +223,10 @@ public class DepartmentDaoJDBC implements DepartmentDao {
 			// Executa o comando
 			st.executeUpdate();
 
+			boolean callerTx = inCallerTransaction(c);
+			invalidateRegistry(callerTx, id);
+			publishDelete(callerTx, id);
+
 		} catch (SQLException e) {
 			// Se o departamento estiver relacionado com vendedores,
 			// o banco lança erro de integridade -> tratamos aqui
@@ -119,6 +234,452 @@ public class DepartmentDaoJDBC implements DepartmentDao {
 			
 		} finally {
 			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	// Insere vários departamentos em lotes de batch.size, numa única transação.
+	// Os ids gerados são gravados em cada objeto, na mesma ordem da coleção.
+	@Override
+	public void insertAll(Collection<Department> list) {
+		if (list.isEmpty()) {
+			return;
+		}
+
+		Connection c = null;
+		PreparedStatement st = null;
+		boolean ownTx = false;
+
+		try {
+			c = acquire();
+			ownTx = DB.beginTransaction(c);
+			st = DB.prepareStatement(c, INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+
+			int batchSize = DB.getBatchSize();
+			List<Department> chunk = new ArrayList<>(Math.min(batchSize, list.size()));
+
+			for (Department obj : list) {
+				st.setString(1, obj.getName());
+				st.addBatch();
+				chunk.add(obj);
+
+				if (chunk.size() == batchSize) {
+					executeInsertBatch(st, chunk);
+					chunk.clear();
+				}
+			}
+			if (!chunk.isEmpty()) {
+				executeInsertBatch(st, chunk);
+			}
+
+			DB.commitTransaction(c, ownTx);
+
+			for (Department obj : list) {
+				obj.markClean();
+				if (VERSIONED) {
+					obj.setVersion(0);
+				}
+				publish(!ownTx, ChangeEvent.Operation.INSERT, obj);
+			}
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeStatement(st);
+			DB.endTransaction(c, ownTx);
+			release(c);
+		}
+	}
+
+	// Atualiza vários departamentos em lotes, numa única transação
+	// (os que não foram alterados desde a leitura ficam de fora)
+	@Override
+	public void updateAll(Collection<Department> list) {
+		// Os que têm versão vão num lote separado, com conferência
+		List<Department> dirty = new ArrayList<>(list.size());
+		List<Department> checked = new ArrayList<>();
+		for (Department obj : list) {
+			if (obj.isDirty()) {
+				(isChecked(obj) ? checked : dirty).add(obj);
+			}
+		}
+		if (dirty.isEmpty() && checked.isEmpty()) {
+			return;
+		}
+
+		Connection c = null;
+		boolean ownTx = false;
+
+		try {
+			c = acquire();
+			ownTx = DB.beginTransaction(c);
+
+			executeUpdateBatch(c, UPDATE_SQL, dirty, false);
+			executeUpdateBatch(c, CHECKED_UPDATE_SQL, checked, true);
+
+			DB.commitTransaction(c, ownTx);
+
+			for (Department obj : checked) {
+				obj.setVersion(obj.getVersion() + 1);
+			}
+			dirty.addAll(checked);
+			for (Department obj : dirty) {
+				obj.markClean();
+				invalidateRegistry(!ownTx, obj.getId());
+				publish(!ownTx, ChangeEvent.Operation.UPDATE, obj);
+			}
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.endTransaction(c, ownTx);
+			release(c);
+		}
+	}
+
+	// Deleta vários departamentos pelo id em lotes, numa única transação
+	@Override
+	public void deleteByIds(Collection<Integer> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		Connection c = null;
+		PreparedStatement st = null;
+		boolean ownTx = false;
+
+		try {
+			c = acquire();
+			ownTx = DB.beginTransaction(c);
+			st = DB.prepareStatement(c, DELETE_SQL);
+
+			int batchSize = DB.getBatchSize();
+			int pending = 0;
+
+			for (Integer id : ids) {
+				st.setInt(1, id);
+				st.addBatch();
+
+				if (++pending == batchSize) {
+					st.executeBatch();
+					pending = 0;
+				}
+			}
+			if (pending > 0) {
+				st.executeBatch();
+			}
+
+			DB.commitTransaction(c, ownTx);
+
+			for (Integer id : ids) {
+				invalidateRegistry(!ownTx, id);
+				publishDelete(!ownTx, id);
+			}
+
+		} catch (SQLException e) {
+			// Algum departamento ainda tem vendedores: nada é deletado (rollback)
+			throw new DbIntegrityException(e.getMessage());
+		} finally {
+			DB.closeStatement(st);
+			DB.endTransaction(c, ownTx);
+			release(c);
+		}
+	}
+
+	// Insere ou atualiza pelo Id sem ler antes; sem Id é o insert comum
+	@Override
+	public UpsertOutcome upsert(Department obj) {
+		if (obj.getId() == null) {
+			insert(obj);
+			return UpsertOutcome.INSERTED;
+		}
+
+		Connection c = null;
+		PreparedStatement st = null;
+
+		try {
+			c = acquire();
+			if (!DB.isMySql(c)) {
+				return upsertAll(c, List.of(obj)).get(0);
+			}
+
+			st = DB.prepareStatement(c, UPSERT_SQL);
+			st.setInt(1, obj.getId());
+			st.setString(2, obj.getName());
+			// 1 = inserida, 2 = atualizada, 0 = já tinha esse nome
+			int rows = st.executeUpdate();
+			UpsertOutcome outcome = rows == 1 ? UpsertOutcome.INSERTED
+					: rows == 2 ? UpsertOutcome.UPDATED : UpsertOutcome.UNCHANGED;
+
+			afterUpsert(inCallerTransaction(c), obj, outcome);
+			return outcome;
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	// Upsert em lotes de batch.size, numa única transação. Os sem Id vão no lote de INSERT (ids gerados
+	// gravados nos objetos); para os com Id, as linhas que já existem são lidas com SELECT ... FOR UPDATE
+	// antes de cada lote, porque o lote reescrito pelo driver não informa o resultado de cada linha.
+	@Override
+	public List<UpsertOutcome> upsertAll(Collection<Department> list) {
+		if (list.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		Connection c = null;
+		try {
+			c = acquire();
+			return upsertAll(c, new ArrayList<>(list));
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			release(c);
+		}
+	}
+
+	private List<UpsertOutcome> upsertAll(Connection c, List<Department> departments) throws SQLException {
+		List<Department> keyed = new ArrayList<>(departments.size());
+		List<Department> added = new ArrayList<>();
+		for (Department obj : departments) {
+			(obj.getId() != null ? keyed : added).add(obj);
+		}
+
+		PreparedStatement st = null;
+		PreparedStatement insert = null;
+		boolean ownTx = false;
+
+		try {
+			ownTx = DB.beginTransaction(c);
+			int batchSize = DB.getBatchSize();
+
+			// Por identidade: equals de Department compara o Id, que os novos ainda não têm
+			Map<Department, UpsertOutcome> outcomes = new IdentityHashMap<>();
+			if (!keyed.isEmpty()) {
+				st = DB.prepareStatement(c, DB.isMySql(c) ? UPSERT_SQL : MERGE_SQL);
+				for (int from = 0; from < keyed.size(); from += batchSize) {
+					executeUpsertBatch(c, st, keyed.subList(from, Math.min(from + batchSize, keyed.size())), outcomes);
+				}
+			}
+			if (!added.isEmpty()) {
+				insert = DB.prepareStatement(c, INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+				for (int from = 0; from < added.size(); from += batchSize) {
+					List<Department> chunk = added.subList(from, Math.min(from + batchSize, added.size()));
+					for (Department obj : chunk) {
+						insert.setString(1, obj.getName());
+						insert.addBatch();
+						outcomes.put(obj, UpsertOutcome.INSERTED);
+					}
+					executeInsertBatch(insert, chunk);
+				}
+			}
+
+			DB.commitTransaction(c, ownTx);
+
+			List<UpsertOutcome> result = new ArrayList<>(departments.size());
+			for (Department obj : departments) {
+				UpsertOutcome outcome = outcomes.get(obj);
+				afterUpsert(!ownTx, obj, outcome);
+				result.add(outcome);
+			}
+			return result;
+
+		} finally {
+			DB.closeStatement(insert);
+			DB.closeStatement(st);
+			DB.endTransaction(c, ownTx);
+		}
+	}
+
+	// Escrita unitária numa conexão fixa sem auto-commit: faz parte da transação de quem chamou
+	private boolean inCallerTransaction(Connection c) throws SQLException {
+		return c == conn && !c.getAutoCommit();
+	}
+
+	// Publica a alteração no ChangeFeed (o evento só é montado se houver assinantes);
+	// dentro da transação de quem chamou, guarda em changes até o commit
+	private void publish(boolean callerTx, ChangeEvent.Operation operation, Department obj) {
+		tableChanged(callerTx, obj.getId());
+		if (DaoFactory.getChangeFeed().hasSubscribers()) {
+			publish(callerTx, ChangeEvent.of(operation, obj));
+		}
+	}
+
+	private void publishDelete(boolean callerTx, Integer id) {
+		tableChanged(callerTx, id);
+		if (DaoFactory.getChangeFeed().hasSubscribers()) {
+			publish(callerTx, ChangeEvent.deleted(ChangeEvent.Table.DEPARTMENT, id));
+		}
+	}
+
+	// Sobe a versão da tabela (TableVersions) depois do commit. Numa conexão fixa sem ChangeBuffer
+	// o commit é de quem chamou e não é visto aqui, e a versão não sobe: subir antes do commit deixaria
+	// um QueryCache concorrente guardar as linhas antigas com a versão nova. Quem confirma essa
+	// transação chama DaoFactory.invalidateCaches() depois do commit.
+	private void tableChanged(boolean callerTx, Integer id) {
+		if (!callerTx) {
+			TableVersions.bump(ChangeEvent.Table.DEPARTMENT);
+		} else if (changes != null) {
+			changes.touch(ChangeEvent.Table.DEPARTMENT, id);
+		}
+	}
+
+	// Tira o departamento do DepartmentRegistry. Na transação de quem chamou com ChangeBuffer, o id já
+	// ficou em changes (tableChanged) e a UnitOfWork invalida depois do COMMIT: feito agora, uma leitura
+	// concorrente ainda veria o nome antigo confirmado e o registraria de novo, para sempre (TTL 0)
+	private void invalidateRegistry(boolean callerTx, Integer id) {
+		if (!callerTx || changes == null) {
+			DepartmentRegistry.invalidate(id);
+		}
+	}
+
+	private void publish(boolean callerTx, ChangeEvent event) {
+		if (!callerTx) {
+			DaoFactory.getChangeFeed().publish(event);
+		} else if (changes != null) {
+			changes.add(event);
+		}
+	}
+
+	// Executa um lote de UPDATE; com checkVersion, uma linha não atualizada é conflito
+	private void executeUpdateBatch(Connection c, String sql, List<Department> list, boolean checkVersion)
+			throws SQLException {
+		if (list.isEmpty()) {
+			return;
+		}
+		PreparedStatement st = null;
+		try {
+			st = DB.prepareStatement(c, sql);
+
+			int batchSize = DB.getBatchSize();
+			int pending = 0;
+
+			for (int i = 0; i < list.size(); i++) {
+				Department obj = list.get(i);
+				st.setString(1, obj.getName());
+				st.setInt(2, obj.getId());
+				if (checkVersion) {
+					st.setInt(3, obj.getVersion());
+				}
+				st.addBatch();
+
+				if (++pending == batchSize || i == list.size() - 1) {
+					int[] counts = st.executeBatch();
+					for (int k = 0; checkVersion && k < counts.length; k++) {
+						// SUCCESS_NO_INFO: o driver não informa por linha, não há como conferir
+						if (counts[k] == 0) {
+							throw conflict(list.get(i + 1 - pending + k));
+						}
+					}
+					pending = 0;
+				}
+			}
+		} finally {
+			DB.closeStatement(st);
+		}
+	}
+
+	// Executa um lote do upsertAll (todos com Id) e guarda o resultado de cada linha em outcomes
+	private void executeUpsertBatch(Connection c, PreparedStatement st, List<Department> chunk,
+			Map<Department, UpsertOutcome> outcomes) throws SQLException {
+		List<Integer> ids = new ArrayList<>(chunk.size());
+		for (Department obj : chunk) {
+			ids.add(obj.getId());
+		}
+		Set<Integer> existing = lockIds(c, ids);
+
+		for (Department obj : chunk) {
+			st.setInt(1, obj.getId());
+			st.setString(2, obj.getName());
+			st.addBatch();
+		}
+		int[] counts = st.executeBatch();
+
+		for (int i = 0; i < chunk.size(); i++) {
+			Department obj = chunk.get(i);
+			// Na ordem do lote: o mesmo Id repetido insere na primeira vez e atualiza nas seguintes.
+			// 0 só vem do MySQL (mesmo nome); SUCCESS_NO_INFO conta como alterada
+			outcomes.put(obj, existing.add(obj.getId()) ? UpsertOutcome.INSERTED
+					: counts[i] == 0 ? UpsertOutcome.UNCHANGED : UpsertOutcome.UPDATED);
+		}
+	}
+
+	// Trava as linhas que existem com esses ids; devolve os ids encontrados
+	private Set<Integer> lockIds(Connection c, List<Integer> ids) throws SQLException {
+		Set<Integer> found = new HashSet<>();
+		int chunkSize = InClause.getChunkSize();
+
+		for (List<Integer> chunk : InClause.chunks(ids, chunkSize)) {
+			int bucket = InClause.bucketSize(chunk.size(), chunkSize);
+			PreparedStatement st = null;
+			ResultSet rs = null;
+			try {
+				st = DB.prepareStatement(c, InClause.sql("department.lockIds", bucket,
+						n -> LOCK_BY_IDS_SQL + InClause.placeholders(n) + ") FOR UPDATE"));
+				// Completa o balde repetindo o último id
+				for (int i = 0; i < bucket; i++) {
+					st.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+				}
+				rs = st.executeQuery();
+				while (rs.next()) {
+					found.add(rs.getInt(1));
+				}
+			} finally {
+				DB.closeResultSet(rs);
+				DB.closeStatement(st);
+			}
+		}
+		return found;
+	}
+
+	// Depois do commit: objeto limpo, versão, registro de nomes e evento conforme o resultado
+	private void afterUpsert(boolean callerTx, Department obj, UpsertOutcome outcome) {
+		obj.markClean();
+		if (VERSIONED) {
+			// A versão de uma linha que já existia não é lida: o próximo update vai sem conferência
+			obj.setVersion(outcome == UpsertOutcome.INSERTED ? Integer.valueOf(0) : null);
+		}
+		if (outcome == UpsertOutcome.UPDATED) {
+			invalidateRegistry(callerTx, obj.getId());
+		}
+		if (outcome != UpsertOutcome.UNCHANGED) {
+			publish(callerTx, outcome == UpsertOutcome.INSERTED ? ChangeEvent.Operation.INSERT
+					: ChangeEvent.Operation.UPDATE, obj);
+		}
+	}
+
+	// Objetos lidos do banco têm versão: o UPDATE confere se ninguém alterou antes.
+	// Objetos montados à mão (versão null) são gravados sem conferência.
+	private static boolean isChecked(Department obj) {
+		return VERSIONED && obj.getVersion() != null;
+	}
+
+	private static OptimisticLockException conflict(Department obj) {
+		return new OptimisticLockException("Department " + obj.getId() + " was changed or deleted since version "
+				+ obj.getVersion() + " was read");
+	}
+
+	// Executa o lote de INSERT e grava os ids gerados nos objetos, na ordem de entrada
+	private void executeInsertBatch(PreparedStatement st, List<Department> chunk) throws SQLException {
+		st.executeBatch();
+
+		ResultSet rs = st.getGeneratedKeys();
+		try {
+			int i = 0;
+			while (rs.next() && i < chunk.size()) {
+				chunk.get(i++).setId(rs.getInt(1));
+			}
+			if (i != chunk.size()) {
+				throw new DBException("Unexpected error! Expected " + chunk.size()
+						+ " generated keys but got " + i);
+			}
+		} finally {
+			DB.closeResultSet(rs);
 		}
 	}
 
@@ -126,13 +687,14 @@ public class DepartmentDaoJDBC implements DepartmentDao {
 	@Override
 	public Department findById(Integer id) {
 
+		Connection c = null;
 		PreparedStatement st = null;
 		ResultSet rs = null;
 
 		try {
 			// Prepara a instrução SQL de SELECT
-			st = conn.prepareStatement(
-					"SELECT Name, Id FROM department WHERE Id = ?");
+			c = acquireRead();
+			st = DB.prepareStatement(c, FIND_BY_ID_SQL);
 
 			// Define o id a ser buscado
 			st.setInt(1, id);
@@ -142,24 +704,77 @@ public class DepartmentDaoJDBC implements DepartmentDao {
 
 			// Se encontrar resultado, instancia e retorna o objeto
 			if (rs.next()) {
-				Department dep = new Department();
-				dep.setName(rs.getString("Name"));
-				dep.setId(rs.getInt("Id"));
-				return dep;
+				return new DepartmentRowMapper(rs).map(rs);
 			}
 
 		} catch (SQLException e) {
-			System.out.println("Error: " + e.getMessage());
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
 		}
 
 		// Se não encontrar, retorna null
 		return null;
 	}
 
+	// Busca vários departamentos de uma vez: uma consulta IN (...) por pedaço de ids.
+	// Ids não encontrados ficam fora do mapa.
+	@Override
+	public Map<Integer, Department> findByIds(Collection<Integer> ids) {
+
+		Map<Integer, Department> result = new HashMap<>(Math.max(16, ids.size() * 4 / 3 + 1));
+		if (ids.isEmpty()) {
+			return result;
+		}
+
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try {
+			c = acquireRead();
+			int chunkSize = InClause.getChunkSize();
+
+			for (List<Integer> chunk : InClause.chunks(ids, chunkSize)) {
+				// Completa o pedaço até o tamanho do balde repetindo o último id
+				int bucket = InClause.bucketSize(chunk.size(), chunkSize);
+				st = DB.prepareStatement(c,
+						InClause.sql("department", bucket, n -> FIND_BY_IDS_SQL + InClause.placeholders(n) + ")"));
+				for (int i = 0; i < bucket; i++) {
+					st.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+				}
+
+				rs = st.executeQuery();
+				DepartmentRowMapper mapper = new DepartmentRowMapper(rs);
+				while (rs.next()) {
+					Department dep = mapper.map(rs);
+					result.put(dep.getId(), dep);
+				}
+
+				DB.closeResultSet(rs);
+				rs = null;
+				DB.closeStatement(st);
+				st = null;
+			}
+			return result;
+
+		} catch (SQLException e) {
+			throw new DBException("Error " + e.getMessage());
+
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
 	// Busca todos os departamentos
 	@Override
 	public List<Department> findAll() {
 
+		Connection c = null;
 		PreparedStatement st = null;
 		ResultSet rs = null;
 
@@ -167,15 +782,16 @@ public class DepartmentDaoJDBC implements DepartmentDao {
 
 		try {
 			// Prepara a instrução SQL de SELECT (ordenando por nome)
-			st = conn.prepareStatement(
-					"SELECT * FROM department ORDER BY Name");
+			c = acquireRead();
+			st = DB.prepareStatement(c, FIND_ALL_SQL);
 
 			// Executa a consulta
 			rs = st.executeQuery();
 
 			// Percorre os resultados e adiciona na lista
+			DepartmentRowMapper mapper = new DepartmentRowMapper(rs);
 			while (rs.next()) {
-				list.add(new Department(rs.getInt("Id"), rs.getString("Name")));
+				list.add(mapper.map(rs));
 			}
 			return list;
 
@@ -183,8 +799,51 @@ public class DepartmentDaoJDBC implements DepartmentDao {
 			throw new DBException("Error " + e.getMessage());
 
 		} finally {
+			DB.closeResultSet(rs);
 			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	// Busca uma página de departamentos ordenada por (Name, Id).
+	// after é o último departamento da página anterior (null para a primeira página).
+	@Override
+	public List<Department> findPage(Department after, int limit) {
+
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		List<Department> list = new ArrayList<Department>(limit);
+
+		try {
+			c = acquireRead();
+			if (after == null) {
+				st = DB.prepareStatement(c, FIRST_PAGE_SQL);
+				st.setInt(1, limit);
+			} else {
+				st = DB.prepareStatement(c, NEXT_PAGE_SQL);
+				st.setString(1, after.getName());
+				st.setString(2, after.getName());
+				st.setInt(3, after.getId());
+				st.setInt(4, limit);
+			}
+
+			rs = st.executeQuery();
+
+			DepartmentRowMapper mapper = new DepartmentRowMapper(rs);
+			while (rs.next()) {
+				list.add(mapper.map(rs));
+			}
+			return list;
+
+		} catch (SQLException e) {
+			throw new DBException("Error " + e.getMessage());
+
+		} finally {
 			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
 		}
 	}
 }
@@ -0,0 +1,79 @@
+package model.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Properties;
+
+import db.DB;
+import model.dao.cache.EntityCache;
+import model.dao.change.ChangeEvent;
+import model.dao.change.TableVersions;
+import model.entities.Department;
+
+// Mapa de identidade de Departments compartilhado pela aplicação inteira: o nome de cada id só é
+// lido do ResultSet na primeira vez (e a mesma String serve a todas as leituras seguintes).
+// As instâncias guardadas aqui nunca saem do pacote: o SellerRowMapper entrega uma cópia por
+// resultado, senão um setName num Seller lido mudaria o departamento de todos os outros.
+// A entrada é descartada quando o DepartmentDao atualiza ou deleta o departamento (depois do
+// commit) ou quando o limite de tamanho expulsa.
+// Quem lê as linhas tira um snapshot() antes da consulta: um nome lido antes de uma invalidação
+// não volta para o registro (senão ficaria lá para sempre com o TTL padrão, 0).
+public class DepartmentRegistry {
+
+	private static final EntityCache<Integer, Department> departments = createCache();
+
+	private DepartmentRegistry() {
+	}
+
+	// Tirado antes de executar a consulta cujas linhas vão passar por resolve. Logo depois de uma escrita
+	// em department (DaoFactory.getSettleMillis), a consulta pode ir a uma réplica atrasada: o snapshot
+	// devolvido não confere com nenhum segmento e nada lido nela entra no registro
+	public static long[] snapshot() {
+		long[] snapshot = departments.snapshot();
+		long settleMillis = DaoFactory.getSettleMillis();
+		if (settleMillis > 0 && TableVersions.millisSinceChange(ChangeEvent.Table.DEPARTMENT) < settleMillis) {
+			Arrays.fill(snapshot, -1);
+		}
+		return snapshot;
+	}
+
+	// Devolve o Department compartilhado das colunas idColumn/nameColumn (índices) da linha atual;
+	// se o id foi invalidado depois do snapshot, devolve um Department só desta linha.
+	// Não alterar nem entregar o objeto devolvido: copiar antes
+	static Department resolve(ResultSet rs, int idColumn, int nameColumn, long[] snapshot)
+			throws SQLException {
+		int id = rs.getInt(idColumn);
+		Department dep = departments.get(id);
+		if (dep != null) {
+			return dep;
+		}
+		// Primeira vez que vemos esse id: agora sim lê o nome
+		Department loaded = new Department(id, rs.getString(nameColumn));
+		loaded.markClean();
+		return departments.putIfAbsent(id, loaded, snapshot);
+	}
+
+	// Chamado pelo DepartmentDao quando o departamento muda ou é deletado
+	public static void invalidate(Integer id) {
+		if (id != null) {
+			departments.invalidate(id);
+		}
+	}
+
+	public static void clear() {
+		departments.invalidateAll();
+	}
+
+	// Estatísticas do registro (acertos = nomes que não precisaram ser lidos de novo)
+	public static EntityCache<Integer, Department> getCache() {
+		return departments;
+	}
+
+	private static EntityCache<Integer, Department> createCache() {
+		Properties props = DB.getProperties();
+		return new EntityCache<>(
+				Integer.parseInt(props.getProperty("registry.department.maxSize", "1000")),
+				Long.parseLong(props.getProperty("registry.department.ttlMillis", "0")));
+	}
+}
@@ -0,0 +1,37 @@
+package model.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import db.DB;
+import model.entities.Department;
+
+// Mapeia as linhas de uma consulta que usa DepartmentRowMapper.COLUMNS.
+// Crie um por ResultSet: os índices das colunas são resolvidos no construtor.
+public class DepartmentRowMapper implements RowMapper<Department> {
+
+	static final boolean VERSIONED = DB.isOptimisticLocking();
+
+	public static final String COLUMNS = "Id, Name" + (VERSIONED ? ", Version" : "");
+
+	private final int id;
+	private final int name;
+	private final int version;
+
+	public DepartmentRowMapper(ResultSet rs) throws SQLException {
+		this.id = rs.findColumn("Id");
+		this.name = rs.findColumn("Name");
+		this.version = VERSIONED ? rs.findColumn("Version") : 0;
+	}
+
+	@Override
+	public Department map(ResultSet rs) throws SQLException {
+		Department dep = new Department(rs.getInt(id), rs.getString(name));
+		if (VERSIONED) {
+			dep.setVersion(rs.getInt(version));
+		}
+		// Acabou de vir do banco: nada alterado ainda
+		dep.markClean();
+		return dep;
+	}
+}
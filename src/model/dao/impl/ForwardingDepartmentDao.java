@@ -0,0 +1,80 @@
+package model.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import model.dao.DepartmentDao;
+import model.dao.UpsertOutcome;
+import model.entities.Department;
+
+// Base dos decoradores de DepartmentDao: repassa tudo para o DAO embrulhado,
+// assim cada decorador só sobrescreve os métodos que lhe interessam.
+public abstract class ForwardingDepartmentDao implements DepartmentDao {
+
+	protected final DepartmentDao delegate;
+
+	protected ForwardingDepartmentDao(DepartmentDao delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void insert(Department obj) {
+		delegate.insert(obj);
+	}
+
+	@Override
+	public void update(Department obj) {
+		delegate.update(obj);
+	}
+
+	@Override
+	public void deleteById(Integer id) {
+		delegate.deleteById(id);
+	}
+
+	@Override
+	public void insertAll(Collection<Department> list) {
+		delegate.insertAll(list);
+	}
+
+	@Override
+	public void updateAll(Collection<Department> list) {
+		delegate.updateAll(list);
+	}
+
+	@Override
+	public void deleteByIds(Collection<Integer> ids) {
+		delegate.deleteByIds(ids);
+	}
+
+	@Override
+	public UpsertOutcome upsert(Department obj) {
+		return delegate.upsert(obj);
+	}
+
+	@Override
+	public List<UpsertOutcome> upsertAll(Collection<Department> list) {
+		return delegate.upsertAll(list);
+	}
+
+	@Override
+	public Department findById(Integer id) {
+		return delegate.findById(id);
+	}
+
+	@Override
+	public Map<Integer, Department> findByIds(Collection<Integer> ids) {
+		return delegate.findByIds(ids);
+	}
+
+	@Override
+	public List<Department> findAll() {
+		return delegate.findAll();
+	}
+
+	@Override
+	public List<Department> findPage(Department after, int limit) {
+		return delegate.findPage(after, limit);
+	}
+}
@@ -0,0 +1,103 @@
+package model.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import model.dao.SellerDao;
+import model.dao.UpsertOutcome;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Base dos decoradores de SellerDao: repassa tudo para o DAO embrulhado,
+// assim cada decorador só sobrescreve os métodos que lhe interessam.
+public abstract class ForwardingSellerDao implements SellerDao {
+
+	protected final SellerDao delegate;
+
+	protected ForwardingSellerDao(SellerDao delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void insert(Seller obj) {
+		delegate.insert(obj);
+	}
+
+	@Override
+	public void update(Seller obj) {
+		delegate.update(obj);
+	}
+
+	@Override
+	public void deleteById(Integer id) {
+		delegate.deleteById(id);
+	}
+
+	@Override
+	public void insertAll(Collection<Seller> list) {
+		delegate.insertAll(list);
+	}
+
+	@Override
+	public void updateAll(Collection<Seller> list) {
+		delegate.updateAll(list);
+	}
+
+	@Override
+	public void deleteByIds(Collection<Integer> ids) {
+		delegate.deleteByIds(ids);
+	}
+
+	@Override
+	public UpsertOutcome upsert(Seller obj) {
+		return delegate.upsert(obj);
+	}
+
+	@Override
+	public List<UpsertOutcome> upsertAll(Collection<Seller> list) {
+		return delegate.upsertAll(list);
+	}
+
+	@Override
+	public Seller findById(Integer id) {
+		return delegate.findById(id);
+	}
+
+	@Override
+	public Map<Integer, Seller> findByIds(Collection<Integer> ids) {
+		return delegate.findByIds(ids);
+	}
+
+	@Override
+	public List<Seller> findAll() {
+		return delegate.findAll();
+	}
+
+	@Override
+	public Stream<Seller> streamAll() {
+		return delegate.streamAll();
+	}
+
+	@Override
+	public void forEach(Consumer<? super Seller> action) {
+		delegate.forEach(action);
+	}
+
+	@Override
+	public List<Seller> findByDepartment(Department department) {
+		return delegate.findByDepartment(department);
+	}
+
+	@Override
+	public List<Seller> findPage(Seller after, int limit) {
+		return delegate.findPage(after, limit);
+	}
+
+	@Override
+	public List<Seller> findByDepartmentPage(Department department, Seller after, int limit) {
+		return delegate.findByDepartmentPage(department, after, limit);
+	}
+}
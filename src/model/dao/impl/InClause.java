@@ -0,0 +1,76 @@
+package model.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+import db.DB;
+
+// Ajuda a montar consultas "WHERE Id IN (?, ?, ...)" para buscas por vários ids.
+// Os ids são divididos em pedaços de no máximo findByIds.chunkSize, e cada pedaço é
+// completado (repetindo o último id) até a próxima potência de 2. Assim só existem
+// poucos SQLs diferentes (1, 2, 4, 8, ...) e o cache de statements continua quente.
+public class InClause {
+
+	// SQL já montado por (prefixo do DAO, tamanho do balde)
+	private static final ConcurrentHashMap<String, String> SQL_BY_BUCKET = new ConcurrentHashMap<>();
+
+	private InClause() {
+	}
+
+	// Maior quantidade de ids num único IN (...)
+	public static int getChunkSize() {
+		return Integer.parseInt(DB.getProperties().getProperty("findByIds.chunkSize", "256"));
+	}
+
+	// Remove ids repetidos/nulos e divide em pedaços de no máximo chunkSize
+	public static List<List<Integer>> chunks(Collection<Integer> ids, int chunkSize) {
+		List<List<Integer>> chunks = new ArrayList<>();
+		List<Integer> current = new ArrayList<>(Math.min(chunkSize, ids.size()));
+
+		for (Integer id : new LinkedHashSet<>(ids)) {
+			if (id == null) {
+				continue;
+			}
+			current.add(id);
+			if (current.size() == chunkSize) {
+				chunks.add(current);
+				current = new ArrayList<>(chunkSize);
+			}
+		}
+		if (!current.isEmpty()) {
+			chunks.add(current);
+		}
+		return chunks;
+	}
+
+	// Menor potência de 2 que comporta n ids (sem passar de chunkSize)
+	public static int bucketSize(int n, int chunkSize) {
+		int size = Integer.highestOneBit(Math.max(n, 1));
+		if (size < n) {
+			size <<= 1;
+		}
+		return Math.min(size, chunkSize);
+	}
+
+	// Devolve o SQL do balde, montando com sqlForBucket(bucketSize) só na primeira vez;
+	// key separa os SQLs de cada DAO
+	public static String sql(String key, int bucketSize, IntFunction<String> sqlForBucket) {
+		return SQL_BY_BUCKET.computeIfAbsent(key + "#" + bucketSize, k -> sqlForBucket.apply(bucketSize));
+	}
+
+	// "?, ?, ?" com n marcadores
+	public static String placeholders(int n) {
+		StringBuilder sb = new StringBuilder(n * 3);
+		for (int i = 0; i < n; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append('?');
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,232 @@
+package model.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import model.dao.DepartmentDao;
+import model.dao.UpsertOutcome;
+import model.dao.metrics.DaoMetrics;
+import model.dao.metrics.OperationMetrics;
+import model.entities.Department;
+
+// Decorador que mede cada chamada ao DepartmentDao (latência, espera por conexão, linhas, erros)
+// nas métricas "DepartmentDao.<método>". Contagens e tamanhos vão como long (sem autoboxing).
+// Além do que o DAO já aloca, só o Iterator do laço que conta os alterados em updateAll.
+public class InstrumentedDepartmentDao extends ForwardingDepartmentDao {
+
+	private final OperationMetrics insert;
+	private final OperationMetrics update;
+	private final OperationMetrics deleteById;
+	private final OperationMetrics insertAll;
+	private final OperationMetrics updateAll;
+	private final OperationMetrics deleteByIds;
+	private final OperationMetrics upsert;
+	private final OperationMetrics upsertAll;
+	private final OperationMetrics findById;
+	private final OperationMetrics findByIds;
+	private final OperationMetrics findAll;
+	private final OperationMetrics findPage;
+
+	public InstrumentedDepartmentDao(DepartmentDao delegate, DaoMetrics metrics) {
+		super(delegate);
+		this.insert = metrics.operation("DepartmentDao.insert");
+		this.update = metrics.operation("DepartmentDao.update");
+		this.deleteById = metrics.operation("DepartmentDao.deleteById");
+		this.insertAll = metrics.operation("DepartmentDao.insertAll");
+		this.updateAll = metrics.operation("DepartmentDao.updateAll");
+		this.deleteByIds = metrics.operation("DepartmentDao.deleteByIds");
+		this.upsert = metrics.operation("DepartmentDao.upsert");
+		this.upsertAll = metrics.operation("DepartmentDao.upsertAll");
+		this.findById = metrics.operation("DepartmentDao.findById");
+		this.findByIds = metrics.operation("DepartmentDao.findByIds");
+		this.findAll = metrics.operation("DepartmentDao.findAll");
+		this.findPage = metrics.operation("DepartmentDao.findPage");
+	}
+
+	@Override
+	public void insert(Department obj) {
+		long start = insert.start();
+		long wait = insert.startWait();
+		try {
+			delegate.insert(obj);
+			insert.success(start, wait, 1, null);
+		} catch (RuntimeException e) {
+			insert.failure(start, wait, e, null);
+			throw e;
+		}
+	}
+
+	@Override
+	public void update(Department obj) {
+		long start = update.start();
+		long wait = update.startWait();
+		try {
+			// Sem campo alterado o DAO não grava nada: nenhuma linha
+			long rows = obj.isDirty() ? 1 : 0;
+			delegate.update(obj);
+			update.success(start, wait, rows, obj.getId());
+		} catch (RuntimeException e) {
+			update.failure(start, wait, e, obj.getId());
+			throw e;
+		}
+	}
+
+	@Override
+	public void deleteById(Integer id) {
+		long start = deleteById.start();
+		long wait = deleteById.startWait();
+		try {
+			delegate.deleteById(id);
+			deleteById.success(start, wait, 1, id);
+		} catch (RuntimeException e) {
+			deleteById.failure(start, wait, e, id);
+			throw e;
+		}
+	}
+
+	@Override
+	public void insertAll(Collection<Department> list) {
+		long start = insertAll.start();
+		long wait = insertAll.startWait();
+		try {
+			delegate.insertAll(list);
+			insertAll.success(start, wait, list.size(), list.size());
+		} catch (RuntimeException e) {
+			insertAll.failure(start, wait, e, list.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public void updateAll(Collection<Department> list) {
+		long start = updateAll.start();
+		long wait = updateAll.startWait();
+		try {
+			long rows = countDirty(list);
+			delegate.updateAll(list);
+			updateAll.success(start, wait, rows, list.size());
+		} catch (RuntimeException e) {
+			updateAll.failure(start, wait, e, list.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public void deleteByIds(Collection<Integer> ids) {
+		long start = deleteByIds.start();
+		long wait = deleteByIds.startWait();
+		try {
+			delegate.deleteByIds(ids);
+			deleteByIds.success(start, wait, ids.size(), ids.size());
+		} catch (RuntimeException e) {
+			deleteByIds.failure(start, wait, e, ids.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public UpsertOutcome upsert(Department obj) {
+		long start = upsert.start();
+		long wait = upsert.startWait();
+		try {
+			UpsertOutcome outcome = delegate.upsert(obj);
+			upsert.success(start, wait, outcome == UpsertOutcome.UNCHANGED ? 0 : 1, obj.getId());
+			return outcome;
+		} catch (RuntimeException e) {
+			upsert.failure(start, wait, e, obj.getId());
+			throw e;
+		}
+	}
+
+	@Override
+	public List<UpsertOutcome> upsertAll(Collection<Department> list) {
+		long start = upsertAll.start();
+		long wait = upsertAll.startWait();
+		try {
+			List<UpsertOutcome> outcomes = delegate.upsertAll(list);
+			upsertAll.success(start, wait, countWritten(outcomes), list.size());
+			return outcomes;
+		} catch (RuntimeException e) {
+			upsertAll.failure(start, wait, e, list.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public Department findById(Integer id) {
+		long start = findById.start();
+		long wait = findById.startWait();
+		try {
+			Department result = delegate.findById(id);
+			findById.success(start, wait, result == null ? 0 : 1, id);
+			return result;
+		} catch (RuntimeException e) {
+			findById.failure(start, wait, e, id);
+			throw e;
+		}
+	}
+
+	@Override
+	public Map<Integer, Department> findByIds(Collection<Integer> ids) {
+		long start = findByIds.start();
+		long wait = findByIds.startWait();
+		try {
+			Map<Integer, Department> result = delegate.findByIds(ids);
+			findByIds.success(start, wait, result.size(), ids.size());
+			return result;
+		} catch (RuntimeException e) {
+			findByIds.failure(start, wait, e, ids.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public List<Department> findAll() {
+		long start = findAll.start();
+		long wait = findAll.startWait();
+		try {
+			List<Department> result = delegate.findAll();
+			findAll.success(start, wait, result.size(), null);
+			return result;
+		} catch (RuntimeException e) {
+			findAll.failure(start, wait, e, null);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<Department> findPage(Department after, int limit) {
+		long start = findPage.start();
+		long wait = findPage.startWait();
+		try {
+			List<Department> result = delegate.findPage(after, limit);
+			findPage.success(start, wait, result.size(), limit);
+			return result;
+		} catch (RuntimeException e) {
+			findPage.failure(start, wait, e, limit);
+			throw e;
+		}
+	}
+	// Só os alterados são gravados pelo updateAll (contados antes: depois da gravação ficam limpos)
+	private static long countDirty(Collection<Department> list) {
+		long dirty = 0;
+		for (Department obj : list) {
+			if (obj.isDirty()) {
+				dirty++;
+			}
+		}
+		return dirty;
+	}
+
+	// UNCHANGED não grava nada
+	private static long countWritten(List<UpsertOutcome> outcomes) {
+		long written = 0;
+		for (int i = 0; i < outcomes.size(); i++) {
+			if (outcomes.get(i) != UpsertOutcome.UNCHANGED) {
+				written++;
+			}
+		}
+		return written;
+	}
+}
@@ -0,0 +1,305 @@
+package model.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import model.dao.SellerDao;
+import model.dao.UpsertOutcome;
+import model.dao.metrics.DaoMetrics;
+import model.dao.metrics.OperationMetrics;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Decorador que mede cada chamada ao SellerDao (latência, espera por conexão, linhas, erros)
+// nas métricas "SellerDao.<método>". Contagens e tamanhos vão como long (sem autoboxing).
+// Além do que o DAO já aloca: em streamAll e forEach, o embrulho que conta as linhas (uma vez por
+// chamada, não por linha), e em updateAll o Iterator do laço que conta os alterados.
+public class InstrumentedSellerDao extends ForwardingSellerDao {
+
+	private final OperationMetrics insert;
+	private final OperationMetrics update;
+	private final OperationMetrics deleteById;
+	private final OperationMetrics insertAll;
+	private final OperationMetrics updateAll;
+	private final OperationMetrics deleteByIds;
+	private final OperationMetrics upsert;
+	private final OperationMetrics upsertAll;
+	private final OperationMetrics findById;
+	private final OperationMetrics findByIds;
+	private final OperationMetrics findAll;
+	private final OperationMetrics streamAll;
+	private final OperationMetrics forEach;
+	private final OperationMetrics findByDepartment;
+	private final OperationMetrics findPage;
+	private final OperationMetrics findByDepartmentPage;
+
+	public InstrumentedSellerDao(SellerDao delegate, DaoMetrics metrics) {
+		super(delegate);
+		this.insert = metrics.operation("SellerDao.insert");
+		this.update = metrics.operation("SellerDao.update");
+		this.deleteById = metrics.operation("SellerDao.deleteById");
+		this.insertAll = metrics.operation("SellerDao.insertAll");
+		this.updateAll = metrics.operation("SellerDao.updateAll");
+		this.deleteByIds = metrics.operation("SellerDao.deleteByIds");
+		this.upsert = metrics.operation("SellerDao.upsert");
+		this.upsertAll = metrics.operation("SellerDao.upsertAll");
+		this.findById = metrics.operation("SellerDao.findById");
+		this.findByIds = metrics.operation("SellerDao.findByIds");
+		this.findAll = metrics.operation("SellerDao.findAll");
+		this.streamAll = metrics.operation("SellerDao.streamAll");
+		this.forEach = metrics.operation("SellerDao.forEach");
+		this.findByDepartment = metrics.operation("SellerDao.findByDepartment");
+		this.findPage = metrics.operation("SellerDao.findPage");
+		this.findByDepartmentPage = metrics.operation("SellerDao.findByDepartmentPage");
+	}
+
+	@Override
+	public void insert(Seller obj) {
+		long start = insert.start();
+		long wait = insert.startWait();
+		try {
+			delegate.insert(obj);
+			insert.success(start, wait, 1, null);
+		} catch (RuntimeException e) {
+			insert.failure(start, wait, e, null);
+			throw e;
+		}
+	}
+
+	@Override
+	public void update(Seller obj) {
+		long start = update.start();
+		long wait = update.startWait();
+		try {
+			// Sem campo alterado o DAO não grava nada: nenhuma linha
+			long rows = obj.isDirty() ? 1 : 0;
+			delegate.update(obj);
+			update.success(start, wait, rows, obj.getId());
+		} catch (RuntimeException e) {
+			update.failure(start, wait, e, obj.getId());
+			throw e;
+		}
+	}
+
+	@Override
+	public void deleteById(Integer id) {
+		long start = deleteById.start();
+		long wait = deleteById.startWait();
+		try {
+			delegate.deleteById(id);
+			deleteById.success(start, wait, 1, id);
+		} catch (RuntimeException e) {
+			deleteById.failure(start, wait, e, id);
+			throw e;
+		}
+	}
+
+	@Override
+	public void insertAll(Collection<Seller> list) {
+		long start = insertAll.start();
+		long wait = insertAll.startWait();
+		try {
+			delegate.insertAll(list);
+			insertAll.success(start, wait, list.size(), list.size());
+		} catch (RuntimeException e) {
+			insertAll.failure(start, wait, e, list.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public void updateAll(Collection<Seller> list) {
+		long start = updateAll.start();
+		long wait = updateAll.startWait();
+		try {
+			long rows = countDirty(list);
+			delegate.updateAll(list);
+			updateAll.success(start, wait, rows, list.size());
+		} catch (RuntimeException e) {
+			updateAll.failure(start, wait, e, list.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public void deleteByIds(Collection<Integer> ids) {
+		long start = deleteByIds.start();
+		long wait = deleteByIds.startWait();
+		try {
+			delegate.deleteByIds(ids);
+			deleteByIds.success(start, wait, ids.size(), ids.size());
+		} catch (RuntimeException e) {
+			deleteByIds.failure(start, wait, e, ids.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public UpsertOutcome upsert(Seller obj) {
+		long start = upsert.start();
+		long wait = upsert.startWait();
+		try {
+			UpsertOutcome outcome = delegate.upsert(obj);
+			upsert.success(start, wait, outcome == UpsertOutcome.UNCHANGED ? 0 : 1, obj.getId());
+			return outcome;
+		} catch (RuntimeException e) {
+			upsert.failure(start, wait, e, obj.getId());
+			throw e;
+		}
+	}
+
+	@Override
+	public List<UpsertOutcome> upsertAll(Collection<Seller> list) {
+		long start = upsertAll.start();
+		long wait = upsertAll.startWait();
+		try {
+			List<UpsertOutcome> outcomes = delegate.upsertAll(list);
+			upsertAll.success(start, wait, countWritten(outcomes), list.size());
+			return outcomes;
+		} catch (RuntimeException e) {
+			upsertAll.failure(start, wait, e, list.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public Seller findById(Integer id) {
+		long start = findById.start();
+		long wait = findById.startWait();
+		try {
+			Seller result = delegate.findById(id);
+			findById.success(start, wait, result == null ? 0 : 1, id);
+			return result;
+		} catch (RuntimeException e) {
+			findById.failure(start, wait, e, id);
+			throw e;
+		}
+	}
+
+	@Override
+	public Map<Integer, Seller> findByIds(Collection<Integer> ids) {
+		long start = findByIds.start();
+		long wait = findByIds.startWait();
+		try {
+			Map<Integer, Seller> result = delegate.findByIds(ids);
+			findByIds.success(start, wait, result.size(), ids.size());
+			return result;
+		} catch (RuntimeException e) {
+			findByIds.failure(start, wait, e, ids.size());
+			throw e;
+		}
+	}
+
+	@Override
+	public List<Seller> findAll() {
+		long start = findAll.start();
+		long wait = findAll.startWait();
+		try {
+			List<Seller> result = delegate.findAll();
+			findAll.success(start, wait, result.size(), null);
+			return result;
+		} catch (RuntimeException e) {
+			findAll.failure(start, wait, e, null);
+			throw e;
+		}
+	}
+
+	// Mede só a abertura do Stream; as linhas são contadas conforme forem lidas
+	@Override
+	public Stream<Seller> streamAll() {
+		long start = streamAll.start();
+		long wait = streamAll.startWait();
+		try {
+			Stream<Seller> result = delegate.streamAll();
+			streamAll.success(start, wait, 0, null);
+			return result.peek(s -> streamAll.addRows(1));
+		} catch (RuntimeException e) {
+			streamAll.failure(start, wait, e, null);
+			throw e;
+		}
+	}
+
+	@Override
+	public void forEach(Consumer<? super Seller> action) {
+		long start = forEach.start();
+		long wait = forEach.startWait();
+		long[] rows = new long[1];
+		try {
+			delegate.forEach(s -> {
+				rows[0]++;
+				action.accept(s);
+			});
+			forEach.success(start, wait, rows[0], null);
+		} catch (RuntimeException e) {
+			forEach.failure(start, wait, e, null);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<Seller> findByDepartment(Department department) {
+		long start = findByDepartment.start();
+		long wait = findByDepartment.startWait();
+		try {
+			List<Seller> result = delegate.findByDepartment(department);
+			findByDepartment.success(start, wait, result.size(), department.getId());
+			return result;
+		} catch (RuntimeException e) {
+			findByDepartment.failure(start, wait, e, department.getId());
+			throw e;
+		}
+	}
+
+	@Override
+	public List<Seller> findPage(Seller after, int limit) {
+		long start = findPage.start();
+		long wait = findPage.startWait();
+		try {
+			List<Seller> result = delegate.findPage(after, limit);
+			findPage.success(start, wait, result.size(), limit);
+			return result;
+		} catch (RuntimeException e) {
+			findPage.failure(start, wait, e, limit);
+			throw e;
+		}
+	}
+
+	@Override
+	public List<Seller> findByDepartmentPage(Department department, Seller after, int limit) {
+		long start = findByDepartmentPage.start();
+		long wait = findByDepartmentPage.startWait();
+		try {
+			List<Seller> result = delegate.findByDepartmentPage(department, after, limit);
+			findByDepartmentPage.success(start, wait, result.size(), department.getId());
+			return result;
+		} catch (RuntimeException e) {
+			findByDepartmentPage.failure(start, wait, e, department.getId());
+			throw e;
+		}
+	}
+
+	// Só os alterados são gravados pelo updateAll (contados antes: depois da gravação ficam limpos)
+	private static long countDirty(Collection<Seller> list) {
+		long dirty = 0;
+		for (Seller obj : list) {
+			if (obj.isDirty()) {
+				dirty++;
+			}
+		}
+		return dirty;
+	}
+
+	// UNCHANGED não grava nada
+	private static long countWritten(List<UpsertOutcome> outcomes) {
+		long written = 0;
+		for (int i = 0; i < outcomes.size(); i++) {
+			if (outcomes.get(i) != UpsertOutcome.UNCHANGED) {
+				written++;
+			}
+		}
+		return written;
+	}
+}
@@ -0,0 +1,67 @@
+package model.dao.impl;
+
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import db.DB;
+import db.DBException;
+import db.OptimisticLockException;
+
+// Repete um ciclo ler-alterar-gravar quando o update perde a corrida (OptimisticLockException).
+// O trabalho precisa reler o objeto a cada tentativa:
+//
+//   OptimisticRetry.run(() -> {
+//       Seller s = sellerDao.findById(3);
+//       s.setBaseSalary(s.getBaseSalary() + 100.0);
+//       sellerDao.update(s);
+//   });
+//
+// Entre as tentativas espera um tempo aleatório que dobra a cada conflito (backoff exponencial
+// com jitter), para que os escritores concorrentes não colidam de novo no mesmo instante.
+// Configuração: optimisticLocking.maxAttempts, optimisticLocking.backoffMillis, optimisticLocking.maxBackoffMillis
+public class OptimisticRetry {
+
+	private OptimisticRetry() {
+	}
+
+	public static void run(Runnable work) {
+		call(() -> {
+			work.run();
+			return null;
+		});
+	}
+
+	public static <T> T call(Supplier<T> work) {
+		Properties props = DB.getProperties();
+		return call(work,
+				Integer.parseInt(props.getProperty("optimisticLocking.maxAttempts", "5")),
+				Long.parseLong(props.getProperty("optimisticLocking.backoffMillis", "5")),
+				Long.parseLong(props.getProperty("optimisticLocking.maxBackoffMillis", "200")));
+	}
+
+	// Tenta até maxAttempts vezes; na última falha a OptimisticLockException é repassada
+	public static <T> T call(Supplier<T> work, int maxAttempts, long backoffMillis, long maxBackoffMillis) {
+		long backoff = Math.max(1, backoffMillis);
+		for (int attempt = 1;; attempt++) {
+			try {
+				return work.get();
+			} catch (OptimisticLockException e) {
+				if (attempt >= maxAttempts) {
+					throw e;
+				}
+			}
+			sleep(ThreadLocalRandom.current().nextLong(backoff) + 1);
+			backoff = Math.min(backoff * 2, Math.max(1, maxBackoffMillis));
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBException("Interrupted while retrying an optimistic update");
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package model.dao.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.dao.DepartmentDao;
+import model.dao.cache.QueryCache;
+import model.dao.change.ChangeEvent;
+import model.entities.Department;
+
+// Decorador que guarda em cache o resultado de findAll até a próxima escrita confirmada na
+// tabela department, feita por qualquer DAO. Cada chamada recebe uma lista nova com cópias.
+public class QueryCachingDepartmentDao extends ForwardingDepartmentDao {
+
+	private static final String FIND_ALL = "department.findAll";
+
+	private final QueryCache cache;
+
+	public QueryCachingDepartmentDao(DepartmentDao delegate, QueryCache cache) {
+		super(delegate);
+		this.cache = cache;
+	}
+
+	public QueryCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public List<Department> findAll() {
+		List<Department> cached = cache.get(FIND_ALL, delegate::findAll, ChangeEvent.Table.DEPARTMENT);
+		List<Department> list = new ArrayList<>(cached.size());
+		for (Department obj : cached) {
+			list.add(new Department(obj));
+		}
+		return list;
+	}
+}
@@ -0,0 +1,51 @@
+package model.dao.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.dao.SellerDao;
+import model.dao.cache.QueryCache;
+import model.dao.change.ChangeEvent;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Decorador que guarda em cache o resultado de findAll e findByDepartment. Cada chamada recebe uma
+// lista nova com cópias dos Sellers (e dos Departments): alterar e gravar o que veio daqui não muda
+// o que está no cache nem o que os outros leram.
+// As duas consultas leem seller e department (nome do departamento): uma escrita confirmada
+// em qualquer uma das tabelas, por qualquer DAO, faz a próxima chamada ir ao banco.
+public class QueryCachingSellerDao extends ForwardingSellerDao {
+
+	private static final String FIND_ALL = "seller.findAll";
+	private static final String FIND_BY_DEPARTMENT = "seller.findByDepartment";
+
+	private final QueryCache cache;
+
+	public QueryCachingSellerDao(SellerDao delegate, QueryCache cache) {
+		super(delegate);
+		this.cache = cache;
+	}
+
+	public QueryCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public List<Seller> findAll() {
+		return copy(cache.get(FIND_ALL, delegate::findAll, ChangeEvent.Table.SELLER, ChangeEvent.Table.DEPARTMENT));
+	}
+
+	@Override
+	public List<Seller> findByDepartment(Department department) {
+		return copy(cache.get(List.of(FIND_BY_DEPARTMENT, department.getId()),
+				() -> delegate.findByDepartment(department), ChangeEvent.Table.SELLER, ChangeEvent.Table.DEPARTMENT));
+	}
+
+	private static List<Seller> copy(List<Seller> cached) {
+		List<Seller> list = new ArrayList<>(cached.size());
+		for (Seller obj : cached) {
+			list.add(new Seller(obj));
+		}
+		return list;
+	}
+}
@@ -0,0 +1,242 @@
+package model.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import db.DB;
+import db.DBException;
+import model.dao.ReportDao;
+import model.dao.report.AgeHistogram;
+import model.dao.report.DepartmentCounts;
+import model.dao.report.SalaryStats;
+import model.dao.report.SellerColumns;
+
+public class ReportDaoJDBC implements ReportDao {
+
+	// LEFT JOIN a partir de department: departamentos sem sellers também aparecem
+	private static final String COUNT_BY_DEPARTMENT_SQL = "SELECT department.Id, department.Name, "
+			+ "COUNT(seller.Id) AS Total "
+			+ "FROM department LEFT JOIN seller ON seller.DepartmentId = department.Id "
+			+ "GROUP BY department.Id, department.Name "
+			+ "ORDER BY department.Id";
+
+	private static final String SALARY_STATS_SQL = "SELECT department.Id, department.Name, "
+			+ "COUNT(seller.Id) AS Total, "
+			+ "COALESCE(SUM(seller.BaseSalary), 0) AS SumSalary, "
+			+ "COALESCE(MIN(seller.BaseSalary), 0) AS MinSalary, "
+			+ "COALESCE(MAX(seller.BaseSalary), 0) AS MaxSalary "
+			+ "FROM department LEFT JOIN seller ON seller.DepartmentId = department.Id "
+			+ "GROUP BY department.Id, department.Name "
+			+ "ORDER BY department.Id";
+
+	// Idade em anos completos na data de referência (ano e mês*100+dia como parâmetros);
+	// só com YEAR/MONTH/DAYOFMONTH, que MySQL e H2 calculam igual. O banco devolve uma
+	// linha por idade (poucas dezenas) e as faixas são montadas em Java.
+	private static final String AGE_HISTOGRAM_SQL = "SELECT "
+			+ "CAST(? AS SIGNED) - YEAR(BirthDate) - "
+			+ "CASE WHEN MONTH(BirthDate) * 100 + DAYOFMONTH(BirthDate) > CAST(? AS SIGNED) THEN 1 ELSE 0 END AS Age, "
+			+ "COUNT(*) AS Total "
+			+ "FROM seller "
+			+ "GROUP BY Age "
+			+ "ORDER BY Age";
+
+	// Só as colunas do seller, sem JOIN: o departamento fica como id
+	private static final String SELLER_COLUMNS_SQL = "SELECT Id, Name, Email, BirthDate, BaseSalary, DepartmentId "
+			+ "FROM seller "
+			+ "ORDER BY Id";
+
+	// Conexão fixa opcional; quando nula, cada consulta empresta uma de leitura
+	private Connection conn;
+
+	public ReportDaoJDBC() {
+	}
+
+	public ReportDaoJDBC(Connection conn) {
+		this.conn = conn;
+	}
+
+	private Connection acquireRead() {
+		return conn != null ? conn : DB.getReadConnection();
+	}
+
+	private void release(Connection c) {
+		if (c != null && c != conn) {
+			DB.closeConnection(c);
+		}
+	}
+
+	@Override
+	public DepartmentCounts countByDepartment() {
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try {
+			c = acquireRead();
+			st = DB.prepareStatement(c, COUNT_BY_DEPARTMENT_SQL);
+			rs = st.executeQuery();
+
+			int size = 0;
+			int[] ids = new int[16];
+			String[] names = new String[16];
+			long[] counts = new long[16];
+
+			while (rs.next()) {
+				if (size == ids.length) {
+					ids = Arrays.copyOf(ids, size * 2);
+					names = Arrays.copyOf(names, size * 2);
+					counts = Arrays.copyOf(counts, size * 2);
+				}
+				ids[size] = rs.getInt(1);
+				names[size] = rs.getString(2);
+				counts[size] = rs.getLong(3);
+				size++;
+			}
+
+			return new DepartmentCounts(Arrays.copyOf(ids, size), Arrays.copyOf(names, size),
+					Arrays.copyOf(counts, size));
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	@Override
+	public SalaryStats salaryStatsByDepartment() {
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try {
+			c = acquireRead();
+			st = DB.prepareStatement(c, SALARY_STATS_SQL);
+			rs = st.executeQuery();
+
+			int size = 0;
+			int[] ids = new int[16];
+			String[] names = new String[16];
+			long[] counts = new long[16];
+			double[] sums = new double[16];
+			double[] mins = new double[16];
+			double[] maxs = new double[16];
+
+			while (rs.next()) {
+				if (size == ids.length) {
+					ids = Arrays.copyOf(ids, size * 2);
+					names = Arrays.copyOf(names, size * 2);
+					counts = Arrays.copyOf(counts, size * 2);
+					sums = Arrays.copyOf(sums, size * 2);
+					mins = Arrays.copyOf(mins, size * 2);
+					maxs = Arrays.copyOf(maxs, size * 2);
+				}
+				ids[size] = rs.getInt(1);
+				names[size] = rs.getString(2);
+				counts[size] = rs.getLong(3);
+				sums[size] = rs.getDouble(4);
+				mins[size] = rs.getDouble(5);
+				maxs[size] = rs.getDouble(6);
+				size++;
+			}
+
+			return new SalaryStats(Arrays.copyOf(ids, size), Arrays.copyOf(names, size),
+					Arrays.copyOf(counts, size), Arrays.copyOf(sums, size), Arrays.copyOf(mins, size),
+					Arrays.copyOf(maxs, size));
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	@Override
+	public AgeHistogram ageHistogram(int bucketYears) {
+		if (bucketYears < 1) {
+			throw new IllegalArgumentException("bucketYears must be >= 1");
+		}
+
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try {
+			c = acquireRead();
+			st = DB.prepareStatement(c, AGE_HISTOGRAM_SQL);
+
+			LocalDate today = LocalDate.now();
+			st.setInt(1, today.getYear());
+			st.setInt(2, today.getMonthValue() * 100 + today.getDayOfMonth());
+			rs = st.executeQuery();
+
+			// Linhas vêm ordenadas por idade: a primeira define onde o histograma começa
+			int first = 0;
+			long[] counts = new long[0];
+			while (rs.next()) {
+				int age = rs.getInt(1);
+				long total = rs.getLong(2);
+				if (counts.length == 0) {
+					first = Math.floorDiv(age, bucketYears) * bucketYears;
+				}
+				int index = (age - first) / bucketYears;
+				if (index >= counts.length) {
+					counts = Arrays.copyOf(counts, index + 1);
+				}
+				counts[index] += total;
+			}
+
+			return new AgeHistogram(bucketYears, first, counts);
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	// Lê a tabela em streaming (stream.fetchSize linhas por vez) direto para os arrays,
+	// sem criar um Seller por linha
+	@Override
+	public SellerColumns loadSellerColumns() {
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try {
+			c = acquireRead();
+			// Statement fora do cache: o fetch size é próprio da leitura em streaming
+			st = c.prepareStatement(SELLER_COLUMNS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			st.setFetchSize(DB.getStreamFetchSize());
+			rs = st.executeQuery();
+
+			SellerColumns.Builder builder = new SellerColumns.Builder();
+			while (rs.next()) {
+				int departmentId = rs.getInt(6);
+				if (rs.wasNull()) {
+					departmentId = SellerColumns.NO_DEPARTMENT;
+				}
+				builder.add(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getDate(4).toLocalDate(),
+						rs.getDouble(5), departmentId);
+			}
+			return builder.build();
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
+}
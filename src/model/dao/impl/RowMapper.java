@@ -0,0 +1,12 @@
+package model.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Converte a linha atual do ResultSet em um objeto.
+// As implementações descobrem o índice de cada coluna uma única vez (no construtor)
+// e depois leem por índice, sem procurar a coluna pelo nome a cada célula.
+public interface RowMapper<T> {
+
+	T map(ResultSet rs) throws SQLException;
+}
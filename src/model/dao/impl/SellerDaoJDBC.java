@@ -5,45 +5,183 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import db.DB;
 import db.DBException;
+import db.DbIntegrityException;
+import db.OptimisticLockException;
 import model.dao.SellerDao;
+import model.dao.UpsertOutcome;
+import model.dao.change.ChangeBuffer;
+import model.dao.change.ChangeEvent;
+import model.dao.change.TableVersions;
 import model.entities.Department;
 import model.entities.Seller;
 
 public class SellerDaoJDBC implements SellerDao {
 
+	// SQLs compartilhados entre as operações unitárias e as em lote
+	private static final String INSERT_SQL = "INSERT INTO seller "
+			+ "(Name, Email, BirthDate, BaseSalary, DepartmentId) "
+			+ "VALUES (?, ?, ?, ?, ?)";
+
+	// UPDATE só das colunas alteradas: um SQL por combinação de bits de Seller
+	// (NAME, EMAIL, ...), montados uma vez; o índice é a máscara de colunas alteradas
+	private static final String[] UPDATE_COLUMNS = { "Name", "Email", "BirthDate", "BaseSalary", "DepartmentId" };
+
+	// Com optimisticLocking.enabled=true todo UPDATE incrementa Version; o CHECKED_ também confere
+	// a versão lida (AND Version = ?) e é usado quando o objeto veio do banco
+	private static final boolean VERSIONED = SellerRowMapper.VERSIONED;
+
+	private static final String[] UPDATE_SQL = buildUpdateSql(false);
+
+	private static final String[] CHECKED_UPDATE_SQL = buildUpdateSql(true);
+
+	private static final String DELETE_SQL = "DELETE FROM seller WHERE Id = ?";
+
+	// Upsert: com Id, a linha é procurada pelo Id; sem Id, pelo Email (chave única).
+	// Um Id informado sempre vale: se o Email for de outra linha, é erro (DbIntegrityException), nunca
+	// a outra linha sobrescrita. Essa conferência é feita antes (executeUpsertBatch), nos dois bancos.
+	// MySQL: "Id = LAST_INSERT_ID(Id)" faz getGeneratedKeys devolver o Id da linha que já existia
+	private static final String UPSERT_SQL = "INSERT INTO seller "
+			+ "(Id, Name, Email, BirthDate, BaseSalary, DepartmentId) "
+			+ "VALUES (?, ?, ?, ?, ?, ?) "
+			+ "ON DUPLICATE KEY UPDATE Id = LAST_INSERT_ID(Id), Name = VALUES(Name), Email = VALUES(Email), "
+			+ "BirthDate = VALUES(BirthDate), BaseSalary = VALUES(BaseSalary), DepartmentId = VALUES(DepartmentId)"
+			+ (VERSIONED ? ", Version = Version + 1" : "");
+
+	// Nos outros bancos (o H2 dos benchmarks, por exemplo): MERGE do SQL padrão com a mesma regra
+	private static final String MERGE_SQL = "MERGE INTO seller t "
+			+ "USING (VALUES (CAST(? AS INT), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS DATE), "
+			+ "CAST(? AS DOUBLE PRECISION), CAST(? AS INT))) "
+			+ "AS s (Id, Name, Email, BirthDate, BaseSalary, DepartmentId) "
+			+ "ON t.Id = s.Id OR (s.Id IS NULL AND t.Email = s.Email) "
+			+ "WHEN MATCHED THEN UPDATE SET Name = s.Name, Email = s.Email, BirthDate = s.BirthDate, "
+			+ "BaseSalary = s.BaseSalary, DepartmentId = s.DepartmentId"
+			+ (VERSIONED ? ", Version = t.Version + 1 " : " ")
+			+ "WHEN NOT MATCHED AND s.Id IS NULL THEN INSERT (Name, Email, BirthDate, BaseSalary, DepartmentId) "
+			+ "VALUES (s.Name, s.Email, s.BirthDate, s.BaseSalary, s.DepartmentId) "
+			+ "WHEN NOT MATCHED THEN INSERT (Id, Name, Email, BirthDate, BaseSalary, DepartmentId) "
+			+ "VALUES (s.Id, s.Name, s.Email, s.BirthDate, s.BaseSalary, s.DepartmentId)";
+
+	// Linhas que o upsertAll vai tocar, travadas até o commit; o "IN (?, ?, ...)" é completado pelo InClause
+	private static final String LOCK_BY_IDS_SQL = "SELECT Id, Email FROM seller WHERE Id IN (";
+
+	private static final String LOCK_BY_EMAILS_SQL = "SELECT Id, Email FROM seller WHERE Email IN (";
+
+	private static final String FIND_BY_ID_SQL = "SELECT " + SellerRowMapper.COLUMNS + " "
+			+ "FROM seller INNER JOIN department "
+			+ "ON seller.DepartmentId = department.Id "
+			+ "WHERE seller.Id = ?";
+
+	private static final String FIND_ALL_SQL = "SELECT " + SellerRowMapper.COLUMNS + " "
+			+ "FROM seller "
+			+ "INNER JOIN department "
+			+ "ON seller.DepartmentId = department.Id "
+			+ "ORDER BY seller.Name";
+
+	private static final String FIND_BY_DEPARTMENT_SQL = "SELECT " + SellerRowMapper.COLUMNS + " "
+			+ "FROM seller INNER JOIN department "
+			+ "ON seller.DepartmentId = department.Id "
+			+ "WHERE seller.DepartmentId = ? "
+			+ "ORDER BY seller.Name";
+
+	// Início da busca por vários ids; o "IN (?, ?, ...)" é completado pelo InClause
+	private static final String FIND_BY_IDS_SQL = "SELECT " + SellerRowMapper.COLUMNS + " "
+			+ "FROM seller INNER JOIN department "
+			+ "ON seller.DepartmentId = department.Id "
+			+ "WHERE seller.Id IN (";
+
+	// Paginação por chave (keyset/seek) em (Name, Id): a página seguinte começa
+	// depois da última linha da anterior, sem OFFSET, então o custo não cresce com o número da página
+	private static final String PAGE_SELECT = "SELECT " + SellerRowMapper.COLUMNS + " "
+			+ "FROM seller INNER JOIN department "
+			+ "ON seller.DepartmentId = department.Id ";
+
+	private static final String PAGE_AFTER = "(seller.Name > ? OR (seller.Name = ? AND seller.Id > ?)) ";
+
+	private static final String PAGE_ORDER = "ORDER BY seller.Name, seller.Id LIMIT ?";
+
+	private static final String FIRST_PAGE_SQL = PAGE_SELECT + PAGE_ORDER;
+
+	private static final String NEXT_PAGE_SQL = PAGE_SELECT + "WHERE " + PAGE_AFTER + PAGE_ORDER;
+
+	private static final String FIRST_DEPARTMENT_PAGE_SQL = PAGE_SELECT
+			+ "WHERE seller.DepartmentId = ? " + PAGE_ORDER;
+
+	private static final String NEXT_DEPARTMENT_PAGE_SQL = PAGE_SELECT
+			+ "WHERE seller.DepartmentId = ? AND " + PAGE_AFTER + PAGE_ORDER;
+
+	// Conexão fixa opcional; quando nula, cada operação empresta uma do pool
 	private Connection conn;
 
-	// Construtor recebe a conexão e guarda pra usar nos métodos
+	// Construtor padrão: cada método pega uma conexão do pool e devolve no final
+	public SellerDaoJDBC() {
+	}
+
+	// Alterações feitas na transação de quem chamou (conexão fixa sem auto-commit) ficam aqui
+	// até o commit; null = não são publicadas no ChangeFeed
+	private ChangeBuffer changes;
+
+	// Construtor recebe a conexão e guarda pra usar nos métodos. Se quem chamou desligar o auto-commit,
+	// o commit não é visto aqui: para transações, prefira a UnitOfWork; senão, chame
+	// DaoFactory.invalidateCaches() depois do commit.
 	public SellerDaoJDBC(Connection conn) {
 		this.conn = conn;
 	}
 
+	// Conexão fixa cuja transação é confirmada por quem chamou (UnitOfWork), que publica changes depois do commit
+	public SellerDaoJDBC(Connection conn, ChangeBuffer changes) {
+		this.conn = conn;
+		this.changes = changes;
+	}
+
+	// Usa a conexão fixa, se houver, ou empresta uma do pool
+	private Connection acquire() {
+		return conn != null ? conn : DB.getConnection();
+	}
+
+	// Para as consultas: usa a conexão fixa, se houver, ou empresta uma de leitura
+	// (réplica, quando configurada em replica.urls; senão o próprio primário)
+	private Connection acquireRead() {
+		return conn != null ? conn : DB.getReadConnection();
+	}
+
+	// Devolve ao pool só as conexões emprestadas em acquire()/acquireRead()
+	private void release(Connection c) {
+		if (c != null && c != conn) {
+			DB.closeConnection(c);
+		}
+	}
+
 	// Insere um novo Seller no banco
 	@Override
 	public void insert(Seller obj) {
+		Connection c = null;
 		PreparedStatement st = null;
 
 		try {
 			// Prepara o INSERT pedindo as chaves geradas
-			st = conn.prepareStatement(
-				"INSERT INTO seller "
-				+ "(Name, Email, BirthDate, BaseSalary, DepartmentId) "
-				+ "VALUES (?, ?, ?, ?, ?)",
-				Statement.RETURN_GENERATED_KEYS);
+			c = acquire();
+			st = DB.prepareStatement(c, INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
 
 			// Define os valores do Seller a inserir
-			st.setString(1, obj.getName());
-			st.setString(2, obj.getEmail());
-			st.setDate(3, java.sql.Date.valueOf(obj.getBirthDate()));
-			st.setDouble(4, obj.getBaseSalary());
-			st.setInt(5, obj.getDepartment().getId());
+			setSellerParameters(st, obj);
 
 			int rowsAffected = st.executeUpdate();
 
@@ -55,6 +193,12 @@ public class SellerDaoJDBC implements SellerDao {
 					obj.setId(id);
 				}
 				DB.closeResultSet(rs);
+				obj.markClean();
+				if (VERSIONED) {
+					// A coluna começa em 0 (DEFAULT do schema)
+					obj.setVersion(0);
+				}
+				publish(inCallerTransaction(c), ChangeEvent.Operation.INSERT, obj);
 			} else {
 				throw new DBException("Unexpected error! No rows Affected!");
 			}
@@ -63,44 +207,60 @@ public class SellerDaoJDBC implements SellerDao {
 			throw new DBException("Error: " + e.getMessage());
 		} finally {
 			DB.closeStatement(st);
+			release(c);
 		}
 	}
 
 	// Atualiza os dados de um Seller já existente
 	@Override
 	public void update(Seller obj) {
+		int fields = obj.getDirtyFields();
+		// Nenhum setter chamado desde a leitura: não há o que gravar
+		if (fields == 0) {
+			return;
+		}
+
+		Connection c = null;
 		PreparedStatement st = null;
 
 		try {
-			st = conn.prepareStatement(
-				"UPDATE seller "
-				+ "SET Name = ?, Email = ?, BirthDate = ?, BaseSalary = ?, DepartmentId = ? "
-				+ "WHERE Id = ?");
+			boolean checked = isChecked(obj);
+			c = acquire();
+			st = DB.prepareStatement(c, checked ? CHECKED_UPDATE_SQL[fields] : UPDATE_SQL[fields]);
 
-			st.setString(1, obj.getName());
-			st.setString(2, obj.getEmail());
-			st.setDate(3, java.sql.Date.valueOf(obj.getBirthDate()));
-			st.setDouble(4, obj.getBaseSalary());
-			st.setInt(5, obj.getDepartment().getId());
-			st.setInt(6, obj.getId());
+			int index = setChangedParameters(st, obj, fields);
+			st.setInt(index, obj.getId());
+			if (checked) {
+				st.setInt(index + 1, obj.getVersion());
+			}
 
-			st.executeUpdate();
+			int rows = st.executeUpdate();
+			if (checked) {
+				if (rows == 0) {
+					throw conflict(obj);
+				}
+				obj.setVersion(obj.getVersion() + 1);
+			}
+			obj.markClean();
+			publish(inCallerTransaction(c), ChangeEvent.Operation.UPDATE, obj);
 
 		} catch (SQLException e) {
 			throw new DBException("Error: " + e.getMessage());
 		} finally {
 			DB.closeStatement(st);
+			release(c);
 		}
 	}
 
 	// Deleta um Seller pelo ID
 	@Override
 	public void deleteById(Integer id) {
+		Connection c = null;
 		PreparedStatement st = null;
 		
 		try {
-			st = conn.prepareStatement(
-				"DELETE FROM seller WHERE Id = ?");
+			c = acquire();
+			st = DB.prepareStatement(c, DELETE_SQL);
 			
 			st.setInt(1, id);
 			
@@ -110,33 +270,596 @@ public class SellerDaoJDBC implements SellerDao {
 				// Nenhum registro deletado → id inexistente
 				throw new DBException("Nonexistent id");
 			}
+			publishDelete(inCallerTransaction(c), id);
 			
 		} catch (SQLException e) {
 			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	// Insere vários Sellers em lotes de batch.size, tudo numa única transação.
+	// Os ids gerados são gravados em cada objeto, na mesma ordem da coleção.
+	@Override
+	public void insertAll(Collection<Seller> list) {
+		if (list.isEmpty()) {
+			return;
+		}
+
+		Connection c = null;
+		PreparedStatement st = null;
+		boolean ownTx = false;
+
+		try {
+			c = acquire();
+			ownTx = DB.beginTransaction(c);
+			st = DB.prepareStatement(c, INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+
+			int batchSize = DB.getBatchSize();
+			List<Seller> chunk = new ArrayList<>(Math.min(batchSize, list.size()));
+
+			for (Seller obj : list) {
+				setSellerParameters(st, obj);
+				st.addBatch();
+				chunk.add(obj);
+
+				if (chunk.size() == batchSize) {
+					executeInsertBatch(st, chunk);
+					chunk.clear();
+				}
+			}
+			if (!chunk.isEmpty()) {
+				executeInsertBatch(st, chunk);
+			}
+
+			DB.commitTransaction(c, ownTx);
+
+			for (Seller obj : list) {
+				obj.markClean();
+				if (VERSIONED) {
+					obj.setVersion(0);
+				}
+				publish(!ownTx, ChangeEvent.Operation.INSERT, obj);
+			}
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeStatement(st);
+			DB.endTransaction(c, ownTx);
+			release(c);
+		}
+	}
+
+	// Atualiza vários Sellers em lotes, numa única transação.
+	// Os objetos são agrupados pelas colunas alteradas (um lote por UPDATE);
+	// os que não mudaram desde a leitura ficam de fora.
+	@Override
+	public void updateAll(Collection<Seller> list) {
+		// Chave: máscara de colunas, com o bit 31 indicando UPDATE com conferência de versão
+		Map<Integer, List<Seller>> byFields = new LinkedHashMap<>();
+		for (Seller obj : list) {
+			if (obj.isDirty()) {
+				int key = obj.getDirtyFields() | (isChecked(obj) ? Integer.MIN_VALUE : 0);
+				byFields.computeIfAbsent(key, k -> new ArrayList<>()).add(obj);
+			}
+		}
+		if (byFields.isEmpty()) {
+			return;
+		}
+
+		Connection c = null;
+		PreparedStatement st = null;
+		boolean ownTx = false;
+
+		try {
+			c = acquire();
+			ownTx = DB.beginTransaction(c);
+
+			int batchSize = DB.getBatchSize();
+
+			for (Map.Entry<Integer, List<Seller>> group : byFields.entrySet()) {
+				boolean checked = group.getKey() < 0;
+				int fields = group.getKey() & Seller.ALL_FIELDS;
+				List<Seller> sellers = group.getValue();
+				st = DB.prepareStatement(c, checked ? CHECKED_UPDATE_SQL[fields] : UPDATE_SQL[fields]);
+				int pending = 0;
+
+				for (int i = 0; i < sellers.size(); i++) {
+					Seller obj = sellers.get(i);
+					int index = setChangedParameters(st, obj, fields);
+					st.setInt(index, obj.getId());
+					if (checked) {
+						st.setInt(index + 1, obj.getVersion());
+					}
+					st.addBatch();
+
+					if (++pending == batchSize || i == sellers.size() - 1) {
+						int[] counts = st.executeBatch();
+						if (checked) {
+							checkBatch(counts, sellers, i + 1 - pending);
+						}
+						pending = 0;
+					}
+				}
+				DB.closeStatement(st);
+				st = null;
+			}
+
+			DB.commitTransaction(c, ownTx);
+
+			for (Map.Entry<Integer, List<Seller>> group : byFields.entrySet()) {
+				for (Seller obj : group.getValue()) {
+					if (group.getKey() < 0) {
+						obj.setVersion(obj.getVersion() + 1);
+					}
+					obj.markClean();
+					publish(!ownTx, ChangeEvent.Operation.UPDATE, obj);
+				}
+			}
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeStatement(st);
+			DB.endTransaction(c, ownTx);
+			release(c);
+		}
+	}
+
+	// Deleta vários Sellers pelo ID em lotes, numa única transação
+	// (ids inexistentes são ignorados)
+	@Override
+	public void deleteByIds(Collection<Integer> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		Connection c = null;
+		PreparedStatement st = null;
+		boolean ownTx = false;
+
+		try {
+			c = acquire();
+			ownTx = DB.beginTransaction(c);
+			st = DB.prepareStatement(c, DELETE_SQL);
+
+			int batchSize = DB.getBatchSize();
+			int pending = 0;
+
+			for (Integer id : ids) {
+				st.setInt(1, id);
+				st.addBatch();
+
+				if (++pending == batchSize) {
+					st.executeBatch();
+					pending = 0;
+				}
+			}
+			if (pending > 0) {
+				st.executeBatch();
+			}
+
+			DB.commitTransaction(c, ownTx);
+
+			for (Integer id : ids) {
+				publishDelete(!ownTx, id);
+			}
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeStatement(st);
+			DB.endTransaction(c, ownTx);
+			release(c);
+		}
+	}
+
+	// Insere ou atualiza. Sem Id, no MySQL, é um único comando sem ler antes; o Id (gerado ou da linha
+	// que já existia) é gravado no objeto. Com Id, ou nos outros bancos, é o upsertAll de um só: o
+	// ON DUPLICATE KEY do MySQL atualizaria a linha dona do Email no lugar de acusar o conflito.
+	@Override
+	public UpsertOutcome upsert(Seller obj) {
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try {
+			c = acquire();
+			if (obj.getId() != null || !DB.isMySql(c)) {
+				return upsertAll(c, List.of(obj)).get(0);
+			}
+
+			st = DB.prepareStatement(c, UPSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+			setUpsertParameters(st, obj);
+			// 1 = inserida, 2 = atualizada, 0 = já tinha esses valores
+			int rows = st.executeUpdate();
+			UpsertOutcome outcome = rows == 1 ? UpsertOutcome.INSERTED
+					: rows == 2 ? UpsertOutcome.UPDATED : UpsertOutcome.UNCHANGED;
+
+			rs = st.getGeneratedKeys();
+			// Linha sem alteração não devolve chave: procura pelo Email
+			obj.setId(rs.next() ? Integer.valueOf(rs.getInt(1))
+					: findIdsByEmail(c, List.of(obj.getEmail()), true).get(emailKey(obj.getEmail(), true)));
+			afterUpsert(inCallerTransaction(c), obj, outcome);
+			return outcome;
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	// Upsert em lotes de batch.size, numa única transação. Antes de cada lote as linhas que já existem
+	// são lidas com SELECT ... FOR UPDATE (travadas até o commit): é isso que diz INSERTED ou UPDATED,
+	// porque com rewriteBatchedStatements=true o driver junta o lote num comando só e não informa
+	// o resultado de cada linha. Os ids das linhas novas sem Id são buscados pelo Email depois do lote.
+	@Override
+	public List<UpsertOutcome> upsertAll(Collection<Seller> list) {
+		if (list.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		Connection c = null;
+		try {
+			c = acquire();
+			return upsertAll(c, new ArrayList<>(list));
+
+		} catch (SQLException e) {
+			throw new DBException("Error: " + e.getMessage());
+		} finally {
+			release(c);
+		}
+	}
+
+	private List<UpsertOutcome> upsertAll(Connection c, List<Seller> sellers) throws SQLException {
+		PreparedStatement st = null;
+		boolean ownTx = false;
+
+		try {
+			ownTx = DB.beginTransaction(c);
+			boolean mySql = DB.isMySql(c);
+			st = DB.prepareStatement(c, mySql ? UPSERT_SQL : MERGE_SQL);
+
+			List<UpsertOutcome> outcomes = new ArrayList<>(sellers.size());
+			int batchSize = DB.getBatchSize();
+			for (int from = 0; from < sellers.size(); from += batchSize) {
+				executeUpsertBatch(c, st, sellers.subList(from, Math.min(from + batchSize, sellers.size())),
+						mySql, outcomes);
+			}
+
+			DB.commitTransaction(c, ownTx);
+
+			for (int i = 0; i < sellers.size(); i++) {
+				afterUpsert(!ownTx, sellers.get(i), outcomes.get(i));
+			}
+			return outcomes;
+
+		} finally {
+			DB.closeStatement(st);
+			DB.endTransaction(c, ownTx);
+		}
+	}
+
+	// Escrita unitária numa conexão fixa sem auto-commit: faz parte da transação de quem chamou
+	private boolean inCallerTransaction(Connection c) throws SQLException {
+		return c == conn && !c.getAutoCommit();
+	}
+
+	// Publica a alteração no ChangeFeed (o evento só é montado se houver assinantes);
+	// dentro da transação de quem chamou, guarda em changes até o commit
+	private void publish(boolean callerTx, ChangeEvent.Operation operation, Seller obj) {
+		tableChanged(callerTx, obj.getId());
+		if (DaoFactory.getChangeFeed().hasSubscribers()) {
+			publish(callerTx, ChangeEvent.of(operation, obj));
+		}
+	}
+
+	private void publishDelete(boolean callerTx, Integer id) {
+		tableChanged(callerTx, id);
+		if (DaoFactory.getChangeFeed().hasSubscribers()) {
+			publish(callerTx, ChangeEvent.deleted(ChangeEvent.Table.SELLER, id));
+		}
+	}
+
+	// Sobe a versão da tabela (TableVersions) depois do commit. Numa conexão fixa sem ChangeBuffer
+	// o commit é de quem chamou e não é visto aqui, e a versão não sobe: subir antes do commit deixaria
+	// um QueryCache concorrente guardar as linhas antigas com a versão nova. Quem confirma essa
+	// transação chama DaoFactory.invalidateCaches() depois do commit.
+	private void tableChanged(boolean callerTx, Integer id) {
+		if (!callerTx) {
+			TableVersions.bump(ChangeEvent.Table.SELLER);
+		} else if (changes != null) {
+			changes.touch(ChangeEvent.Table.SELLER, id);
+		}
+	}
+
+	private void publish(boolean callerTx, ChangeEvent event) {
+		if (!callerTx) {
+			DaoFactory.getChangeFeed().publish(event);
+		} else if (changes != null) {
+			changes.add(event);
+		}
+	}
+
+	// Executa o lote de INSERT e grava os ids gerados nos objetos, na ordem de entrada
+	private void executeInsertBatch(PreparedStatement st, List<Seller> chunk) throws SQLException {
+		st.executeBatch();
+
+		ResultSet rs = st.getGeneratedKeys();
+		try {
+			int i = 0;
+			while (rs.next() && i < chunk.size()) {
+				chunk.get(i++).setId(rs.getInt(1));
+			}
+			if (i != chunk.size()) {
+				throw new DBException("Unexpected error! Expected " + chunk.size()
+						+ " generated keys but got " + i);
+			}
+		} finally {
+			DB.closeResultSet(rs);
+		}
+	}
+
+	// Define os parâmetros só das colunas marcadas em fields, na ordem de UPDATE_COLUMNS;
+	// devolve o índice do próximo parâmetro (o Id do WHERE)
+	private int setChangedParameters(PreparedStatement st, Seller obj, int fields) throws SQLException {
+		int index = 1;
+		if ((fields & Seller.NAME) != 0) {
+			st.setString(index++, obj.getName());
+		}
+		if ((fields & Seller.EMAIL) != 0) {
+			st.setString(index++, obj.getEmail());
+		}
+		if ((fields & Seller.BIRTH_DATE) != 0) {
+			st.setDate(index++, java.sql.Date.valueOf(obj.getBirthDate()));
+		}
+		if ((fields & Seller.BASE_SALARY) != 0) {
+			st.setDouble(index++, obj.getBaseSalary());
+		}
+		if ((fields & Seller.DEPARTMENT) != 0) {
+			st.setInt(index++, obj.getDepartment().getId());
+		}
+		return index;
+	}
+
+	// Monta o UPDATE de cada combinação de colunas (posição 0 fica vazia: nada a gravar)
+	private static String[] buildUpdateSql(boolean checkVersion) {
+		String[] sql = new String[Seller.ALL_FIELDS + 1];
+		for (int fields = 1; fields <= Seller.ALL_FIELDS; fields++) {
+			StringBuilder sb = new StringBuilder("UPDATE seller SET ");
+			for (int i = 0; i < UPDATE_COLUMNS.length; i++) {
+				if ((fields & (1 << i)) != 0) {
+					if (sb.charAt(sb.length() - 1) == '?') {
+						sb.append(", ");
+					}
+					sb.append(UPDATE_COLUMNS[i]).append(" = ?");
+				}
+			}
+			if (VERSIONED) {
+				sb.append(", Version = Version + 1");
+			}
+			sb.append(" WHERE Id = ?");
+			if (checkVersion) {
+				sb.append(" AND Version = ?");
+			}
+			sql[fields] = sb.toString();
+		}
+		return sql;
+	}
+
+	// Objetos lidos do banco têm versão: o UPDATE confere se ninguém alterou antes.
+	// Objetos montados à mão (versão null) são gravados sem conferência.
+	private static boolean isChecked(Seller obj) {
+		return VERSIONED && obj.getVersion() != null;
+	}
+
+	// Linha do lote que não foi atualizada = versão mudou ou registro deletado
+	private static void checkBatch(int[] counts, List<Seller> sellers, int offset) {
+		for (int i = 0; i < counts.length; i++) {
+			// SUCCESS_NO_INFO: o driver não informa por linha, não há como conferir
+			if (counts[i] == 0) {
+				throw conflict(sellers.get(offset + i));
+			}
+		}
+	}
+
+	private static OptimisticLockException conflict(Seller obj) {
+		return new OptimisticLockException("Seller " + obj.getId() + " was changed or deleted since version "
+				+ obj.getVersion() + " was read");
+	}
+
+	// Define os 5 primeiros parâmetros (colunas do Seller) usados no INSERT
+	private void setSellerParameters(PreparedStatement st, Seller obj) throws SQLException {
+		st.setString(1, obj.getName());
+		st.setString(2, obj.getEmail());
+		st.setDate(3, java.sql.Date.valueOf(obj.getBirthDate()));
+		st.setDouble(4, obj.getBaseSalary());
+		st.setInt(5, obj.getDepartment().getId());
+	}
+
+	// Id nulo vira NULL: o banco gera um novo (ou a linha é achada pelo Email)
+	private void setUpsertParameters(PreparedStatement st, Seller obj) throws SQLException {
+		if (obj.getId() != null) {
+			st.setInt(1, obj.getId());
+		} else {
+			st.setNull(1, Types.INTEGER);
+		}
+		st.setString(2, obj.getName());
+		st.setString(3, obj.getEmail());
+		st.setDate(4, java.sql.Date.valueOf(obj.getBirthDate()));
+		st.setDouble(5, obj.getBaseSalary());
+		st.setInt(6, obj.getDepartment().getId());
+	}
+
+	// Executa um lote do upsertAll e acrescenta o resultado de cada linha em outcomes.
+	// As linhas que o lote pode tocar (pelos ids e pelos emails) são travadas e lidas antes; o lote é
+	// então repassado em memória, na ordem em que o banco vai executá-lo, para saber o que cada linha
+	// faz, inclusive quando o mesmo Id ou Email aparece mais de uma vez no lote. Um Id informado cujo
+	// Email já é de outra linha derruba o lote inteiro antes de executar.
+	private void executeUpsertBatch(Connection c, PreparedStatement st, List<Seller> chunk, boolean ignoreCase,
+			List<UpsertOutcome> outcomes) throws SQLException {
+		List<Integer> ids = new ArrayList<>();
+		List<String> emails = new ArrayList<>();
+		for (Seller obj : chunk) {
+			if (obj.getId() != null) {
+				ids.add(obj.getId());
+			}
+			emails.add(obj.getEmail());
+		}
+		// Email atual de cada Id e Id dono de cada Email; null = linha nova deste lote, Id ainda não gerado
+		Map<Integer, String> emailById = lockIds(c, ids, ignoreCase);
+		Map<String, Integer> idByEmail = findIdsByEmail(c, emails, ignoreCase);
+
+		List<UpsertOutcome> planned = new ArrayList<>(chunk.size());
+		List<String> inserted = new ArrayList<>();
+		for (Seller obj : chunk) {
+			String key = emailKey(obj.getEmail(), ignoreCase);
+			Integer id = obj.getId();
+			if (id != null) {
+				Integer owner = idByEmail.get(key);
+				if (idByEmail.containsKey(key) && !id.equals(owner)) {
+					throw new DbIntegrityException("Email " + obj.getEmail() + " already belongs to "
+							+ (owner != null ? "seller " + owner : "another seller in the same upsert"));
+				}
+				String previous = emailById.put(id, key);
+				planned.add(previous == null ? UpsertOutcome.INSERTED : UpsertOutcome.UPDATED);
+				if (previous != null && !previous.equals(key)) {
+					idByEmail.remove(previous);
+				}
+				idByEmail.put(key, id);
+			} else if (idByEmail.containsKey(key)) {
+				planned.add(UpsertOutcome.UPDATED);
+			} else {
+				planned.add(UpsertOutcome.INSERTED);
+				idByEmail.put(key, null);
+				inserted.add(obj.getEmail());
+			}
+		}
+
+		for (Seller obj : chunk) {
+			setUpsertParameters(st, obj);
+			st.addBatch();
+		}
+		int[] counts = st.executeBatch();
+
+		// Ids gerados (e os de quem atualizou uma linha nova do próprio lote), pelo Email
+		if (!inserted.isEmpty()) {
+			idByEmail.putAll(findIdsByEmail(c, inserted, ignoreCase));
+		}
+		for (int i = 0; i < chunk.size(); i++) {
+			Seller obj = chunk.get(i);
+			if (obj.getId() == null) {
+				Integer id = idByEmail.get(emailKey(obj.getEmail(), ignoreCase));
+				if (id == null) {
+					throw new DBException("Unexpected error! Upserted seller not found: " + obj.getEmail());
+				}
+				obj.setId(id);
+			}
+			UpsertOutcome outcome = planned.get(i);
+			// 0 só vem do MySQL (linha com os mesmos valores); SUCCESS_NO_INFO conta como alterada
+			outcomes.add(outcome == UpsertOutcome.UPDATED && counts[i] == 0 ? UpsertOutcome.UNCHANGED : outcome);
+		}
+	}
+
+	// Trava as linhas que existem com esses ids; devolve o Email (pela chave de emailKey) de cada Id encontrado
+	private Map<Integer, String> lockIds(Connection c, List<Integer> ids, boolean ignoreCase) throws SQLException {
+		Map<Integer, String> found = new HashMap<>();
+		int chunkSize = InClause.getChunkSize();
+
+		for (List<Integer> chunk : InClause.chunks(ids, chunkSize)) {
+			int bucket = InClause.bucketSize(chunk.size(), chunkSize);
+			PreparedStatement st = null;
+			ResultSet rs = null;
+			try {
+				st = DB.prepareStatement(c, InClause.sql("seller.lockIds", bucket,
+						n -> LOCK_BY_IDS_SQL + InClause.placeholders(n) + ") FOR UPDATE"));
+				// Completa o balde repetindo o último id
+				for (int i = 0; i < bucket; i++) {
+					st.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+				}
+				rs = st.executeQuery();
+				while (rs.next()) {
+					found.put(rs.getInt(1), emailKey(rs.getString(2), ignoreCase));
+				}
+			} finally {
+				DB.closeResultSet(rs);
+				DB.closeStatement(st);
+			}
+		}
+		return found;
+	}
+
+	// Id das linhas com esses emails (travadas até o fim da transação), pela chave de emailKey
+	private Map<String, Integer> findIdsByEmail(Connection c, List<String> emails, boolean ignoreCase)
+			throws SQLException {
+		Map<String, Integer> found = new HashMap<>();
+		int chunkSize = InClause.getChunkSize();
+
+		for (int from = 0; from < emails.size(); from += chunkSize) {
+			List<String> chunk = emails.subList(from, Math.min(from + chunkSize, emails.size()));
+			int bucket = InClause.bucketSize(chunk.size(), chunkSize);
+			PreparedStatement st = null;
+			ResultSet rs = null;
+			try {
+				st = DB.prepareStatement(c, InClause.sql("seller.lockEmails", bucket,
+						n -> LOCK_BY_EMAILS_SQL + InClause.placeholders(n) + ") FOR UPDATE"));
+				for (int i = 0; i < bucket; i++) {
+					st.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+				}
+				rs = st.executeQuery();
+				while (rs.next()) {
+					found.put(emailKey(rs.getString(2), ignoreCase), rs.getInt(1));
+				}
+			} finally {
+				DB.closeResultSet(rs);
+				DB.closeStatement(st);
+			}
+		}
+		return found;
+	}
+
+	// A collation padrão do MySQL compara Email sem diferenciar maiúsculas; o H2 diferencia
+	private static String emailKey(String email, boolean ignoreCase) {
+		return ignoreCase ? email.toLowerCase(Locale.ROOT) : email;
+	}
+
+	// Depois do commit: objeto limpo, versão e evento conforme o resultado
+	private void afterUpsert(boolean callerTx, Seller obj, UpsertOutcome outcome) {
+		obj.markClean();
+		if (VERSIONED) {
+			// A versão de uma linha que já existia não é lida: o próximo update vai sem conferência
+			obj.setVersion(outcome == UpsertOutcome.INSERTED ? Integer.valueOf(0) : null);
+		}
+		if (outcome != UpsertOutcome.UNCHANGED) {
+			publish(callerTx, outcome == UpsertOutcome.INSERTED ? ChangeEvent.Operation.INSERT
+					: ChangeEvent.Operation.UPDATE, obj);
 		}
 	}
 
 	// Busca um Seller pelo ID
 	@Override
 	public Seller findById(Integer id) {
+		Connection c = null;
 		PreparedStatement st = null;
 		ResultSet rs = null;
 
 		try {
-			st = conn.prepareStatement(
-				"SELECT seller.*, department.Name as DepName "
-				+ "FROM seller INNER JOIN department "
-				+ "ON seller.DepartmentId = department.Id "
-				+ "WHERE seller.Id = ?");
+			c = acquireRead();
+			st = DB.prepareStatement(c, FIND_BY_ID_SQL);
 
 			st.setInt(1, id);
+			long[] registry = DepartmentRegistry.snapshot();
 			rs = st.executeQuery();
 
 			if (rs.next()) {
-				// Cria o Department e o Seller a partir dos dados do banco
-				Department dep = instantiateDepartment(rs);
-				Seller obj = instantiateSeller(rs, dep);
-				return obj;
+				// Cria o Seller (e pega o Department) a partir dos dados do banco
+				return new SellerRowMapper(rs, registry).map(rs);
 			}
 
 			return null;
@@ -144,117 +867,289 @@ public class SellerDaoJDBC implements SellerDao {
 		} catch (SQLException e) {
 			throw new DBException("Error" + e.getMessage());
 		} finally {
-			DB.closeStatement(st);
 			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
 		}
 	}
 
-	// Método auxiliar para criar um Seller a partir do ResultSet
-	private Seller instantiateSeller(ResultSet rs, Department dep) throws SQLException {
-		Seller obj = new Seller();
-		obj.setId(rs.getInt("Id"));
-		obj.setName(rs.getString("Name"));
-		obj.setEmail(rs.getString("Email"));
-		obj.setBaseSalary(rs.getDouble("BaseSalary"));
-		obj.setBirthDate(rs.getDate("BirthDate").toLocalDate());
-		obj.setDepartment(dep);
-		return obj;
-	}
+	// Busca vários Sellers de uma vez: uma consulta IN (...) por pedaço de ids,
+	// em vez de um findById por id. Ids não encontrados ficam fora do mapa.
+	@Override
+	public Map<Integer, Seller> findByIds(Collection<Integer> ids) {
+		Map<Integer, Seller> result = new HashMap<>(Math.max(16, ids.size() * 4 / 3 + 1));
+		if (ids.isEmpty()) {
+			return result;
+		}
+
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try {
+			c = acquireRead();
+			int chunkSize = InClause.getChunkSize();
+
+			for (List<Integer> chunk : InClause.chunks(ids, chunkSize)) {
+				// Completa o pedaço até o tamanho do balde repetindo o último id
+				int bucket = InClause.bucketSize(chunk.size(), chunkSize);
+				st = DB.prepareStatement(c,
+						InClause.sql("seller", bucket, n -> FIND_BY_IDS_SQL + InClause.placeholders(n) + ")"));
+				for (int i = 0; i < bucket; i++) {
+					st.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+				}
+
+				long[] registry = DepartmentRegistry.snapshot();
+				rs = st.executeQuery();
+				SellerRowMapper mapper = new SellerRowMapper(rs, registry);
+				while (rs.next()) {
+					Seller obj = mapper.map(rs);
+					result.put(obj.getId(), obj);
+				}
+
+				DB.closeResultSet(rs);
+				rs = null;
+				DB.closeStatement(st);
+				st = null;
+			}
+			return result;
 
-	// Método auxiliar para criar um Department a partir do ResultSet
-	private Department instantiateDepartment(ResultSet rs) throws SQLException {
-		Department dep = new Department();
-		dep.setId(rs.getInt("DepartmentId"));
-		dep.setName(rs.getString("DepName"));
-		return dep;
+		} catch (SQLException e) {
+			throw new DBException("Error" + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+		}
 	}
 
 	// Busca todos os Sellers (com os respectivos Departments)
 	@Override
 	public List<Seller> findAll() {
+		Connection c = null;
 		PreparedStatement st = null;
 		ResultSet rs = null;
 
 		try {
-			st = conn.prepareStatement(
-				"SELECT seller.*, department.Name as DepName " 
-				+ "FROM seller "
-				+ "INNER JOIN department "
-				+ "ON seller.DepartmentId = department.Id "
-				+ "ORDER BY Name");
+			c = acquireRead();
+			st = DB.prepareStatement(c, FIND_ALL_SQL);
 
+			long[] registry = DepartmentRegistry.snapshot();
 			rs = st.executeQuery();
 
-			List<Seller> list = new ArrayList<>();
-			Map<Integer, Department> map = new HashMap<>(); // cache de departamentos
-
-			while (rs.next()) {
-				// Busca no cache se já temos o Department carregado
-				Department dep = map.get(rs.getInt("DepartmentId"));
-
-				if (dep == null) {
-					// Se não, cria e adiciona no cache
-					dep = instantiateDepartment(rs);
-					map.put(rs.getInt("DepartmentId"), dep);
-				}
-				// Cria o Seller associando ao Department já cacheado
-				Seller obj = instantiateSeller(rs, dep);
-				list.add(obj);
-			}
+			List<Seller> list = instantiateSellers(rs, 16, registry);
  /*
-  * Isso evita criar vários objetos Department duplicados para o mesmo ID.
-  * Todos os Seller que pertencem ao mesmo departamento vão compartilhar a
-  * mesma instância de Department. Ultilizando a mesma técnia no findByDepartment;
+  * O DepartmentRegistry evita criar vários objetos Department duplicados para o mesmo ID,
+  * não só nesta consulta mas em todas: todos os Seller que pertencem ao mesmo departamento
+  * vão compartilhar a mesma instância de Department. Ultilizando a mesma técnia no findByDepartment;
   */
 			return list;
 
 		} catch (SQLException e) {
 			throw new DBException("Error" + e.getMessage());
 		} finally {
-			DB.closeStatement(st);
 			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
 		}
 	}
 
 	// Busca todos os Sellers de um determinado Department
 	@Override
 	public List<Seller> findByDepartment(Department department) {
+		Connection c = null;
 		PreparedStatement st = null;
 		ResultSet rs = null;
 
 		try {
-			st = conn.prepareStatement(
-				"SELECT seller.*, department.Name as DepName " 
-				+ "FROM seller INNER JOIN department "
-				+ "ON seller.DepartmentId = department.Id "
-				+ "WHERE DepartmentId = ? "
-				+ "ORDER BY Name");
+			c = acquireRead();
+			st = DB.prepareStatement(c, FIND_BY_DEPARTMENT_SQL);
 
 			st.setInt(1, department.getId());
+			long[] registry = DepartmentRegistry.snapshot();
 			rs = st.executeQuery();
 
-			List<Seller> list = new ArrayList<>();
-			Map<Integer, Department> map = new HashMap<>(); // cache de departamentos
+			return instantiateSellers(rs, 16, registry);
 
-			while (rs.next()) {
-				Department dep = map.get(rs.getInt("DepartmentId"));
+		} catch (SQLException e) {
+			throw new DBException("Error" + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
 
-				if (dep == null) {
-					dep = instantiateDepartment(rs);
-					map.put(rs.getInt("DepartmentId"), dep);
-				}
+	// Busca uma página de Sellers ordenada por (Name, Id).
+	// after é o último Seller da página anterior (null para a primeira página).
+	@Override
+	public List<Seller> findPage(Seller after, int limit) {
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
 
-				Seller obj = instantiateSeller(rs, dep);
-				list.add(obj);
+		try {
+			c = acquireRead();
+			if (after == null) {
+				st = DB.prepareStatement(c, FIRST_PAGE_SQL);
+				st.setInt(1, limit);
+			} else {
+				st = DB.prepareStatement(c, NEXT_PAGE_SQL);
+				setPageKey(st, 1, after);
+				st.setInt(4, limit);
 			}
 
-			return list;
+			long[] registry = DepartmentRegistry.snapshot();
+			rs = st.executeQuery();
+			return instantiateSellers(rs, limit, registry);
+
+		} catch (SQLException e) {
+			throw new DBException("Error" + e.getMessage());
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	// Mesma paginação do findPage, só com os Sellers de um Department
+	@Override
+	public List<Seller> findByDepartmentPage(Department department, Seller after, int limit) {
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try {
+			c = acquireRead();
+			if (after == null) {
+				st = DB.prepareStatement(c, FIRST_DEPARTMENT_PAGE_SQL);
+				st.setInt(1, department.getId());
+				st.setInt(2, limit);
+			} else {
+				st = DB.prepareStatement(c, NEXT_DEPARTMENT_PAGE_SQL);
+				st.setInt(1, department.getId());
+				setPageKey(st, 2, after);
+				st.setInt(5, limit);
+			}
+
+			long[] registry = DepartmentRegistry.snapshot();
+			rs = st.executeQuery();
+			return instantiateSellers(rs, limit, registry);
 
 		} catch (SQLException e) {
 			throw new DBException("Error" + e.getMessage());
 		} finally {
+			DB.closeResultSet(rs);
 			DB.closeStatement(st);
+			release(c);
+		}
+	}
+
+	// Define os 3 parâmetros da chave (Name, Name, Id) a partir da posição informada
+	private void setPageKey(PreparedStatement st, int index, Seller after) throws SQLException {
+		st.setString(index, after.getName());
+		st.setString(index + 1, after.getName());
+		st.setInt(index + 2, after.getId());
+	}
+
+	// Monta a lista de Sellers do ResultSet; o Department vem do registro compartilhado
+	// (registry = DepartmentRegistry.snapshot() tirado antes da consulta)
+	private List<Seller> instantiateSellers(ResultSet rs, int expectedSize, long[] registry) throws SQLException {
+		List<Seller> list = new ArrayList<>(expectedSize);
+		SellerRowMapper mapper = new SellerRowMapper(rs, registry);
+
+		while (rs.next()) {
+			list.add(mapper.map(rs));
+		}
+		return list;
+	}
+
+	// Percorre todos os Sellers sem montar a lista inteira na memória.
+	// O ResultSet é forward-only/read-only e traz stream.fetchSize linhas por vez;
+	// a conexão fica presa até o Stream ser fechado (use try-with-resources)
+	// ou até a última linha ser lida.
+	@Override
+	public Stream<Seller> streamAll() {
+		Connection c = null;
+		PreparedStatement st = null;
+		ResultSet rs = null;
+
+		try {
+			c = acquireRead();
+			// Statement fora do cache: o fetch size é próprio da leitura em streaming
+			st = c.prepareStatement(FIND_ALL_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			st.setFetchSize(DB.getStreamFetchSize());
+			long[] registry = DepartmentRegistry.snapshot();
+			rs = st.executeQuery();
+
+			SellerCursor cursor = new SellerCursor(c, st, rs, registry);
+			return StreamSupport.stream(cursor, false).onClose(cursor::close);
+
+		} catch (SQLException e) {
 			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+			release(c);
+			throw new DBException("Error" + e.getMessage());
+		}
+	}
+
+	// Variante com callback: chama action para cada Seller e fecha tudo no final
+	@Override
+	public void forEach(Consumer<? super Seller> action) {
+		try (Stream<Seller> stream = streamAll()) {
+			stream.forEachOrdered(action);
+		}
+	}
+
+	// Lê o ResultSet sob demanda, uma linha por tryAdvance
+	private class SellerCursor extends Spliterators.AbstractSpliterator<Seller> {
+
+		private final Connection c;
+		private final PreparedStatement st;
+		private final ResultSet rs;
+		private final SellerRowMapper mapper;
+		private boolean closed;
+
+		SellerCursor(Connection c, PreparedStatement st, ResultSet rs, long[] registry) throws SQLException {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.c = c;
+			this.st = st;
+			this.rs = rs;
+			this.mapper = new SellerRowMapper(rs, registry);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Seller> action) {
+			if (closed) {
+				return false;
+			}
+			try {
+				if (!rs.next()) {
+					// Acabaram as linhas: já devolve a conexão ao pool
+					close();
+					return false;
+				}
+
+				action.accept(mapper.map(rs));
+				return true;
+
+			} catch (SQLException e) {
+				close();
+				throw new DBException("Error" + e.getMessage());
+			}
+		}
+
+		void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			try {
+				DB.closeResultSet(rs);
+				DB.closeStatement(st);
+			} finally {
+				release(c);
+			}
 		}
 	}
 }
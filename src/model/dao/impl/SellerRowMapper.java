@@ -0,0 +1,80 @@
+package model.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import db.DB;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Mapeia as linhas de uma consulta que usa SellerRowMapper.COLUMNS.
+// Crie um por ResultSet: os índices das colunas são resolvidos no construtor. registrySnapshot é o
+// DepartmentRegistry.snapshot() tirado antes de executar a consulta.
+// Os Sellers de um mesmo mapper (um resultado) compartilham um Department por id, cópia do que está no
+// registro: alterar o departamento de um resultado não muda o de outros resultados nem o do registro.
+public class SellerRowMapper implements RowMapper<Seller> {
+
+	// Com optimisticLocking.enabled=true a coluna Version também é lida (decidido uma vez, na carga da classe)
+	static final boolean VERSIONED = DB.isOptimisticLocking();
+
+	// Lista explícita de colunas (no lugar de seller.*): só trafega o que é usado
+	public static final String COLUMNS = "seller.Id, seller.Name, seller.Email, seller.BirthDate, "
+			+ "seller.BaseSalary, seller.DepartmentId, department.Name AS DepName"
+			+ (VERSIONED ? ", seller.Version" : "");
+
+	private final int id;
+	private final int name;
+	private final int email;
+	private final int birthDate;
+	private final int baseSalary;
+	private final int departmentId;
+	private final int departmentName;
+	private final int version;
+	private final long[] registrySnapshot;
+	private final Map<Integer, Department> departments = new HashMap<>();
+
+	public SellerRowMapper(ResultSet rs, long[] registrySnapshot) throws SQLException {
+		this.id = rs.findColumn("Id");
+		this.name = rs.findColumn("Name");
+		this.email = rs.findColumn("Email");
+		this.birthDate = rs.findColumn("BirthDate");
+		this.baseSalary = rs.findColumn("BaseSalary");
+		this.departmentId = rs.findColumn("DepartmentId");
+		this.departmentName = rs.findColumn("DepName");
+		this.version = VERSIONED ? rs.findColumn("Version") : 0;
+		this.registrySnapshot = registrySnapshot;
+	}
+
+	@Override
+	public Seller map(ResultSet rs) throws SQLException {
+		// Department vem do registro compartilhado (o nome só é lido na primeira vez), copiado uma vez
+		// por resultado. DepartmentId NULL (consultas com LEFT JOIN) = seller sem departamento
+		Integer depId = rs.getInt(departmentId);
+		Department dep = null;
+		if (!rs.wasNull()) {
+			dep = departments.get(depId);
+			if (dep == null) {
+				dep = new Department(DepartmentRegistry.resolve(rs, departmentId, departmentName, registrySnapshot));
+				departments.put(depId, dep);
+			}
+		}
+
+		Seller seller = new Seller(
+				rs.getInt(id),
+				rs.getString(name),
+				rs.getString(email),
+				// getObject(LocalDate) evita criar um java.sql.Date intermediário
+				rs.getObject(birthDate, LocalDate.class),
+				rs.getDouble(baseSalary),
+				dep);
+		if (VERSIONED) {
+			seller.setVersion(rs.getInt(version));
+		}
+		// Acabou de vir do banco: o próximo update grava só o que for alterado
+		seller.markClean();
+		return seller;
+	}
+}
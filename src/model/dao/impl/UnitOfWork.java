@@ -0,0 +1,266 @@
+package model.dao.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import db.DB;
+import db.DBException;
+import model.dao.DepartmentDao;
+import model.dao.SellerDao;
+import model.dao.change.ChangeBuffer;
+import model.dao.change.ChangeEvent;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Unidade de trabalho: prende UMA conexão do pool numa transação e acumula as
+// alterações (novos, alterados, removidos). No commit() tudo é gravado em lotes
+// (insertAll/updateAll/deleteByIds) e confirmado com um único COMMIT; se algo falhar,
+// nada fica gravado. Crie com DaoFactory.createUnitOfWork() e use com try-with-resources.
+public class UnitOfWork implements AutoCloseable {
+
+	private final Connection conn;
+	private final SellerDao sellerDao;
+	private final DepartmentDao departmentDao;
+
+	// Eventos das gravações desta transação, publicados no ChangeFeed só depois do COMMIT
+	private final ChangeBuffer changes = new ChangeBuffer();
+
+	// Novos mantêm a ordem de registro; a identidade evita registrar o mesmo objeto duas vezes
+	private final List<Department> newDepartments = new ArrayList<>();
+	private final List<Seller> newSellers = new ArrayList<>();
+	private final Set<Object> registeredNew = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	// Alterados por id: se o mesmo id for registrado de novo, vale o último objeto
+	private final Map<Integer, Department> dirtyDepartments = new LinkedHashMap<>();
+	private final Map<Integer, Seller> dirtySellers = new LinkedHashMap<>();
+
+	private final Set<Integer> deletedDepartments = new LinkedHashSet<>();
+	private final Set<Integer> deletedSellers = new LinkedHashSet<>();
+
+	// Versões antes do commit, restauradas se ele falhar (optimisticLocking.enabled=true)
+	private final Map<Object, Integer> savedVersions = new IdentityHashMap<>();
+	// Ids dos novos antes do commit: o insertAll grava o Id gerado, que não existe depois do rollback
+	private final Map<Object, Integer> savedIds = new IdentityHashMap<>();
+
+	private boolean closed;
+
+	public UnitOfWork() {
+		this.conn = DB.getConnection();
+		try {
+			conn.setAutoCommit(false);
+		} catch (SQLException e) {
+			DB.closeConnection(conn);
+			throw new DBException(e.getMessage());
+		}
+		// DAOs presos à conexão: as operações em lote participam desta transação
+		this.sellerDao = new SellerDaoJDBC(conn, changes);
+		this.departmentDao = new DepartmentDaoJDBC(conn, changes);
+	}
+
+	// DAO que enxerga (e grava direto em) esta transação
+	public SellerDao getSellerDao() {
+		return sellerDao;
+	}
+
+	public DepartmentDao getDepartmentDao() {
+		return departmentDao;
+	}
+
+	public void registerNew(Seller obj) {
+		checkOpen();
+		if (registeredNew.add(obj)) {
+			newSellers.add(obj);
+		}
+	}
+
+	public void registerNew(Department obj) {
+		checkOpen();
+		if (registeredNew.add(obj)) {
+			newDepartments.add(obj);
+		}
+	}
+
+	// Objetos novos não precisam ser marcados como alterados: são inseridos com o estado final
+	public void registerDirty(Seller obj) {
+		checkOpen();
+		if (!registeredNew.contains(obj)) {
+			dirtySellers.put(requireId(obj.getId()), obj);
+		}
+	}
+
+	public void registerDirty(Department obj) {
+		checkOpen();
+		if (!registeredNew.contains(obj)) {
+			dirtyDepartments.put(requireId(obj.getId()), obj);
+		}
+	}
+
+	public void registerDeleted(Seller obj) {
+		checkOpen();
+		Integer id = requireId(obj.getId());
+		dirtySellers.remove(id);
+		deletedSellers.add(id);
+	}
+
+	public void registerDeleted(Department obj) {
+		checkOpen();
+		Integer id = requireId(obj.getId());
+		dirtyDepartments.remove(id);
+		deletedDepartments.add(id);
+	}
+
+	// Grava tudo em lotes e confirma a transação. A ordem respeita a chave estrangeira
+	// seller -> department: departamentos são inseridos antes e removidos depois dos sellers.
+	public void commit() {
+		checkOpen();
+		saveVersions();
+		try {
+			departmentDao.insertAll(newDepartments);
+			sellerDao.insertAll(newSellers);
+			departmentDao.updateAll(dirtyDepartments.values());
+			sellerDao.updateAll(dirtySellers.values());
+			sellerDao.deleteByIds(deletedSellers);
+			departmentDao.deleteByIds(deletedDepartments);
+			conn.commit();
+
+		} catch (SQLException e) {
+			rollbackQuietly();
+			throw new DBException(e.getMessage());
+		} catch (RuntimeException e) {
+			rollbackQuietly();
+			throw e;
+		}
+
+		invalidateCaches();
+		changes.publishTo(DaoFactory.getChangeFeed());
+		clear();
+	}
+
+	// Desfaz o que foi gravado nesta transação e descarta as alterações acumuladas
+	public void rollback() {
+		checkOpen();
+		try {
+			conn.rollback();
+		} catch (SQLException e) {
+			throw new DBException(e.getMessage());
+		} finally {
+			clear();
+		}
+	}
+
+	// Desfaz o que não foi confirmado e devolve a conexão ao pool
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		changes.clear();
+		try {
+			conn.rollback();
+			conn.setAutoCommit(true);
+		} catch (SQLException e) {
+			throw new DBException(e.getMessage());
+		} finally {
+			DB.closeConnection(conn);
+		}
+	}
+
+	// Em caso de falha no commit: a exceção original é a que interessa
+	private void rollbackQuietly() {
+		try {
+			conn.rollback();
+		} catch (SQLException e) {
+			// A conexão provavelmente caiu; o pool descarta ela no close()
+		}
+		// Os lotes já executados marcaram os objetos como gravados, mas o rollback
+		// desfez tudo: marca de novo para que uma nova tentativa grave todas as colunas
+		newDepartments.forEach(Department::markDirty);
+		newSellers.forEach(Seller::markDirty);
+		dirtyDepartments.values().forEach(Department::markDirty);
+		dirtySellers.values().forEach(Seller::markDirty);
+		// ... volta os novos para o Id e a versão de antes (o Id gerado foi desfeito junto com o INSERT)
+		for (Department obj : newDepartments) {
+			obj.setId(savedIds.get(obj));
+			obj.setVersion(savedVersions.get(obj));
+		}
+		for (Seller obj : newSellers) {
+			obj.setId(savedIds.get(obj));
+			obj.setVersion(savedVersions.get(obj));
+		}
+		// ... e os alterados para as versões lidas do banco
+		for (Department obj : dirtyDepartments.values()) {
+			obj.setVersion(savedVersions.get(obj));
+		}
+		for (Seller obj : dirtySellers.values()) {
+			obj.setVersion(savedVersions.get(obj));
+		}
+		clear();
+	}
+
+	// Os caches compartilhados só são invalidados depois do COMMIT: antes disso,
+	// outra thread poderia recarregar o valor antigo logo após a invalidação.
+	// Os ids vêm de changes: inclui o que foi gravado direto por getSellerDao()/getDepartmentDao()
+	private void invalidateCaches() {
+		for (Integer id : changes.getChangedIds(ChangeEvent.Table.SELLER)) {
+			DaoFactory.getSellerCache().invalidate(id);
+		}
+		for (Integer id : changes.getChangedIds(ChangeEvent.Table.DEPARTMENT)) {
+			DaoFactory.getDepartmentCache().invalidate(id);
+			DepartmentRegistry.invalidate(id);
+		}
+	}
+
+	private void saveVersions() {
+		savedVersions.clear();
+		savedIds.clear();
+		for (Department obj : newDepartments) {
+			savedIds.put(obj, obj.getId());
+			savedVersions.put(obj, obj.getVersion());
+		}
+		for (Seller obj : newSellers) {
+			savedIds.put(obj, obj.getId());
+			savedVersions.put(obj, obj.getVersion());
+		}
+		for (Department obj : dirtyDepartments.values()) {
+			savedVersions.put(obj, obj.getVersion());
+		}
+		for (Seller obj : dirtySellers.values()) {
+			savedVersions.put(obj, obj.getVersion());
+		}
+	}
+
+	private void clear() {
+		changes.clear();
+		newDepartments.clear();
+		newSellers.clear();
+		registeredNew.clear();
+		dirtyDepartments.clear();
+		dirtySellers.clear();
+		deletedDepartments.clear();
+		deletedSellers.clear();
+		savedVersions.clear();
+		savedIds.clear();
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new DBException("Unit of work is closed");
+		}
+	}
+
+	private static Integer requireId(Integer id) {
+		if (id == null) {
+			throw new DBException("Entity has no id");
+		}
+		return id;
+	}
+}
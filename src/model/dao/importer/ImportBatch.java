@@ -0,0 +1,42 @@
+package model.dao.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.entities.Seller;
+
+// Registros consecutivos do arquivo, de from (inclusive) até to (exclusive), em bytes.
+// O parser preenche records/offsets; a validação troca por sellers e conta os rejeitados;
+// o writer grava tudo numa transação e marca a faixa como concluída no checkpoint.
+class ImportBatch {
+
+	// Marca de fim da fila
+	static final ImportBatch END = new ImportBatch(-1);
+
+	final long from;
+	long to;
+
+	List<String[]> records;
+	long[] offsets;
+	List<Seller> sellers;
+	int rejected;
+
+	ImportBatch(long from) {
+		this.from = from;
+	}
+
+	ImportBatch(long from, int capacity) {
+		this.from = from;
+		this.records = new ArrayList<>(capacity);
+		this.offsets = new long[capacity];
+	}
+
+	void addRecord(String[] record, long offset) {
+		offsets[records.size()] = offset;
+		records.add(record);
+	}
+
+	int size() {
+		return records.size();
+	}
+}
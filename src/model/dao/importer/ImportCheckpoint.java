@@ -0,0 +1,130 @@
+package model.dao.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import db.DBException;
+
+// Faixas do arquivo (em bytes) cujas linhas já foram confirmadas no banco, gravadas num arquivo
+// .properties depois de cada commit. Os writers terminam fora de ordem, então é guardada a lista
+// de faixas (juntando as vizinhas) e não só até onde foi; ao retomar, o parser pula essas faixas.
+// O arquivo só vale para o mesmo CSV: tamanho e data de alteração são conferidos.
+class ImportCheckpoint {
+
+	private final Path file;
+	private final long sourceSize;
+	private final long sourceModified;
+
+	// início -> fim (exclusivo) das faixas concluídas, sem sobreposição
+	private final TreeMap<Long, Long> done = new TreeMap<>();
+	// Cópia das faixas da execução anterior, consultada pelo parser sem esperar pelos writers
+	private final TreeMap<Long, Long> previous = new TreeMap<>();
+	private long inserted;
+	private long rejected;
+
+	private ImportCheckpoint(Path file, long sourceSize, long sourceModified) {
+		this.file = file;
+		this.sourceSize = sourceSize;
+		this.sourceModified = sourceModified;
+	}
+
+	// Lê o checkpoint de uma execução anterior, se existir, ou começa um vazio
+	static ImportCheckpoint open(Path file, Path source) throws IOException {
+		ImportCheckpoint checkpoint = new ImportCheckpoint(file, Files.size(source),
+				Files.getLastModifiedTime(source).toMillis());
+		if (!Files.exists(file)) {
+			return checkpoint;
+		}
+
+		Properties props = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			props.load(in);
+		}
+		if (Long.parseLong(props.getProperty("source.size")) != checkpoint.sourceSize
+				|| Long.parseLong(props.getProperty("source.lastModified")) != checkpoint.sourceModified) {
+			throw new DBException("Checkpoint " + file + " belongs to another version of " + source
+					+ "; delete it to import from the beginning");
+		}
+		checkpoint.inserted = Long.parseLong(props.getProperty("rows.inserted"));
+		checkpoint.rejected = Long.parseLong(props.getProperty("rows.rejected"));
+		String ranges = props.getProperty("done", "");
+		if (!ranges.isEmpty()) {
+			for (String range : ranges.split(",")) {
+				int dash = range.indexOf('-');
+				checkpoint.done.put(Long.parseLong(range.substring(0, dash)),
+						Long.parseLong(range.substring(dash + 1)));
+			}
+		}
+		checkpoint.previous.putAll(checkpoint.done);
+		return checkpoint;
+	}
+
+	// Se offset cai numa faixa concluída por uma execução anterior, devolve o fim dela; senão -1
+	long skip(long offset) {
+		Map.Entry<Long, Long> range = previous.floorEntry(offset);
+		return range != null && offset < range.getValue() ? range.getValue() : -1;
+	}
+
+	// Registra a faixa [from, to) como confirmada no banco e grava o arquivo
+	synchronized void markDone(long from, long to, int insertedRows, int rejectedRows) throws IOException {
+		if (from < to) {
+			long start = from;
+			long end = to;
+			Map.Entry<Long, Long> before = done.floorEntry(from);
+			if (before != null && before.getValue() >= from) {
+				start = before.getKey();
+				end = Math.max(end, before.getValue());
+				done.remove(before.getKey());
+			}
+			Long after = done.ceilingKey(start);
+			while (after != null && after <= end) {
+				end = Math.max(end, done.remove(after));
+				after = done.ceilingKey(start);
+			}
+			done.put(start, end);
+		}
+		inserted += insertedRows;
+		rejected += rejectedRows;
+		save();
+	}
+
+	synchronized long getInserted() {
+		return inserted;
+	}
+
+	// Importação terminou: não há o que retomar
+	void delete() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	// Grava num temporário e troca de uma vez: uma queda no meio nunca deixa o checkpoint pela metade
+	private void save() throws IOException {
+		StringBuilder ranges = new StringBuilder();
+		for (Map.Entry<Long, Long> range : done.entrySet()) {
+			if (ranges.length() > 0) {
+				ranges.append(',');
+			}
+			ranges.append(range.getKey()).append('-').append(range.getValue());
+		}
+
+		Properties props = new Properties();
+		props.setProperty("source.size", String.valueOf(sourceSize));
+		props.setProperty("source.lastModified", String.valueOf(sourceModified));
+		props.setProperty("rows.inserted", String.valueOf(inserted));
+		props.setProperty("rows.rejected", String.valueOf(rejected));
+		props.setProperty("done", ranges.toString());
+
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmp)) {
+			props.store(out, "seller import checkpoint");
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
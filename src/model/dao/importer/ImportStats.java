@@ -0,0 +1,85 @@
+package model.dao.importer;
+
+// Retrato de uma importação (em andamento, por SellerImporter.getProgress(), ou terminada).
+// As profundidades mostram onde está o gargalo: fila de validação cheia = validação lenta;
+// fila de escrita cheia = banco lento; as duas vazias = leitura do arquivo é o limite.
+public class ImportStats {
+
+	private final long rowsRead;
+	private final long rowsInserted;
+	private final long rowsRejected;
+	private final long previouslyInserted;
+	private final long elapsedMillis;
+	private final int validationQueueDepth;
+	private final int writeQueueDepth;
+	private final int maxValidationQueueDepth;
+	private final int maxWriteQueueDepth;
+
+	public ImportStats(long rowsRead, long rowsInserted, long rowsRejected, long previouslyInserted,
+			long elapsedMillis, int validationQueueDepth, int writeQueueDepth, int maxValidationQueueDepth,
+			int maxWriteQueueDepth) {
+		this.rowsRead = rowsRead;
+		this.rowsInserted = rowsInserted;
+		this.rowsRejected = rowsRejected;
+		this.previouslyInserted = previouslyInserted;
+		this.elapsedMillis = elapsedMillis;
+		this.validationQueueDepth = validationQueueDepth;
+		this.writeQueueDepth = writeQueueDepth;
+		this.maxValidationQueueDepth = maxValidationQueueDepth;
+		this.maxWriteQueueDepth = maxWriteQueueDepth;
+	}
+
+	// Registros lidos do arquivo nesta execução (sem os pulados pelo checkpoint)
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	// Confirmados no banco nesta execução
+	public long getRowsInserted() {
+		return rowsInserted;
+	}
+
+	// Inválidos, com departamento inexistente ou recusados pelo banco (ex.: Email repetido)
+	public long getRowsRejected() {
+		return rowsRejected;
+	}
+
+	// Confirmados por execuções anteriores (retomada pelo checkpoint)
+	public long getPreviouslyInserted() {
+		return previouslyInserted;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public double getRowsPerSecond() {
+		return rowsInserted * 1000.0 / Math.max(elapsedMillis, 1);
+	}
+
+	// Lotes esperando a validação (parser -> validação)
+	public int getValidationQueueDepth() {
+		return validationQueueDepth;
+	}
+
+	// Lotes esperando um writer (validação -> writers)
+	public int getWriteQueueDepth() {
+		return writeQueueDepth;
+	}
+
+	public int getMaxValidationQueueDepth() {
+		return maxValidationQueueDepth;
+	}
+
+	public int getMaxWriteQueueDepth() {
+		return maxWriteQueueDepth;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ImportStats [read=%d, inserted=%d, rejected=%d, previouslyInserted=%d, "
+				+ "elapsedMillis=%d, rowsPerSecond=%.0f, validationQueue=%d (max %d), writeQueue=%d (max %d)]",
+				rowsRead, rowsInserted, rowsRejected, previouslyInserted, elapsedMillis, getRowsPerSecond(),
+				validationQueueDepth, maxValidationQueueDepth, writeQueueDepth, maxWriteQueueDepth);
+	}
+}
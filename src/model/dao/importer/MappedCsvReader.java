@@ -0,0 +1,187 @@
+package model.dao.importer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import db.DBException;
+
+// Lê um CSV (RFC 4180, UTF-8) mapeando o arquivo em janelas de WINDOW bytes com FileChannel.map:
+// os bytes são lidos direto do page cache, sem cópia para um buffer de leitura. Campos entre aspas
+// podem ter vírgulas, aspas dobradas e quebras de linha; "\n" e "\r\n" terminam o registro;
+// linhas em branco são puladas. Cada registro sabe a posição (em bytes) onde começa e termina,
+// que é o que o checkpoint da importação grava.
+class MappedCsvReader implements AutoCloseable {
+
+	// Um registro nunca pode passar do tamanho da janela
+	static final int WINDOW = 64 << 20;
+
+	// Janela atual não tem o registro inteiro: mapeia de novo a partir do início dele
+	private static final int INCOMPLETE = -1;
+
+	private final FileChannel channel;
+	private final long size;
+
+	private MappedByteBuffer window;
+	private long windowStart;
+
+	private long position;
+	private long recordStart;
+
+	private final List<String> fields = new ArrayList<>();
+	private byte[] field = new byte[256];
+	private int fieldLength;
+
+	MappedCsvReader(Path file) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.size = channel.size();
+		map(0);
+		// BOM do UTF-8 (arquivos salvos pelo Excel) não faz parte do cabeçalho
+		if (size >= 3 && (window.get(0) & 0xFF) == 0xEF && (window.get(1) & 0xFF) == 0xBB
+				&& (window.get(2) & 0xFF) == 0xBF) {
+			position = 3;
+		}
+	}
+
+	// Próximo registro (um valor por campo), ou null no fim do arquivo
+	String[] next() throws IOException {
+		while (position < size) {
+			recordStart = position;
+			if (position < windowStart || position >= windowStart + window.limit()) {
+				map(position);
+			}
+			int end = scan((int) (position - windowStart));
+			if (end == INCOMPLETE) {
+				if (windowStart == recordStart) {
+					throw new DBException("CSV record at byte " + recordStart + " is larger than " + WINDOW + " bytes");
+				}
+				map(recordStart);
+				continue;
+			}
+			position = windowStart + end;
+			// Linha em branco
+			if (fields.size() == 1 && fields.get(0).isEmpty()) {
+				continue;
+			}
+			return fields.toArray(new String[0]);
+		}
+		return null;
+	}
+
+	// Onde começa o último registro devolvido por next()
+	long getRecordStart() {
+		return recordStart;
+	}
+
+	// Onde começa o próximo registro (= fim do último)
+	long getPosition() {
+		return position;
+	}
+
+	// Continua a leitura a partir de offset (que deve ser o início de um registro)
+	void seek(long offset) {
+		position = offset;
+	}
+
+	long size() {
+		return size;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void map(long start) throws IOException {
+		windowStart = start;
+		window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+	}
+
+	// Lê os campos de um registro a partir de i (índice na janela); devolve o índice logo depois
+	// do fim do registro ou INCOMPLETE se a janela acabar antes (e não for o fim do arquivo)
+	private int scan(int i) {
+		int limit = window.limit();
+		boolean lastWindow = windowStart + limit == size;
+		fields.clear();
+
+		while (true) {
+			fieldLength = 0;
+			if (i < limit && window.get(i) == '"') {
+				i++;
+				while (true) {
+					if (i >= limit) {
+						if (!lastWindow) {
+							return INCOMPLETE;
+						}
+						// Aspas sem fechamento no fim do arquivo: fica o que foi lido
+						break;
+					}
+					byte b = window.get(i);
+					if (b == '"') {
+						if (i + 1 >= limit && !lastWindow) {
+							return INCOMPLETE;
+						}
+						if (i + 1 < limit && window.get(i + 1) == '"') {
+							append((byte) '"');
+							i += 2;
+							continue;
+						}
+						i++;
+						break;
+					}
+					append(b);
+					i++;
+				}
+			}
+
+			// Parte sem aspas (ou o que vier depois das aspas fechadas, aceito como está)
+			while (i < limit) {
+				byte b = window.get(i);
+				if (b == ',' || b == '\n') {
+					break;
+				}
+				if (b == '\r') {
+					if (i + 1 >= limit && !lastWindow) {
+						return INCOMPLETE;
+					}
+					if (i + 1 >= limit || window.get(i + 1) == '\n') {
+						break;
+					}
+				}
+				append(b);
+				i++;
+			}
+			if (i >= limit && !lastWindow) {
+				return INCOMPLETE;
+			}
+
+			fields.add(new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+			if (i >= limit) {
+				return i;
+			}
+			byte terminator = window.get(i);
+			if (terminator == ',') {
+				i++;
+				continue;
+			}
+			// "\r\n", "\r" no fim do arquivo ou "\n"
+			if (terminator == '\r') {
+				i++;
+			}
+			return i < limit ? i + 1 : i;
+		}
+	}
+
+	private void append(byte b) {
+		if (fieldLength == field.length) {
+			field = Arrays.copyOf(field, field.length * 2);
+		}
+		field[fieldLength++] = b;
+	}
+}
@@ -0,0 +1,531 @@
+package model.dao.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import db.DB;
+import db.DBException;
+import model.dao.DepartmentDao;
+import model.dao.change.ChangeEvent;
+import model.dao.change.ChangeFeed;
+import model.dao.change.TableVersions;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Importa sellers de um CSV (colunas Name, Email, BirthDate, BaseSalary e DepartmentId, em qualquer
+// ordem; Id e outras colunas são ignoradas) em três estágios ligados por filas limitadas:
+//   parser    -> lê o arquivo mapeado em memória e monta lotes de import.batchRows registros
+//   validação -> converte os campos e resolve DepartmentId num mapa carregado uma vez (sem findById)
+//   writers   -> import.writers threads, cada uma com a própria conexão, gravam cada lote com um
+//                INSERT de várias linhas e confirmam uma transação por lote
+// Quando uma fila enche, o estágio anterior espera (nada acumula em memória sem limite).
+// Depois de cada commit a faixa do arquivo vai para o checkpoint; se a importação falhar, rodar
+// de novo com o mesmo arquivo continua de onde parou. Com assinantes no ChangeFeed, cada lote confirmado
+// publica um INSERT por seller gravado (os ids gerados só são pedidos ao banco nesse caso).
+// Crie com DaoFactory.createSellerImporter().
+public class SellerImporter {
+
+	private static final Logger LOG = Logger.getLogger("dao.import");
+
+	private static final String INSERT_PREFIX = "INSERT INTO seller "
+			+ "(Name, Email, BirthDate, BaseSalary, DepartmentId) "
+			+ "VALUES ";
+
+	private static final String ROW_VALUES = "(?, ?, ?, ?, ?)";
+
+	private static final String INSERT_SQL = INSERT_PREFIX + ROW_VALUES;
+
+	// Limite de parâmetros por statement do MySQL (5 por linha)
+	private static final int MAX_BATCH_ROWS = 65535 / 5;
+
+	// Tentativas de um lote desfeito pelo banco por deadlock com outro writer
+	private static final int MAX_ATTEMPTS = 3;
+
+	// De quanto em quanto tempo um estágio parado numa fila confere se a importação falhou
+	private static final long POLL_MILLIS = 100;
+
+	private final DepartmentDao departmentDao;
+	// null = não publica no ChangeFeed
+	private final ChangeFeed changeFeed;
+	private final int writers;
+	private final int batchRows;
+	private final int queueCapacity;
+	private final long progressMillis;
+
+	// INSERT com batchRows linhas, montado uma vez (fica no cache de statements de cada conexão)
+	private final String batchSql;
+
+	private volatile Run current;
+
+	public SellerImporter(DepartmentDao departmentDao, ChangeFeed changeFeed, int writers, int batchRows,
+			int queueCapacity, long progressMillis) {
+		if (writers < 1 || batchRows < 1 || queueCapacity < 1) {
+			throw new IllegalArgumentException("writers, batchRows and queueCapacity must be >= 1");
+		}
+		if (batchRows > MAX_BATCH_ROWS) {
+			throw new IllegalArgumentException("batchRows must be <= " + MAX_BATCH_ROWS);
+		}
+		this.departmentDao = departmentDao;
+		this.changeFeed = changeFeed;
+		this.writers = writers;
+		this.batchRows = batchRows;
+		this.queueCapacity = queueCapacity;
+		this.progressMillis = progressMillis;
+		this.batchSql = insertSql(batchRows);
+	}
+
+	// Importa file usando o checkpoint file + ".checkpoint" (ao lado do arquivo)
+	public ImportStats importFile(Path file) {
+		return importFile(file, file.resolveSibling(file.getFileName() + ".checkpoint"));
+	}
+
+	// Importa file; se checkpoint existir (de uma execução que falhou), pula o que já foi confirmado.
+	// Com sucesso o checkpoint é apagado.
+	public ImportStats importFile(Path file, Path checkpoint) {
+		Run run;
+		try {
+			run = new Run(file, checkpoint, ImportCheckpoint.open(checkpoint, file));
+		} catch (IOException e) {
+			throw new DBException("Error opening " + file + ": " + e.getMessage());
+		}
+		current = run;
+		try {
+			return run.execute();
+		} finally {
+			current = null;
+		}
+	}
+
+	// Andamento da importação em curso (de outra thread); null se não houver nenhuma
+	public ImportStats getProgress() {
+		Run run = current;
+		return run != null ? run.stats() : null;
+	}
+
+	private static String insertSql(int rows) {
+		StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_VALUES.length() + 2));
+		sql.append(INSERT_PREFIX);
+		for (int i = 0; i < rows; i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+			sql.append(ROW_VALUES);
+		}
+		return sql.toString();
+	}
+
+	private interface Stage {
+		void run() throws Exception;
+	}
+
+	// Estado de uma execução de importFile
+	private class Run {
+
+		private final Path file;
+		private final Path checkpointFile;
+		private final ImportCheckpoint checkpoint;
+		private final long previouslyInserted;
+		private final Map<Integer, Department> departments = new HashMap<>();
+
+		private final BlockingQueue<ImportBatch> validationQueue = new ArrayBlockingQueue<>(queueCapacity);
+		private final BlockingQueue<ImportBatch> writeQueue = new ArrayBlockingQueue<>(queueCapacity);
+		private final AtomicInteger maxValidationDepth = new AtomicInteger();
+		private final AtomicInteger maxWriteDepth = new AtomicInteger();
+
+		private final AtomicLong read = new AtomicLong();
+		private final AtomicLong inserted = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+		private final long start = System.nanoTime();
+
+		// Posição de cada coluna no registro, pelo cabeçalho
+		private int fieldCount;
+		private int nameField;
+		private int emailField;
+		private int birthDateField;
+		private int baseSalaryField;
+		private int departmentIdField;
+
+		Run(Path file, Path checkpointFile, ImportCheckpoint checkpoint) {
+			this.file = file;
+			this.checkpointFile = checkpointFile;
+			this.checkpoint = checkpoint;
+			this.previouslyInserted = checkpoint.getInserted();
+			for (Department dep : departmentDao.findAll()) {
+				departments.put(dep.getId(), dep);
+			}
+		}
+
+		ImportStats execute() {
+			List<Thread> threads = new ArrayList<>();
+			threads.add(thread("seller-import-parser", this::parse));
+			threads.add(thread("seller-import-validator", this::validate));
+			for (int i = 1; i <= writers; i++) {
+				threads.add(thread("seller-import-writer-" + i, this::write));
+			}
+			for (Thread t : threads) {
+				t.start();
+			}
+
+			try {
+				long nextLog = System.currentTimeMillis() + progressMillis;
+				for (Thread t : threads) {
+					while (t.isAlive()) {
+						t.join(progressMillis > 0 ? Math.max(1, nextLog - System.currentTimeMillis()) : 0);
+						if (progressMillis > 0 && System.currentTimeMillis() >= nextLog) {
+							LOG.info("Importing " + file + ": " + stats());
+							nextLog += progressMillis;
+						}
+					}
+				}
+			} catch (InterruptedException e) {
+				// Os estágios param sozinhos na próxima fila; o checkpoint já tem o que foi confirmado
+				failure.compareAndSet(null, e);
+				Thread.currentThread().interrupt();
+			}
+
+			Throwable cause = failure.get();
+			if (cause != null) {
+				String message = cause instanceof DBException ? cause.getMessage()
+						: cause instanceof InterruptedException ? "interrupted" : cause.toString();
+				throw new DBException("Error importing " + file + ": " + message + " (rows already committed are in "
+						+ checkpointFile + "; run the import again to resume)");
+			}
+			try {
+				checkpoint.delete();
+			} catch (IOException e) {
+				throw new DBException("Error deleting " + checkpointFile + ": " + e.getMessage());
+			}
+			ImportStats stats = stats();
+			LOG.info("Imported " + file + ": " + stats);
+			return stats;
+		}
+
+		ImportStats stats() {
+			return new ImportStats(read.get(), inserted.get(), rejected.get(), previouslyInserted,
+					(System.nanoTime() - start) / 1_000_000, validationQueue.size(), writeQueue.size(),
+					maxValidationDepth.get(), maxWriteDepth.get());
+		}
+
+		private Thread thread(String name, Stage stage) {
+			Thread t = new Thread(() -> {
+				try {
+					stage.run();
+				} catch (Throwable e) {
+					// Só a primeira falha conta; as outras são consequência dela (CancellationException)
+					failure.compareAndSet(null, e);
+				}
+			}, name);
+			t.setDaemon(true);
+			return t;
+		}
+
+		// Estágio 1: arquivo -> lotes de registros
+		private void parse() throws IOException, InterruptedException {
+			try (MappedCsvReader reader = new MappedCsvReader(file)) {
+				String[] header = reader.next();
+				if (header != null) {
+					resolveColumns(header);
+
+					ImportBatch batch = new ImportBatch(reader.getPosition(), batchRows);
+					while (true) {
+						// Faixa já confirmada numa execução anterior: fecha o lote atual e pula
+						long done = checkpoint.skip(reader.getPosition());
+						if (done >= 0) {
+							send(batch, reader.getPosition());
+							reader.seek(done);
+							batch = new ImportBatch(done, batchRows);
+							continue;
+						}
+						String[] record = reader.next();
+						if (record == null) {
+							break;
+						}
+						batch.addRecord(record, reader.getRecordStart());
+						read.incrementAndGet();
+						if (batch.size() == batchRows) {
+							send(batch, reader.getPosition());
+							batch = new ImportBatch(reader.getPosition(), batchRows);
+						}
+					}
+					send(batch, reader.getPosition());
+				}
+			}
+			put(validationQueue, ImportBatch.END, maxValidationDepth);
+		}
+
+		private void send(ImportBatch batch, long to) throws InterruptedException {
+			batch.to = to;
+			if (batch.from < batch.to) {
+				put(validationQueue, batch, maxValidationDepth);
+			}
+		}
+
+		private void resolveColumns(String[] header) {
+			fieldCount = header.length;
+			nameField = column(header, "Name");
+			emailField = column(header, "Email");
+			birthDateField = column(header, "BirthDate");
+			baseSalaryField = column(header, "BaseSalary");
+			departmentIdField = column(header, "DepartmentId");
+		}
+
+		private int column(String[] header, String name) {
+			for (int i = 0; i < header.length; i++) {
+				if (header[i].trim().equalsIgnoreCase(name)) {
+					return i;
+				}
+			}
+			throw new DBException("Column " + name + " not found in the CSV header of " + file);
+		}
+
+		// Estágio 2: registros -> Sellers válidos
+		private void validate() throws InterruptedException {
+			ImportBatch batch;
+			while ((batch = take(validationQueue)) != ImportBatch.END) {
+				List<Seller> sellers = new ArrayList<>(batch.size());
+				for (int i = 0; i < batch.size(); i++) {
+					Seller seller = toSeller(batch.records.get(i), batch.offsets[i]);
+					if (seller != null) {
+						sellers.add(seller);
+					} else {
+						batch.rejected++;
+					}
+				}
+				batch.sellers = sellers;
+				batch.records = null;
+				batch.offsets = null;
+				put(writeQueue, batch, maxWriteDepth);
+			}
+			// Um fim para cada writer
+			for (int i = 0; i < writers; i++) {
+				put(writeQueue, ImportBatch.END, maxWriteDepth);
+			}
+		}
+
+		// null (e o motivo no log) quando o registro é inválido
+		private Seller toSeller(String[] record, long offset) {
+			if (record.length != fieldCount) {
+				return reject(offset, "expected " + fieldCount + " fields, found " + record.length);
+			}
+			String name = record[nameField].trim();
+			String email = record[emailField].trim();
+			if (name.isEmpty() || email.isEmpty()) {
+				return reject(offset, "Name and Email are required");
+			}
+
+			LocalDate birthDate;
+			double baseSalary;
+			int departmentId;
+			try {
+				birthDate = LocalDate.parse(record[birthDateField].trim());
+			} catch (DateTimeParseException e) {
+				return reject(offset, "invalid BirthDate '" + record[birthDateField] + "'");
+			}
+			try {
+				baseSalary = Double.parseDouble(record[baseSalaryField].trim());
+				departmentId = Integer.parseInt(record[departmentIdField].trim());
+			} catch (NumberFormatException e) {
+				return reject(offset, "invalid number: " + e.getMessage());
+			}
+			if (!Double.isFinite(baseSalary)) {
+				return reject(offset, "invalid BaseSalary '" + record[baseSalaryField] + "'");
+			}
+
+			Department dep = departments.get(departmentId);
+			if (dep == null) {
+				return reject(offset, "unknown DepartmentId " + departmentId);
+			}
+			return new Seller(null, name, email, birthDate, baseSalary, dep);
+		}
+
+		private Seller reject(long offset, String reason) {
+			LOG.warning(String.format(Locale.ROOT, "Rejected record at byte %d of %s: %s", offset, file, reason));
+			return null;
+		}
+
+		// Estágio 3: um lote por transação, cada writer na sua conexão
+		private void write() throws SQLException, IOException, InterruptedException {
+			Connection c = null;
+			boolean ownTx = false;
+			try {
+				c = DB.getConnection();
+				ownTx = DB.beginTransaction(c);
+
+				ImportBatch batch;
+				while ((batch = take(writeQueue)) != ImportBatch.END) {
+					int refused = commit(c, batch.sellers);
+					int rows = batch.sellers.size() - refused;
+					checkpoint.markDone(batch.from, batch.to, rows, batch.rejected + refused);
+					inserted.addAndGet(rows);
+					rejected.addAndGet(batch.rejected + refused);
+				}
+			} finally {
+				DB.endTransaction(c, ownTx);
+				DB.closeConnection(c);
+			}
+		}
+
+		// Grava e confirma o lote; devolve quantos o banco recusou. Dois writers inserindo o mesmo Email
+		// podem entrar em deadlock: o banco desfaz a transação de um deles, que tenta de novo
+		private int commit(Connection c, List<Seller> sellers) throws SQLException {
+			// Só lê os ids gerados se alguém vai receber os eventos
+			boolean publish = changeFeed != null && changeFeed.hasSubscribers();
+			for (int attempt = 1;; attempt++) {
+				try {
+					if (publish) {
+						// Ids de uma tentativa desfeita não valem mais
+						for (Seller obj : sellers) {
+							obj.setId(null);
+						}
+					}
+					int refused = insert(c, sellers, publish);
+					c.commit();
+					// Não passa pelos DAOs: avisa os caches de consulta e os assinantes direto
+					if (refused < sellers.size()) {
+						TableVersions.bump(ChangeEvent.Table.SELLER);
+						if (publish) {
+							publishInserted(sellers);
+						}
+					}
+					return refused;
+				} catch (SQLTransactionRollbackException e) {
+					c.rollback();
+					if (attempt == MAX_ATTEMPTS) {
+						throw e;
+					}
+				}
+			}
+		}
+
+		// Um INSERT por seller gravado (os recusados ficaram sem id)
+		private void publishInserted(List<Seller> sellers) {
+			for (Seller obj : sellers) {
+				if (obj.getId() != null) {
+					changeFeed.publish(ChangeEvent.of(ChangeEvent.Operation.INSERT, obj));
+				}
+			}
+		}
+
+		// Grava o lote num único INSERT; devolve quantos o banco recusou. Com keys, grava nos sellers os ids gerados
+		private int insert(Connection c, List<Seller> sellers, boolean keys) throws SQLException {
+			if (sellers.isEmpty()) {
+				return 0;
+			}
+			int generatedKeys = keys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
+			PreparedStatement st = null;
+			try {
+				// Lotes menores (o último, ou antes de uma faixa pulada) usam um statement avulso
+				st = sellers.size() == batchRows ? DB.prepareStatement(c, batchSql, generatedKeys)
+						: c.prepareStatement(insertSql(sellers.size()), generatedKeys);
+				int p = 1;
+				for (Seller obj : sellers) {
+					p = setParameters(st, p, obj);
+				}
+				st.executeUpdate();
+				if (keys) {
+					// Um id por linha, na ordem do VALUES
+					ResultSet rs = st.getGeneratedKeys();
+					for (int i = 0; i < sellers.size() && rs.next(); i++) {
+						sellers.get(i).setId(rs.getInt(1));
+					}
+					DB.closeResultSet(rs);
+				}
+				return 0;
+
+			} catch (SQLIntegrityConstraintViolationException e) {
+				// Alguma linha recusada (Email repetido, ou já gravada antes de uma queda entre o commit
+				// e o checkpoint): desfaz o lote e grava linha a linha, pulando só as recusadas
+				c.rollback();
+				return insertOneByOne(c, sellers, keys);
+			} finally {
+				DB.closeStatement(st);
+			}
+		}
+
+		private int insertOneByOne(Connection c, List<Seller> sellers, boolean keys) throws SQLException {
+			int refused = 0;
+			PreparedStatement st = null;
+			try {
+				st = DB.prepareStatement(c, INSERT_SQL,
+						keys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS);
+				for (Seller obj : sellers) {
+					setParameters(st, 1, obj);
+					obj.setId(null);
+					try {
+						st.executeUpdate();
+						if (keys) {
+							ResultSet rs = st.getGeneratedKeys();
+							if (rs.next()) {
+								obj.setId(rs.getInt(1));
+							}
+							DB.closeResultSet(rs);
+						}
+					} catch (SQLIntegrityConstraintViolationException e) {
+						refused++;
+						LOG.warning("Rejected seller " + obj.getEmail() + " from " + file + ": " + e.getMessage());
+					}
+				}
+				return refused;
+			} finally {
+				DB.closeStatement(st);
+			}
+		}
+
+		private int setParameters(PreparedStatement st, int p, Seller obj) throws SQLException {
+			st.setString(p++, obj.getName());
+			st.setString(p++, obj.getEmail());
+			st.setDate(p++, java.sql.Date.valueOf(obj.getBirthDate()));
+			st.setDouble(p++, obj.getBaseSalary());
+			st.setInt(p++, obj.getDepartment().getId());
+			return p;
+		}
+
+		// Fila cheia: espera, mas desiste se outro estágio falhou
+		private void put(BlockingQueue<ImportBatch> queue, ImportBatch batch, AtomicInteger maxDepth)
+				throws InterruptedException {
+			while (!queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+				checkFailure();
+			}
+			maxDepth.accumulateAndGet(queue.size(), Math::max);
+		}
+
+		private ImportBatch take(BlockingQueue<ImportBatch> queue) throws InterruptedException {
+			while (true) {
+				ImportBatch batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (batch != null) {
+					return batch;
+				}
+				checkFailure();
+			}
+		}
+
+		private void checkFailure() {
+			if (failure.get() != null) {
+				throw new CancellationException();
+			}
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package model.dao.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import db.ConnectionPool;
+import db.DB;
+import db.DBException;
+
+// Registro das métricas de todas as operações dos DAOs instrumentados.
+// Configuração (db.properties):
+//   metrics.slowQueryMillis  operações mais lentas que isso vão para o logger "dao.slow" (0 desliga)
+//   metrics.jmx              registra o MXBean "model.dao:type=DaoMetrics"
+//   metrics.exporter         classe MetricsExporter chamada a cada metrics.exportMillis (vazio = nenhuma)
+public class DaoMetrics implements DaoMetricsMXBean {
+
+	public static final String OBJECT_NAME = "model.dao:type=DaoMetrics";
+
+	private final ConcurrentHashMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+	private final long slowQueryMillis;
+
+	private ScheduledExecutorService exportTimer;
+	private ObjectName registeredName;
+
+	public DaoMetrics(long slowQueryMillis) {
+		this.slowQueryMillis = slowQueryMillis;
+	}
+
+	// Cria as métricas conforme o db.properties, já registradas no JMX e com o exportador rodando
+	public static DaoMetrics fromProperties(Properties props) {
+		DaoMetrics metrics = new DaoMetrics(Long.parseLong(props.getProperty("metrics.slowQueryMillis", "500")));
+
+		if (Boolean.parseBoolean(props.getProperty("metrics.jmx", "true"))) {
+			metrics.registerMBean();
+		}
+
+		String exporter = props.getProperty("metrics.exporter", "").trim();
+		if (!exporter.isEmpty()) {
+			metrics.startExporter(newExporter(exporter),
+					Long.parseLong(props.getProperty("metrics.exportMillis", "60000")));
+		}
+		return metrics;
+	}
+
+	// Métricas da operação (criadas na primeira vez); guarde a referência, não chame a cada execução
+	public OperationMetrics operation(String name) {
+		return operations.computeIfAbsent(name, n -> new OperationMetrics(n, slowQueryMillis));
+	}
+
+	@Override
+	public List<OperationStats> getOperations() {
+		List<OperationStats> list = new ArrayList<>(operations.size());
+		for (OperationMetrics op : operations.values()) {
+			list.add(op.snapshot());
+		}
+		list.sort(Comparator.comparing(OperationStats::getName));
+		return list;
+	}
+
+	@Override
+	public long getSlowQueryThresholdMillis() {
+		return slowQueryMillis;
+	}
+
+	@Override
+	public int getPoolActiveConnections() {
+		return DB.getPool().getActiveConnections();
+	}
+
+	@Override
+	public int getPoolIdleConnections() {
+		return DB.getPool().getIdleConnections();
+	}
+
+	@Override
+	public int getPoolWaitingThreads() {
+		return DB.getPool().getWaitingThreads();
+	}
+
+	@Override
+	public long getPoolTotalBorrowNanos() {
+		ConnectionPool pool = DB.getPool();
+		return pool.getTotalBorrowNanos();
+	}
+
+	@Override
+	public void reset() {
+		for (OperationMetrics op : operations.values()) {
+			op.reset();
+		}
+	}
+
+	public synchronized void registerMBean() {
+		if (registeredName != null) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			// Um registro anterior (ex.: depois de DB.configure) é trocado por este
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+			registeredName = name;
+		} catch (JMException e) {
+			throw new DBException(e.getMessage());
+		}
+	}
+
+	public synchronized void startExporter(MetricsExporter exporter, long periodMillis) {
+		if (exportTimer != null) {
+			exportTimer.shutdownNow();
+		}
+		exportTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "dao-metrics-exporter");
+			t.setDaemon(true);
+			return t;
+		});
+		exportTimer.scheduleAtFixedRate(() -> {
+			try {
+				exporter.export(getOperations());
+			} catch (RuntimeException e) {
+				// Um exportador com problema não pode derrubar a medição
+				Logger.getLogger("dao.metrics").log(Level.WARNING, "Metrics export failed", e);
+			}
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public synchronized void close() {
+		if (exportTimer != null) {
+			exportTimer.shutdownNow();
+			exportTimer = null;
+		}
+		if (registeredName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+			} catch (JMException e) {
+				// Já não estava registrado
+			}
+			registeredName = null;
+		}
+	}
+
+	private static MetricsExporter newExporter(String className) {
+		try {
+			return (MetricsExporter) Class.forName(className).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			throw new DBException("Invalid metrics.exporter: " + className);
+		}
+	}
+}
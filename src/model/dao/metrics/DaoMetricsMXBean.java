@@ -0,0 +1,21 @@
+package model.dao.metrics;
+
+import java.util.List;
+
+// Interface exposta via JMX (jconsole / VisualVM) com o nome "model.dao:type=DaoMetrics"
+public interface DaoMetricsMXBean {
+
+	List<OperationStats> getOperations();
+
+	long getSlowQueryThresholdMillis();
+
+	int getPoolActiveConnections();
+
+	int getPoolIdleConnections();
+
+	int getPoolWaitingThreads();
+
+	long getPoolTotalBorrowNanos();
+
+	void reset();
+}
@@ -0,0 +1,23 @@
+package model.dao.metrics;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Exportador padrão: escreve uma linha por operação no logger "dao.metrics"
+public class LoggingMetricsExporter implements MetricsExporter {
+
+	private static final Logger LOG = Logger.getLogger("dao.metrics");
+
+	@Override
+	public void export(List<OperationStats> operations) {
+		if (!LOG.isLoggable(Level.INFO)) {
+			return;
+		}
+		for (OperationStats stats : operations) {
+			if (stats.getCount() > 0) {
+				LOG.info(stats.toString());
+			}
+		}
+	}
+}
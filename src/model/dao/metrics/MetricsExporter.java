@@ -0,0 +1,11 @@
+package model.dao.metrics;
+
+import java.util.List;
+
+// Destino das métricas (log, Prometheus, StatsD...). A implementação é escolhida em
+// metrics.exporter (nome da classe, com construtor sem argumentos) e chamada a cada
+// metrics.exportMillis com o retrato de todas as operações.
+public interface MetricsExporter {
+
+	void export(List<OperationStats> operations);
+}
@@ -0,0 +1,127 @@
+package model.dao.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import db.ConnectionPool;
+
+// Métricas de UMA operação de DAO (ex.: "SellerDao.findById"): latência, tempo esperando
+// conexão, linhas e erros. Uso no caminho quente, sem alocação (argumento numérico vai como long,
+// argumento objeto é só repassado; os dois só viram texto se a operação for lenta):
+//
+//   long start = op.start();
+//   long wait = op.startWait();
+//   ... chama o DAO ...
+//   op.success(start, wait, rows, argumento);   // ou op.failure(start, wait, e, argumento)
+public class OperationMetrics {
+
+	private static final Logger SLOW_LOG = Logger.getLogger("dao.slow");
+
+	private final String name;
+	private final long slowNanos;
+
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final LatencyHistogram connectionWait = new LatencyHistogram();
+	private final LongAdder rows = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder slow = new LongAdder();
+
+	// slowMillis <= 0 desliga o log de operações lentas
+	public OperationMetrics(String name, long slowMillis) {
+		this.name = name;
+		this.slowNanos = slowMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowMillis) : Long.MAX_VALUE;
+	}
+
+	public long start() {
+		return System.nanoTime();
+	}
+
+	// Marca o tempo de espera por conexão já acumulado pela thread
+	public long startWait() {
+		return ConnectionPool.getThreadBorrowNanos();
+	}
+
+	// argument só vira texto se a operação for lenta
+	public void success(long start, long waitStart, long rowCount, Object argument) {
+		long elapsed = record(start, waitStart);
+		rows.add(rowCount);
+		if (elapsed >= slowNanos) {
+			logSlow(elapsed, argument, null);
+		}
+	}
+
+	public void failure(long start, long waitStart, Throwable error, Object argument) {
+		long elapsed = record(start, waitStart);
+		errors.increment();
+		if (elapsed >= slowNanos) {
+			logSlow(elapsed, argument, error);
+		}
+	}
+
+	// Versões com argumento numérico (tamanho da lista, limite): o autoboxing só acontece no log de lentas
+	public void success(long start, long waitStart, long rowCount, long argument) {
+		long elapsed = record(start, waitStart);
+		rows.add(rowCount);
+		if (elapsed >= slowNanos) {
+			logSlow(elapsed, argument, null);
+		}
+	}
+
+	public void failure(long start, long waitStart, Throwable error, long argument) {
+		long elapsed = record(start, waitStart);
+		errors.increment();
+		if (elapsed >= slowNanos) {
+			logSlow(elapsed, argument, error);
+		}
+	}
+
+	// Linhas lidas depois que a operação terminou (ex.: um Stream consumido aos poucos)
+	public void addRows(long rowCount) {
+		rows.add(rowCount);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	public LatencyHistogram getConnectionWait() {
+		return connectionWait;
+	}
+
+	public OperationStats snapshot() {
+		return new OperationStats(name, latency.getCount(), errors.sum(), rows.sum(), slow.sum(),
+				latency.getMean(), latency.getValueAtPercentile(50), latency.getValueAtPercentile(99),
+				latency.getValueAtPercentile(99.9), latency.getMax(),
+				connectionWait.getMean(), connectionWait.getValueAtPercentile(99));
+	}
+
+	public void reset() {
+		latency.reset();
+		connectionWait.reset();
+		rows.reset();
+		errors.reset();
+		slow.reset();
+	}
+
+	private long record(long start, long waitStart) {
+		long elapsed = System.nanoTime() - start;
+		latency.record(elapsed);
+		connectionWait.record(ConnectionPool.getThreadBorrowNanos() - waitStart);
+		return elapsed;
+	}
+
+	private void logSlow(long elapsedNanos, Object argument, Throwable error) {
+		slow.increment();
+		if (SLOW_LOG.isLoggable(Level.WARNING)) {
+			SLOW_LOG.log(Level.WARNING, String.format("Slow DAO call %s(%s): %.1f ms%s", name,
+					argument == null ? "" : argument, elapsedNanos / 1_000_000.0,
+					error == null ? "" : " failed with " + error), error);
+		}
+	}
+}
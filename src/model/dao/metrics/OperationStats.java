@@ -0,0 +1,92 @@
+package model.dao.metrics;
+
+// Retrato das métricas de uma operação num instante; tempos em nanos.
+// Os getters viram atributos no JMX (DaoMetricsMXBean).
+public class OperationStats {
+
+	private final String name;
+	private final long count;
+	private final long errors;
+	private final long rows;
+	private final long slowCalls;
+	private final double meanNanos;
+	private final long p50Nanos;
+	private final long p99Nanos;
+	private final long p999Nanos;
+	private final long maxNanos;
+	private final double meanConnectionWaitNanos;
+	private final long p99ConnectionWaitNanos;
+
+	public OperationStats(String name, long count, long errors, long rows, long slowCalls, double meanNanos,
+			long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos, double meanConnectionWaitNanos,
+			long p99ConnectionWaitNanos) {
+		this.name = name;
+		this.count = count;
+		this.errors = errors;
+		this.rows = rows;
+		this.slowCalls = slowCalls;
+		this.meanNanos = meanNanos;
+		this.p50Nanos = p50Nanos;
+		this.p99Nanos = p99Nanos;
+		this.p999Nanos = p999Nanos;
+		this.maxNanos = maxNanos;
+		this.meanConnectionWaitNanos = meanConnectionWaitNanos;
+		this.p99ConnectionWaitNanos = p99ConnectionWaitNanos;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getErrors() {
+		return errors;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public long getSlowCalls() {
+		return slowCalls;
+	}
+
+	public double getMeanNanos() {
+		return meanNanos;
+	}
+
+	public long getP50Nanos() {
+		return p50Nanos;
+	}
+
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+
+	public long getP999Nanos() {
+		return p999Nanos;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	public double getMeanConnectionWaitNanos() {
+		return meanConnectionWaitNanos;
+	}
+
+	public long getP99ConnectionWaitNanos() {
+		return p99ConnectionWaitNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s count=%d errors=%d rows=%d slow=%d mean=%.1fus p50=%.1fus p99=%.1fus "
+				+ "p99.9=%.1fus max=%.1fus wait(mean)=%.1fus wait(p99)=%.1fus", name, count, errors, rows, slowCalls,
+				meanNanos / 1e3, p50Nanos / 1e3, p99Nanos / 1e3, p999Nanos / 1e3, maxNanos / 1e3,
+				meanConnectionWaitNanos / 1e3, p99ConnectionWaitNanos / 1e3);
+	}
+}
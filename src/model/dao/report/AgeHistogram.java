@@ -0,0 +1,57 @@
+package model.dao.report;
+
+// Quantidade de sellers por faixa de idade (em anos completos). A faixa i cobre as idades
+// de getLowerBound(i) até getLowerBound(i) + bucketYears - 1.
+public class AgeHistogram {
+
+	private final int bucketYears;
+	private final int firstLowerBound;
+	private final long[] counts;
+
+	public AgeHistogram(int bucketYears, int firstLowerBound, long[] counts) {
+		this.bucketYears = bucketYears;
+		this.firstLowerBound = firstLowerBound;
+		this.counts = counts;
+	}
+
+	public int getBucketYears() {
+		return bucketYears;
+	}
+
+	public int size() {
+		return counts.length;
+	}
+
+	public int getLowerBound(int index) {
+		return firstLowerBound + index * bucketYears;
+	}
+
+	public long getCount(int index) {
+		return counts[index];
+	}
+
+	// Quantidade na faixa que contém a idade (0 fora do histograma)
+	public long countOfAge(int age) {
+		int index = Math.floorDiv(age - firstLowerBound, bucketYears);
+		return index >= 0 && index < counts.length ? counts[index] : 0;
+	}
+
+	public long getTotal() {
+		long total = 0;
+		for (long count : counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("AgeHistogram [");
+		for (int i = 0; i < counts.length; i++) {
+			int lower = getLowerBound(i);
+			sb.append(i == 0 ? "" : ", ").append(lower).append('-').append(lower + bucketYears - 1)
+					.append('=').append(counts[i]);
+		}
+		return sb.append(']').toString();
+	}
+}
@@ -0,0 +1,57 @@
+package model.dao.report;
+
+import java.util.Arrays;
+
+// Quantidade de sellers por departamento, em arrays paralelos ordenados por id do departamento.
+// Departamentos sem sellers aparecem com 0.
+public class DepartmentCounts {
+
+	private final int[] departmentIds;
+	private final String[] departmentNames;
+	private final long[] counts;
+
+	public DepartmentCounts(int[] departmentIds, String[] departmentNames, long[] counts) {
+		this.departmentIds = departmentIds;
+		this.departmentNames = departmentNames;
+		this.counts = counts;
+	}
+
+	public int size() {
+		return departmentIds.length;
+	}
+
+	public int getDepartmentId(int index) {
+		return departmentIds[index];
+	}
+
+	public String getDepartmentName(int index) {
+		return departmentNames[index];
+	}
+
+	public long getCount(int index) {
+		return counts[index];
+	}
+
+	// Quantidade do departamento (busca binária pelo id; 0 se não existir)
+	public long countOf(int departmentId) {
+		int index = Arrays.binarySearch(departmentIds, departmentId);
+		return index >= 0 ? counts[index] : 0;
+	}
+
+	public long getTotal() {
+		long total = 0;
+		for (long count : counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("DepartmentCounts [");
+		for (int i = 0; i < departmentIds.length; i++) {
+			sb.append(i == 0 ? "" : ", ").append(departmentNames[i]).append('=').append(counts[i]);
+		}
+		return sb.append(']').toString();
+	}
+}
@@ -0,0 +1,78 @@
+package model.dao.report;
+
+import java.util.Arrays;
+
+// Soma, média, mínimo e máximo de BaseSalary por departamento, em arrays paralelos
+// ordenados por id do departamento. Departamentos sem sellers têm count 0 e valores 0.
+public class SalaryStats {
+
+	private final int[] departmentIds;
+	private final String[] departmentNames;
+	private final long[] counts;
+	private final double[] sums;
+	private final double[] mins;
+	private final double[] maxs;
+
+	public SalaryStats(int[] departmentIds, String[] departmentNames, long[] counts, double[] sums, double[] mins,
+			double[] maxs) {
+		this.departmentIds = departmentIds;
+		this.departmentNames = departmentNames;
+		this.counts = counts;
+		this.sums = sums;
+		this.mins = mins;
+		this.maxs = maxs;
+	}
+
+	public int size() {
+		return departmentIds.length;
+	}
+
+	// Posição do departamento nos arrays (busca binária), ou -1 se não existir
+	public int indexOf(int departmentId) {
+		int index = Arrays.binarySearch(departmentIds, departmentId);
+		return index >= 0 ? index : -1;
+	}
+
+	public int getDepartmentId(int index) {
+		return departmentIds[index];
+	}
+
+	public String getDepartmentName(int index) {
+		return departmentNames[index];
+	}
+
+	public long getCount(int index) {
+		return counts[index];
+	}
+
+	// Folha de pagamento total do departamento
+	public double getSum(int index) {
+		return sums[index];
+	}
+
+	public double getAverage(int index) {
+		return counts[index] == 0 ? 0.0 : sums[index] / counts[index];
+	}
+
+	public double getMin(int index) {
+		return mins[index];
+	}
+
+	public double getMax(int index) {
+		return maxs[index];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("SalaryStats [");
+		for (int i = 0; i < departmentIds.length; i++) {
+			sb.append(i == 0 ? "" : ", ").append(departmentNames[i])
+					.append("={count=").append(counts[i])
+					.append(", sum=").append(sums[i])
+					.append(", avg=").append(getAverage(i))
+					.append(", min=").append(mins[i])
+					.append(", max=").append(maxs[i]).append('}');
+		}
+		return sb.append(']').toString();
+	}
+}
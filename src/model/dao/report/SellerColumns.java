@@ -0,0 +1,293 @@
+package model.dao.report;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Retrato da tabela seller em colunas de tipos primitivos, para análises em memória.
+// Uma linha ocupa ~24 bytes nas colunas numéricas (id, salário, nascimento, departamento,
+// códigos de nome e e-mail), contra 150+ bytes de um Seller com Integer/Double/LocalDate/Strings.
+// Nomes e e-mails ficam num dicionário (cada texto distinto guardado uma vez) e as linhas
+// guardam só o código. As linhas estão ordenadas por id.
+//
+// Os filtros e agregações são laços simples sobre arrays (o JIT vetoriza); as variantes
+// parallel* dividem as linhas entre as threads do ForkJoinPool comum.
+public class SellerColumns {
+
+	// DepartmentId de uma linha sem departamento (NULL no banco)
+	public static final int NO_DEPARTMENT = Integer.MIN_VALUE;
+
+	// Abaixo disso uma fatia é somada numa thread só (dividir mais custa mais do que ganha)
+	private static final int PARALLEL_THRESHOLD = 1 << 15;
+
+	private final int size;
+	private final int[] ids;
+	private final double[] salaries;
+	private final int[] birthDates;
+	private final int[] departmentIds;
+	private final int[] nameCodes;
+	private final String[] names;
+	private final int[] emailCodes;
+	private final String[] emails;
+
+	private SellerColumns(Builder b) {
+		this.size = b.size;
+		this.ids = Arrays.copyOf(b.ids, size);
+		this.salaries = Arrays.copyOf(b.salaries, size);
+		this.birthDates = Arrays.copyOf(b.birthDates, size);
+		this.departmentIds = Arrays.copyOf(b.departmentIds, size);
+		this.nameCodes = Arrays.copyOf(b.nameCodes, size);
+		this.names = new String[b.names.size()];
+		for (Map.Entry<String, Integer> e : b.names.entrySet()) {
+			names[e.getValue()] = e.getKey();
+		}
+		this.emailCodes = Arrays.copyOf(b.emailCodes, size);
+		this.emails = new String[b.emails.size()];
+		for (Map.Entry<String, Integer> e : b.emails.entrySet()) {
+			emails[e.getValue()] = e.getKey();
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	// Posição da linha com o id (busca binária), ou -1
+	public int indexOfId(int id) {
+		int index = Arrays.binarySearch(ids, 0, size, id);
+		return index >= 0 ? index : -1;
+	}
+
+	public int getId(int row) {
+		return ids[row];
+	}
+
+	public String getName(int row) {
+		return names[nameCodes[row]];
+	}
+
+	public String getEmail(int row) {
+		return emails[emailCodes[row]];
+	}
+
+	public LocalDate getBirthDate(int row) {
+		return LocalDate.ofEpochDay(birthDates[row]);
+	}
+
+	// Data de nascimento em dias desde 1970-01-01 (LocalDate.toEpochDay)
+	public int getBirthEpochDay(int row) {
+		return birthDates[row];
+	}
+
+	public double getBaseSalary(int row) {
+		return salaries[row];
+	}
+
+	// NO_DEPARTMENT se a linha não tem departamento
+	public int getDepartmentId(int row) {
+		return departmentIds[row];
+	}
+
+	// Quantidade de nomes distintos (tamanho do dicionário)
+	public int getDistinctNames() {
+		return names.length;
+	}
+
+	// Memória aproximada ocupada pelas colunas e dicionários, em bytes
+	public long estimatedBytes() {
+		long bytes = (long) size * (4 + 8 + 4 + 4 + 4 + 4);
+		for (String s : names) {
+			bytes += 40 + s.length();
+		}
+		for (String s : emails) {
+			bytes += 40 + s.length();
+		}
+		return bytes;
+	}
+
+	// ---- Agregações sequenciais ----
+
+	public double sumSalaries() {
+		return sumSalaries(0, size);
+	}
+
+	public double averageSalary() {
+		return size == 0 ? 0.0 : sumSalaries() / size;
+	}
+
+	public double maxSalary() {
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			max = Math.max(max, salaries[i]);
+		}
+		return max;
+	}
+
+	// Quantos ganham em [min, max)
+	public int countSalaryBetween(double min, double max) {
+		return countSalaryBetween(min, max, 0, size);
+	}
+
+	// Soma dos salários de quem nasceu em [from, to)
+	public double sumSalaryBornBetween(LocalDate from, LocalDate to) {
+		return sumSalaryBornBetween(epochDay(from), epochDay(to), 0, size);
+	}
+
+	// Soma dos salários do departamento
+	public double sumSalaryOfDepartment(int departmentId) {
+		double sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += departmentIds[i] == departmentId ? salaries[i] : 0.0;
+		}
+		return sum;
+	}
+
+	// Linhas (posições) com salário >= min, na ordem da tabela
+	public int[] selectSalaryAtLeast(double min) {
+		int[] selected = new int[size];
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			selected[n] = i;
+			// Sem desvio: sempre grava, só avança quando a linha passa no filtro
+			n += salaries[i] >= min ? 1 : 0;
+		}
+		return Arrays.copyOf(selected, n);
+	}
+
+	// ---- Agregações paralelas (fork/join) ----
+
+	public double parallelSumSalaries() {
+		return parallel((f, t) -> sumSalaries(f, t));
+	}
+
+	public int parallelCountSalaryBetween(double min, double max) {
+		return (int) parallel((f, t) -> countSalaryBetween(min, max, f, t));
+	}
+
+	public double parallelSumSalaryBornBetween(LocalDate from, LocalDate to) {
+		int fromDay = epochDay(from);
+		int toDay = epochDay(to);
+		return parallel((f, t) -> sumSalaryBornBetween(fromDay, toDay, f, t));
+	}
+
+	private double parallel(RangeFunction function) {
+		return ForkJoinPool.commonPool().invoke(new RangeTask(function, 0, size));
+	}
+
+	// ---- Laços sobre uma fatia [from, to) ----
+
+	private double sumSalaries(int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++) {
+			sum += salaries[i];
+		}
+		return sum;
+	}
+
+	private int countSalaryBetween(double min, double max, int from, int to) {
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			double s = salaries[i];
+			count += (s >= min & s < max) ? 1 : 0;
+		}
+		return count;
+	}
+
+	private double sumSalaryBornBetween(int fromDay, int toDay, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++) {
+			int day = birthDates[i];
+			sum += (day >= fromDay & day < toDay) ? salaries[i] : 0.0;
+		}
+		return sum;
+	}
+
+	// Limites fora da faixa de int (LocalDate.MIN/MAX) viram o extremo do int
+	private static int epochDay(LocalDate date) {
+		return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+	}
+
+	// Função de uma fatia [from, to) -> valor parcial (as parciais são somadas)
+	private interface RangeFunction {
+		double apply(int from, int to);
+	}
+
+	// Divide [from, to) ao meio até PARALLEL_THRESHOLD e soma os resultados das metades
+	private static class RangeTask extends RecursiveTask<Double> {
+		private static final long serialVersionUID = 1L;
+
+		private final transient RangeFunction function;
+		private final int from;
+		private final int to;
+
+		RangeTask(RangeFunction function, int from, int to) {
+			this.function = function;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Double compute() {
+			if (to - from <= PARALLEL_THRESHOLD) {
+				return function.apply(from, to);
+			}
+			int mid = (from + to) >>> 1;
+			RangeTask left = new RangeTask(function, from, mid);
+			left.fork();
+			double right = new RangeTask(function, mid, to).compute();
+			return left.join() + right;
+		}
+	}
+
+	// Monta o retrato linha a linha (usado pelo carregador em streaming)
+	public static class Builder {
+
+		private int size;
+		private int[] ids = new int[1024];
+		private double[] salaries = new double[1024];
+		private int[] birthDates = new int[1024];
+		private int[] departmentIds = new int[1024];
+		private int[] nameCodes = new int[1024];
+		private int[] emailCodes = new int[1024];
+		// Texto -> código; o código é a ordem em que o texto apareceu
+		private final Map<String, Integer> names = new HashMap<>();
+		private final Map<String, Integer> emails = new HashMap<>();
+
+		public Builder add(int id, String name, String email, LocalDate birthDate, double baseSalary,
+				int departmentId) {
+			if (size == ids.length) {
+				int capacity = size * 2;
+				ids = Arrays.copyOf(ids, capacity);
+				salaries = Arrays.copyOf(salaries, capacity);
+				birthDates = Arrays.copyOf(birthDates, capacity);
+				departmentIds = Arrays.copyOf(departmentIds, capacity);
+				nameCodes = Arrays.copyOf(nameCodes, capacity);
+				emailCodes = Arrays.copyOf(emailCodes, capacity);
+			}
+			ids[size] = id;
+			salaries[size] = baseSalary;
+			birthDates[size] = (int) birthDate.toEpochDay();
+			departmentIds[size] = departmentId;
+			nameCodes[size] = encode(names, name);
+			emailCodes[size] = encode(emails, email);
+			size++;
+			return this;
+		}
+
+		public SellerColumns build() {
+			return new SellerColumns(this);
+		}
+
+		private static int encode(Map<String, Integer> dictionary, String value) {
+			Integer code = dictionary.get(value);
+			if (code == null) {
+				code = dictionary.size();
+				dictionary.put(value, code);
+			}
+			return code;
+		}
+	}
+}
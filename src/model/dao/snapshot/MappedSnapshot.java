@@ -0,0 +1,334 @@
+package model.dao.snapshot;
+
+import static model.dao.snapshot.SnapshotFormat.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import db.DB;
+import db.DBException;
+import model.dao.impl.DepartmentRegistry;
+import model.dao.impl.SellerRowMapper;
+import model.entities.Department;
+import model.entities.Seller;
+
+// Snapshot gravado por SnapshotWriter, mapeado em memória (FileChannel.map): abrir custa
+// só o mmap, sem ler as tabelas. findSellerById/findDepartmentById fazem busca binária no
+// índice de ids mapeado e montam só o objeto pedido; o resto do arquivo fica no page cache
+// do sistema, fora do heap da JVM.
+//
+// refresh() traz do banco o que mudou depois do snapshot (coluna updatedAt.column) e guarda
+// numa camada em memória por cima do arquivo. Sem essa coluna configurada, atualizar é
+// gravar um snapshot novo com SnapshotWriter.write e abrir de novo.
+public class MappedSnapshot {
+
+	private static final String DEPARTMENTS_SQL = "SELECT Id, Name FROM department";
+
+	private static final String SELLER_IDS_SQL = "SELECT Id FROM seller ORDER BY Id";
+
+	// Alterações aplicadas por refresh(); imutável, trocada inteira a cada refresh
+	private static class Overlay {
+		static final Overlay EMPTY = new Overlay(Collections.emptyMap(), Collections.emptySet(), null);
+
+		final Map<Integer, Seller> sellers;
+		final Set<Integer> deletedSellers;
+		// Tabela department inteira (é pequena); null = usa a do arquivo
+		final Map<Integer, String> departments;
+
+		Overlay(Map<Integer, Seller> sellers, Set<Integer> deletedSellers, Map<Integer, String> departments) {
+			this.sellers = sellers;
+			this.deletedSellers = deletedSellers;
+			this.departments = departments;
+		}
+	}
+
+	private final Path file;
+	private final ByteBuffer buffer;
+	private final long createdAt;
+	private final int departmentCount;
+	private final int sellerCount;
+	private final int departmentRecords;
+	private final int sellerRecords;
+	private final int departmentIndex;
+	private final int sellerIndex;
+	private final int heap;
+
+	private volatile Overlay overlay = Overlay.EMPTY;
+	// Instante (do banco) a partir do qual o próximo refresh procura alterações
+	private long refreshedAt;
+
+	private MappedSnapshot(Path file, ByteBuffer buffer) {
+		this.file = file;
+		this.buffer = buffer;
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new DBException("Not a snapshot file: " + file);
+		}
+		if (buffer.getInt(4) != FORMAT_VERSION) {
+			throw new DBException("Unsupported snapshot version " + buffer.getInt(4) + ": " + file);
+		}
+		this.createdAt = buffer.getLong(CREATED_AT);
+		this.departmentCount = buffer.getInt(DEPARTMENT_COUNT);
+		this.sellerCount = buffer.getInt(SELLER_COUNT);
+		this.departmentRecords = buffer.getInt(DEPARTMENT_RECORDS);
+		this.sellerRecords = buffer.getInt(SELLER_RECORDS);
+		this.departmentIndex = buffer.getInt(DEPARTMENT_INDEX);
+		this.sellerIndex = buffer.getInt(SELLER_INDEX);
+		this.heap = buffer.getInt(HEAP);
+		this.refreshedAt = createdAt;
+	}
+
+	// Mapeia o arquivo (somente leitura). O mapeamento continua válido depois que o canal
+	// é fechado e é liberado pelo GC junto com o MappedSnapshot.
+	public static MappedSnapshot open(Path file) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return new MappedSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} catch (IOException e) {
+			throw new DBException("Error opening snapshot: " + e.getMessage());
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	// Instante (epoch millis, relógio do banco) em que as tabelas foram lidas
+	public long getCreatedAt() {
+		return createdAt;
+	}
+
+	// Quantidade de sellers gravados no arquivo (sem contar o que veio por refresh)
+	public int getSellerCount() {
+		return sellerCount;
+	}
+
+	public int getDepartmentCount() {
+		return departmentCount;
+	}
+
+	public Seller findSellerById(int id) {
+		Overlay o = overlay;
+		Seller changed = o.sellers.get(id);
+		if (changed != null) {
+			return copy(changed);
+		}
+		if (o.deletedSellers.contains(id)) {
+			return null;
+		}
+		int index = search(sellerIndex, sellerCount, id);
+		return index < 0 ? null : readSeller(sellerRecords + index * SELLER_RECORD);
+	}
+
+	public Department findDepartmentById(int id) {
+		Map<Integer, String> departments = overlay.departments;
+		if (departments != null) {
+			String name = departments.get(id);
+			return name == null ? null : department(id, name);
+		}
+		int index = search(departmentIndex, departmentCount, id);
+		if (index < 0) {
+			return null;
+		}
+		return department(id, readString(buffer.getInt(departmentRecords + index * DEPARTMENT_RECORD
+				+ DEPARTMENT_NAME)));
+	}
+
+	// Aplica as alterações feitas no banco desde o snapshot (ou desde o último refresh).
+	// Sellers com updatedAt.column >= corte são relidos; os removidos são achados comparando
+	// os ids do banco (só a coluna Id, pelo índice) com os do arquivo. A tabela department
+	// é relida inteira. Devolve quantos sellers mudaram ou foram removidos.
+	public synchronized int refresh() {
+		String column = DB.getUpdatedAtColumn();
+		if (column == null) {
+			throw new DBException("updatedAt.column is not configured: write a new snapshot instead");
+		}
+
+		Connection c = null;
+		boolean owned = false;
+		try {
+			c = DB.getReadConnection();
+			owned = DB.beginTransaction(c);
+			long now = DB.currentTimestamp(c);
+			// Uma linha alterada por uma transação que começou antes do corte, mas confirmou depois,
+			// tem updatedAt anterior ao corte: a janela de sobreposição relê essas linhas
+			long since = refreshedAt
+					- Long.parseLong(DB.getProperties().getProperty("snapshot.refreshOverlapMillis", "5000"));
+
+			Map<Integer, String> departments = readDepartments(c);
+			Map<Integer, Seller> changed = readChangedSellers(c, column, since);
+			int[] ids = readSellerIds(c);
+
+			Overlay o = overlay;
+			Map<Integer, Seller> sellers = new HashMap<>(o.sellers);
+			sellers.putAll(changed);
+			Set<Integer> deleted = new HashSet<>();
+			for (int i = 0; i < sellerCount; i++) {
+				int id = buffer.getInt(sellerIndex + i * 4);
+				if (Arrays.binarySearch(ids, id) < 0) {
+					deleted.add(id);
+				}
+			}
+			sellers.keySet().removeIf(id -> Arrays.binarySearch(ids, id) < 0);
+
+			int changes = changed.size();
+			for (Integer id : deleted) {
+				if (!o.deletedSellers.contains(id)) {
+					changes++;
+				}
+			}
+
+			overlay = new Overlay(sellers, deleted, departments);
+			refreshedAt = now;
+			return changes;
+
+		} catch (SQLException e) {
+			throw new DBException("Error refreshing snapshot: " + e.getMessage());
+		} finally {
+			if (c != null) {
+				DB.endTransaction(c, owned);
+				DB.closeConnection(c);
+			}
+		}
+	}
+
+	private Map<Integer, String> readDepartments(Connection c) throws SQLException {
+		PreparedStatement st = null;
+		ResultSet rs = null;
+		try {
+			st = DB.prepareStatement(c, DEPARTMENTS_SQL);
+			rs = st.executeQuery();
+			Map<Integer, String> departments = new HashMap<>();
+			while (rs.next()) {
+				departments.put(rs.getInt(1), rs.getString(2));
+			}
+			return departments;
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+		}
+	}
+
+	private Map<Integer, Seller> readChangedSellers(Connection c, String column, long since) throws SQLException {
+		PreparedStatement st = null;
+		ResultSet rs = null;
+		try {
+			// LEFT JOIN: um seller que ficou sem departamento (DepartmentId NULL) também foi alterado
+			st = DB.prepareStatement(c, "SELECT " + SellerRowMapper.COLUMNS + " "
+					+ "FROM seller LEFT JOIN department ON seller.DepartmentId = department.Id "
+					+ "WHERE seller." + column + " >= ?");
+			st.setTimestamp(1, new Timestamp(since));
+			long[] registry = DepartmentRegistry.snapshot();
+			rs = st.executeQuery();
+
+			Map<Integer, Seller> changed = new HashMap<>();
+			SellerRowMapper mapper = new SellerRowMapper(rs, registry);
+			while (rs.next()) {
+				Seller seller = mapper.map(rs);
+				changed.put(seller.getId(), seller);
+			}
+			return changed;
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+		}
+	}
+
+	private int[] readSellerIds(Connection c) throws SQLException {
+		PreparedStatement st = null;
+		ResultSet rs = null;
+		try {
+			st = c.prepareStatement(SELLER_IDS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			st.setFetchSize(DB.getStreamFetchSize());
+			rs = st.executeQuery();
+
+			int size = 0;
+			int[] ids = new int[Math.max(sellerCount, 16)];
+			while (rs.next()) {
+				if (size == ids.length) {
+					ids = Arrays.copyOf(ids, size * 2);
+				}
+				ids[size++] = rs.getInt(1);
+			}
+			return Arrays.copyOf(ids, size);
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+		}
+	}
+
+	// Busca binária no índice de ids (ordenado) começando em offset; -1 se não achar
+	private int search(int offset, int count, int id) {
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midId = buffer.getInt(offset + mid * 4);
+			if (midId < id) {
+				low = mid + 1;
+			} else if (midId > id) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private Seller readSeller(int record) {
+		int departmentId = buffer.getInt(record + SELLER_DEPARTMENT_ID);
+		Seller seller = new Seller(
+				buffer.getInt(record),
+				readString(buffer.getInt(record + SELLER_NAME)),
+				readString(buffer.getInt(record + SELLER_EMAIL)),
+				LocalDate.ofEpochDay(buffer.getInt(record + SELLER_BIRTH_DATE)),
+				buffer.getDouble(record + SELLER_BASE_SALARY),
+				departmentId == NO_VALUE ? null : findDepartmentById(departmentId));
+		int version = buffer.getInt(record + SELLER_VERSION);
+		if (version != NO_VALUE) {
+			seller.setVersion(version);
+		}
+		seller.markClean();
+		return seller;
+	}
+
+	private String readString(int position) {
+		if (position == NO_STRING) {
+			return null;
+		}
+		int start = heap + position;
+		int length = Short.toUnsignedInt(buffer.getShort(start));
+		byte[] bytes = new byte[length];
+		buffer.get(start + 2, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static Department department(int id, String name) {
+		Department dep = new Department(id, name);
+		dep.markClean();
+		return dep;
+	}
+
+	// Os objetos da camada de refresh são compartilhados: cada chamada recebe uma cópia
+	private Seller copy(Seller s) {
+		Department dep = s.getDepartment() == null ? null : findDepartmentById(s.getDepartment().getId());
+		Seller seller = new Seller(s.getId(), s.getName(), s.getEmail(), s.getBirthDate(), s.getBaseSalary(), dep);
+		seller.setVersion(s.getVersion());
+		seller.markClean();
+		return seller;
+	}
+}
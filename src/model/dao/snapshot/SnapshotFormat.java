@@ -0,0 +1,56 @@
+package model.dao.snapshot;
+
+// Layout do arquivo de snapshot (big-endian, tudo em posições absolutas de int):
+//
+//   cabeçalho (64 bytes)
+//     0  int   MAGIC
+//     4  int   FORMAT_VERSION
+//     8  long  instante da leitura no banco (epoch millis, CURRENT_TIMESTAMP do banco)
+//     16 int   quantidade de departments
+//     20 int   quantidade de sellers
+//     24 int   início dos registros de department
+//     28 int   início dos registros de seller
+//     32 int   início do índice de ids de department
+//     36 int   início do índice de ids de seller
+//     40 int   início do heap de strings
+//   registros de department, DEPARTMENT_RECORD bytes cada, ordenados por Id
+//   registros de seller, SELLER_RECORD bytes cada, ordenados por Id
+//   índice de department: int[] com os ids na ordem dos registros
+//   índice de seller: idem (a busca binária percorre 4 bytes por passo, não o registro inteiro)
+//   heap: strings como [unsigned short tamanho][bytes UTF-8]; os registros guardam a posição
+//         relativa ao início do heap (NO_STRING quando o valor é nulo)
+final class SnapshotFormat {
+
+	static final int MAGIC = 0x534C5253; // "SLRS"
+	static final int FORMAT_VERSION = 1;
+
+	static final int HEADER_SIZE = 64;
+	static final int CREATED_AT = 8;
+	static final int DEPARTMENT_COUNT = 16;
+	static final int SELLER_COUNT = 20;
+	static final int DEPARTMENT_RECORDS = 24;
+	static final int SELLER_RECORDS = 28;
+	static final int DEPARTMENT_INDEX = 32;
+	static final int SELLER_INDEX = 36;
+	static final int HEAP = 40;
+
+	// Department: Id, Name
+	static final int DEPARTMENT_RECORD = 8;
+	static final int DEPARTMENT_NAME = 4;
+
+	// Seller: Id, Name, Email, BirthDate (dias desde 1970), BaseSalary, DepartmentId, Version
+	static final int SELLER_RECORD = 32;
+	static final int SELLER_NAME = 4;
+	static final int SELLER_EMAIL = 8;
+	static final int SELLER_BIRTH_DATE = 12;
+	static final int SELLER_BASE_SALARY = 16;
+	static final int SELLER_DEPARTMENT_ID = 24;
+	static final int SELLER_VERSION = 28;
+
+	static final int NO_STRING = -1;
+	// DepartmentId nulo / Version não lida (optimisticLocking.enabled=false)
+	static final int NO_VALUE = Integer.MIN_VALUE;
+
+	private SnapshotFormat() {
+	}
+}
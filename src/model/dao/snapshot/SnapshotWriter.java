@@ -0,0 +1,209 @@
+package model.dao.snapshot;
+
+import static model.dao.snapshot.SnapshotFormat.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import db.DB;
+import db.DBException;
+
+// Grava as tabelas department e seller num arquivo de snapshot (layout em SnapshotFormat),
+// lido depois por MappedSnapshot.open(file) sem consultar o banco.
+// As duas tabelas são lidas na mesma transação (mesma visão do banco). O arquivo é montado
+// em "<file>.tmp" e só então renomeado por cima do antigo: quem já mapeou o anterior continua lendo ele.
+public class SnapshotWriter {
+
+	private static final String DEPARTMENTS_SQL = "SELECT Id, Name FROM department ORDER BY Id";
+
+	// Version só é lida com optimisticLocking.enabled=true (como nos RowMappers)
+	private static final boolean VERSIONED = DB.isOptimisticLocking();
+
+	private static final String SELLERS_SQL = "SELECT Id, Name, Email, BirthDate, BaseSalary, DepartmentId"
+			+ (VERSIONED ? ", Version" : "") + " "
+			+ "FROM seller "
+			+ "ORDER BY Id";
+
+	private SnapshotWriter() {
+	}
+
+	// Grava o snapshot e devolve quantos sellers foram gravados
+	public static int write(Path file) {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		Path heapFile = file.resolveSibling(file.getFileName() + ".heap");
+
+		Connection c = null;
+		boolean owned = false;
+		try {
+			c = DB.getReadConnection();
+			owned = DB.beginTransaction(c);
+			long createdAt = DB.currentTimestamp(c);
+
+			int[] departmentIds;
+			int[] sellerIds;
+			try (DataOutputStream out = open(tmp); DataOutputStream heap = open(heapFile)) {
+				// O cabeçalho é gravado no final, quando as posições das seções são conhecidas
+				out.write(new byte[HEADER_SIZE]);
+				departmentIds = writeDepartments(c, out, heap);
+				sellerIds = writeSellers(c, out, heap);
+				for (int id : departmentIds) {
+					out.writeInt(id);
+				}
+				for (int id : sellerIds) {
+					out.writeInt(id);
+				}
+			}
+
+			long recordsEnd = Files.size(tmp);
+			if (recordsEnd + Files.size(heapFile) > Integer.MAX_VALUE) {
+				throw new DBException("Snapshot larger than 2 GB: " + file);
+			}
+
+			try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE);
+					FileChannel heap = FileChannel.open(heapFile, StandardOpenOption.READ)) {
+				// Heap anexado no fim do arquivo
+				channel.position(recordsEnd);
+				long size = heap.size();
+				long copied = 0;
+				while (copied < size) {
+					copied += heap.transferTo(copied, size - copied, channel);
+				}
+				channel.write(header(createdAt, departmentIds.length, sellerIds.length, (int) recordsEnd), 0);
+				channel.force(true);
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return sellerIds.length;
+
+		} catch (SQLException | IOException e) {
+			throw new DBException("Error writing snapshot: " + e.getMessage());
+		} finally {
+			try {
+				Files.deleteIfExists(tmp);
+				Files.deleteIfExists(heapFile);
+			} catch (IOException e) {
+				// Sobra de arquivo temporário não invalida o snapshot gravado
+			}
+			if (c != null) {
+				DB.endTransaction(c, owned);
+				DB.closeConnection(c);
+			}
+		}
+	}
+
+	private static int[] writeDepartments(Connection c, DataOutputStream out, DataOutputStream heap)
+			throws SQLException, IOException {
+		PreparedStatement st = null;
+		ResultSet rs = null;
+		try {
+			st = DB.prepareStatement(c, DEPARTMENTS_SQL);
+			rs = st.executeQuery();
+
+			int size = 0;
+			int[] ids = new int[64];
+			while (rs.next()) {
+				if (size == ids.length) {
+					ids = Arrays.copyOf(ids, size * 2);
+				}
+				ids[size++] = rs.getInt(1);
+				out.writeInt(rs.getInt(1));
+				out.writeInt(writeString(heap, rs.getString(2)));
+			}
+			return Arrays.copyOf(ids, size);
+
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+		}
+	}
+
+	private static int[] writeSellers(Connection c, DataOutputStream out, DataOutputStream heap)
+			throws SQLException, IOException {
+		PreparedStatement st = null;
+		ResultSet rs = null;
+		try {
+			// Statement fora do cache: o fetch size é próprio da leitura em streaming
+			st = c.prepareStatement(SELLERS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			st.setFetchSize(DB.getStreamFetchSize());
+			rs = st.executeQuery();
+
+			int size = 0;
+			int[] ids = new int[1024];
+			while (rs.next()) {
+				if (size == ids.length) {
+					ids = Arrays.copyOf(ids, size * 2);
+				}
+				int id = rs.getInt(1);
+				ids[size++] = id;
+
+				out.writeInt(id);
+				out.writeInt(writeString(heap, rs.getString(2)));
+				out.writeInt(writeString(heap, rs.getString(3)));
+				out.writeInt((int) rs.getDate(4).toLocalDate().toEpochDay());
+				out.writeDouble(rs.getDouble(5));
+				int departmentId = rs.getInt(6);
+				out.writeInt(rs.wasNull() ? NO_VALUE : departmentId);
+				out.writeInt(VERSIONED ? rs.getInt(7) : NO_VALUE);
+			}
+			return Arrays.copyOf(ids, size);
+
+		} finally {
+			DB.closeResultSet(rs);
+			DB.closeStatement(st);
+		}
+	}
+
+	// Grava a string no heap e devolve a posição dela (relativa ao início do heap)
+	private static int writeString(DataOutputStream heap, String value) throws IOException {
+		if (value == null) {
+			return NO_STRING;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > 0xFFFF) {
+			throw new DBException("String too long for snapshot: " + bytes.length + " bytes");
+		}
+		int position = heap.size();
+		if (position == Integer.MAX_VALUE) {
+			throw new DBException("Snapshot string heap larger than 2 GB");
+		}
+		heap.writeShort(bytes.length);
+		heap.write(bytes);
+		return position;
+	}
+
+	private static ByteBuffer header(long createdAt, int departments, int sellers, int heapStart) {
+		int departmentRecords = HEADER_SIZE;
+		int sellerRecords = departmentRecords + departments * DEPARTMENT_RECORD;
+		int departmentIndex = sellerRecords + sellers * SELLER_RECORD;
+		int sellerIndex = departmentIndex + departments * 4;
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(0, MAGIC);
+		header.putInt(4, FORMAT_VERSION);
+		header.putLong(CREATED_AT, createdAt);
+		header.putInt(DEPARTMENT_COUNT, departments);
+		header.putInt(SELLER_COUNT, sellers);
+		header.putInt(DEPARTMENT_RECORDS, departmentRecords);
+		header.putInt(SELLER_RECORDS, sellerRecords);
+		header.putInt(DEPARTMENT_INDEX, departmentIndex);
+		header.putInt(SELLER_INDEX, sellerIndex);
+		header.putInt(HEAP, heapStart);
+		return header;
+	}
+
+	private static DataOutputStream open(Path file) throws IOException {
+		return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+	}
+}
@@ -9,6 +9,15 @@ public class Department implements Serializable {
 	
 	private Integer id;
 	private String name;
+
+	// Bit da coluna alterada desde a leitura (ou a última gravação)
+	public static final int NAME = 1;
+	public static final int ALL_FIELDS = NAME;
+
+	private int dirtyFields;
+
+	// Versão lida do banco (coluna Version, com optimisticLocking.enabled=true); null = desconhecida
+	private Integer version;
 	
 	public Department() {
 	}
@@ -16,6 +25,15 @@ public class Department implements Serializable {
 	public Department(Integer id, String name) {
 		this.id = id;
 		this.name = name;
+		this.dirtyFields = ALL_FIELDS;
+	}
+
+	// Cópia com o mesmo estado (campo alterado e versão incluídos)
+	public Department(Department other) {
+		this.id = other.id;
+		this.name = other.name;
+		this.dirtyFields = other.dirtyFields;
+		this.version = other.version;
 	}
 
 	public Integer getId() {
@@ -32,6 +50,34 @@ public class Department implements Serializable {
 
 	public void setName(String name) {
 		this.name = name;
+		dirtyFields |= NAME;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+	// Não marca nada como alterado: a versão é controlada pelo DAO
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
+	// Bits das colunas alteradas; 0 quando nada mudou
+	public int getDirtyFields() {
+		return dirtyFields;
+	}
+
+	public boolean isDirty() {
+		return dirtyFields != 0;
+	}
+
+	// Chamado pelo DAO depois de ler ou gravar: o objeto passa a refletir o banco
+	public void markClean() {
+		dirtyFields = 0;
+	}
+
+	public void markDirty() {
+		dirtyFields = ALL_FIELDS;
 	}
 
 	@Override
@@ -15,6 +15,20 @@ public class Seller implements Serializable {
 	private Double baseSalary;
 	
 	private Department department;
+
+	// Bits das colunas alteradas desde a leitura (ou a última gravação);
+	// o update grava só essas colunas
+	public static final int NAME = 1;
+	public static final int EMAIL = 1 << 1;
+	public static final int BIRTH_DATE = 1 << 2;
+	public static final int BASE_SALARY = 1 << 3;
+	public static final int DEPARTMENT = 1 << 4;
+	public static final int ALL_FIELDS = NAME | EMAIL | BIRTH_DATE | BASE_SALARY | DEPARTMENT;
+
+	private int dirtyFields;
+
+	// Versão lida do banco (coluna Version, com optimisticLocking.enabled=true); null = desconhecida
+	private Integer version;
 	
 	public Seller() {
 	}
@@ -26,6 +40,20 @@ public class Seller implements Serializable {
 		this.birthDate = birthDate;
 		this.baseSalary = baseSalary;
 		this.department = department;
+		// Objeto montado à mão: não sabemos o que está no banco, então tudo conta como alterado
+		this.dirtyFields = ALL_FIELDS;
+	}
+
+	// Cópia com o mesmo estado (campos alterados e versão incluídos), com uma cópia do Department
+	public Seller(Seller other) {
+		this.id = other.id;
+		this.name = other.name;
+		this.email = other.email;
+		this.birthDate = other.birthDate;
+		this.baseSalary = other.baseSalary;
+		this.department = other.department == null ? null : new Department(other.department);
+		this.dirtyFields = other.dirtyFields;
+		this.version = other.version;
 	}
 
 	public Integer getId() {
@@ -42,6 +70,7 @@ public class Seller implements Serializable {
 
 	public void setName(String name) {
 		this.name = name;
+		dirtyFields |= NAME;
 	}
 
 	public String getEmail() {
@@ -50,6 +79,7 @@ public class Seller implements Serializable {
 
 	public void setEmail(String email) {
 		this.email = email;
+		dirtyFields |= EMAIL;
 	}
 
 	public LocalDate getBirthDate() {
@@ -58,6 +88,7 @@ public class Seller implements Serializable {
 
 	public void setBirthDate(LocalDate birthDate) {
 		this.birthDate = birthDate;
+		dirtyFields |= BIRTH_DATE;
 	}
 
 	public Double getBaseSalary() {
@@ -66,6 +97,7 @@ public class Seller implements Serializable {
 
 	public void setBaseSalary(Double baseSalary) {
 		this.baseSalary = baseSalary;
+		dirtyFields |= BASE_SALARY;
 	}
 
 	public Department getDepartment() {
@@ -74,6 +106,35 @@ public class Seller implements Serializable {
 
 	public void setDepartment(Department department) {
 		this.department = department;
+		dirtyFields |= DEPARTMENT;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+	// Não marca nada como alterado: a versão é controlada pelo DAO
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
+	// Bits (NAME, EMAIL, ...) das colunas alteradas; 0 quando nada mudou
+	public int getDirtyFields() {
+		return dirtyFields;
+	}
+
+	public boolean isDirty() {
+		return dirtyFields != 0;
+	}
+
+	// Chamado pelo DAO depois de ler ou gravar: o objeto passa a refletir o banco
+	public void markClean() {
+		dirtyFields = 0;
+	}
+
+	// Força a gravação de todas as colunas no próximo update
+	public void markDirty() {
+		dirtyFields = ALL_FIELDS;
 	}
 
 	@Override